@@ -0,0 +1,146 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compares two JMH JSON result files (-rf json) benchmark by benchmark.
+ * <p>
+ * Usage: BaselineComparison baseline.json current.json [threshold-percent]
+ * <p>
+ * Exits with status 1 when any benchmark regressed by more than the threshold, 10% by default, and with
+ * status 2 when the baseline holds no scores, as nothing could then be found to regress.
+ */
+@SuppressWarnings("WeakerAccess")
+public class BaselineComparison {
+
+	protected static final double DEFAULT_THRESHOLD = 10.0;
+
+	protected final Map<String, Score> baseline;
+	protected final Map<String, Score> current;
+
+	public BaselineComparison(Map<String, Score> baseline, Map<String, Score> current) {
+		this.baseline = baseline;
+		this.current = current;
+	}
+
+	public static void main(String[] args) throws IOException {
+		checkArgument(2 == args.length || 3 == args.length,
+			"usage: BaselineComparison baseline.json current.json [threshold-percent]");
+		double threshold = 3 == args.length ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+
+		Map<String, Score> baseline = read(Paths.get(args[0]));
+		if (baseline.isEmpty()) {
+			System.err.printf("%s holds no scores; record a reference run with -rf json -rff %s%n", args[0], args[0]);
+			System.exit(2);
+		}
+
+		BaselineComparison comparison = new BaselineComparison(baseline, read(Paths.get(args[1])));
+		int regressions = comparison.report(System.out, threshold);
+		System.exit(regressions > 0 ? 1 : 0);
+	}
+
+	/**
+	 * @return number of benchmarks regressing by more than threshold percent
+	 */
+	public int report(PrintStream out, double threshold) {
+		int regressions = 0;
+		for (Map.Entry<String, Score> entry : current.entrySet()) {
+			String key = entry.getKey();
+			Score now = entry.getValue();
+			Score then = baseline.get(key);
+			if (null == then) {
+				out.printf("%-100s %14.3f %-8s (new)%n", key, now.score, now.unit);
+				continue;
+			}
+
+			double change = then.getRegression(now);
+			boolean regressed = change > threshold;
+			regressions += regressed ? 1 : 0;
+			out.printf("%-100s %14.3f %-8s %+8.2f%%%s%n", key, now.score, now.unit, change, regressed ? " REGRESSED" : "");
+		}
+		baseline.keySet().stream()
+			.filter(key -> !current.containsKey(key))
+			.forEach(key -> out.printf("%-100s (missing)%n", key));
+		return regressions;
+	}
+
+	public static Map<String, Score> read(Path path) throws IOException {
+		Map<String, Score> scores = new TreeMap<>();
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			JsonArray results = JsonParser.parseReader(reader).getAsJsonArray();
+			for (JsonElement element : results) {
+				JsonObject result = element.getAsJsonObject();
+				JsonObject metric = result.getAsJsonObject("primaryMetric");
+				Score score = new Score(
+					result.get("mode").getAsString(),
+					metric.get("score").getAsDouble(),
+					metric.get("scoreUnit").getAsString());
+				scores.put(getKey(result), score);
+			}
+		}
+		return scores;
+	}
+
+	protected static String getKey(JsonObject result) {
+		StringBuilder key = new StringBuilder(result.get("benchmark").getAsString());
+		JsonObject params = result.getAsJsonObject("params");
+		if (null != params) {
+			Map<String, String> sorted = new TreeMap<>();
+			params.entrySet().forEach(entry -> sorted.put(entry.getKey(), entry.getValue().getAsString()));
+			sorted.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+		}
+		return key.toString();
+	}
+
+	public static class Score {
+
+		protected final String mode;
+		protected final double score;
+		protected final String unit;
+
+		public Score(String mode, double score, String unit) {
+			this.mode = mode;
+			this.score = score;
+			this.unit = unit;
+		}
+
+		/**
+		 * @return percentage by which that score is worse than this one; negative for improvements
+		 */
+		protected double getRegression(Score that) {
+			double change = 0 == score ? 0 : (that.score - score) / score * 100;
+			// Throughput improves as the score rises; every other mode measures time.
+			return "thrpt".equals(mode) ? -change : change;
+		}
+	}
+}
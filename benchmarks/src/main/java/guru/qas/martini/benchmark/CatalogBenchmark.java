@@ -0,0 +1,61 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.Resource;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.gherkin.GherkinResourceLoader;
+import guru.qas.martini.gherkin.Mixology;
+
+/**
+ * Feature parsing and DefaultMartiniFactory catalog construction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CatalogBenchmark {
+
+	@Benchmark
+	public void parse(CorpusState corpus, Blackhole blackhole) throws IOException {
+		Mixology mixology = corpus.getBean(Mixology.class);
+		for (Resource resource : corpus.getBean(GherkinResourceLoader.class).getFeatureResources()) {
+			blackhole.consume(mixology.get(resource));
+		}
+	}
+
+	@Benchmark
+	public Collection<Martini> build(CorpusState corpus) {
+		MartiniFactory factory = corpus.getBean(MartiniFactory.class);
+		factory.refresh();
+		return factory.getMartinis();
+	}
+}
@@ -0,0 +1,121 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.corpus.SyntheticCorpus;
+import guru.qas.martini.corpus.SyntheticCorpusRegistrar;
+
+/**
+ * Generates a SyntheticCorpus and loads it into a Martini ApplicationContext once per trial.
+ */
+@SuppressWarnings("WeakerAccess")
+@State(Scope.Benchmark)
+public class CorpusState {
+
+	@Param("100")
+	public int featureCount;
+
+	@Param("10")
+	public int scenariosPerFeature;
+
+	@Param("8")
+	public int stepsPerScenario;
+
+	@Param("20")
+	public int outlineRows;
+
+	@Param("200")
+	public int stepDefinitions;
+
+	@Param("6")
+	public int categoryDepth;
+
+	@Param("0")
+	public int gatedInterval;
+
+	protected Path directory;
+	protected ClassPathXmlApplicationContext context;
+	protected List<Martini> martinis;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("martini-benchmark");
+		SyntheticCorpus corpus = SyntheticCorpus.builder()
+			.setFeatureCount(featureCount)
+			.setScenariosPerFeature(scenariosPerFeature)
+			.setStepsPerScenario(stepsPerScenario)
+			.setOutlineRows(outlineRows)
+			.setStepDefinitions(stepDefinitions)
+			.setCategoryDepth(categoryDepth)
+			.setGatedInterval(gatedInterval)
+			.build();
+		corpus.write(directory);
+
+		context = new ClassPathXmlApplicationContext(new String[]{"benchmarkContext.xml"}, false);
+		Map<String, Object> properties = ImmutableMap.of(
+			"martini.feature.resources", directory.toUri() + "*.feature");
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+		context.addBeanFactoryPostProcessor(new SyntheticCorpusRegistrar(corpus));
+		context.refresh();
+
+		martinis = new ArrayList<>(getBean(MartiniFactory.class).getMartinis());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+		if (null != directory) {
+			MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	public ClassPathXmlApplicationContext getContext() {
+		return context;
+	}
+
+	public <T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	public List<Martini> getMartinis() {
+		return martinis;
+	}
+}
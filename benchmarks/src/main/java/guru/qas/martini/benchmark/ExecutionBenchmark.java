@@ -0,0 +1,79 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.runtime.harness.MartiniCallable;
+
+/**
+ * MartiniCallable.call, one scenario per invocation, including step dispatch and event publication.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExecutionBenchmark {
+
+	@State(Scope.Thread)
+	public static class CursorState {
+
+		protected AutowireCapableBeanFactory beanFactory;
+		protected List<Martini> martinis;
+		protected int cursor;
+
+		@Setup(Level.Trial)
+		public void setUp(CorpusState corpus) {
+			beanFactory = corpus.getContext().getAutowireCapableBeanFactory();
+			martinis = corpus.getMartinis();
+		}
+
+		protected Martini next() {
+			Martini martini = martinis.get(cursor);
+			cursor = cursor + 1 == martinis.size() ? 0 : cursor + 1;
+			return martini;
+		}
+	}
+
+	@Benchmark
+	public MartiniResult call(CursorState state) {
+		return getCallable(state.beanFactory, state.next()).call();
+	}
+
+	static MartiniCallable getCallable(AutowireCapableBeanFactory beanFactory, Martini martini) {
+		MartiniCallable callable = new MartiniCallable(martini);
+		beanFactory.autowireBean(callable);
+		String beanName = String.format("%s:%s", MartiniCallable.class.getName(), martini.getId());
+		return (MartiniCallable) beanFactory.initializeBean(callable, beanName);
+	}
+}
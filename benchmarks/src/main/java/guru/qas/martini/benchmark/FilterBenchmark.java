@@ -0,0 +1,61 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.Mixologist;
+
+/**
+ * SpEL filtering through Mixologist.getMartinis(String).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FilterBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class FilterState {
+
+		@Param({
+			"isSmoke()",
+			"isGroup('g3')",
+			"isSmoke() and isGroup('g3')",
+			"isScenario('Scenario 7.3')",
+			"isCategory('SyntheticL0N0')"})
+		public String filter;
+	}
+
+	@Benchmark
+	public Collection<Martini> filter(CorpusState corpus, FilterState state) {
+		return corpus.getBean(Mixologist.class).getMartinis(state.filter);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import gherkin.ast.Step;
+import guru.qas.martini.Martini;
+import guru.qas.martini.spring.DefaultStepImplementationResolver;
+import guru.qas.martini.spring.IndexedStepImplementationResolver;
+import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.step.StepImplementationResolver;
+
+/**
+ * StepImplementationResolver.getImplementation over the corpus' steps, cycling through them in order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ResolutionBenchmark {
+
+	@State(Scope.Thread)
+	public static class ResolverState {
+
+		/**
+		 * "configured" is the context's resolver; the others are created uncached.
+		 */
+		@Param({"configured", "indexed", "linear"})
+		public String resolver;
+
+		protected StepImplementationResolver implementation;
+		protected Step[] steps;
+		protected int cursor;
+
+		@Setup(Level.Trial)
+		public void setUp(CorpusState corpus) {
+			switch (resolver) {
+				case "indexed":
+					implementation = corpus.getContext().getAutowireCapableBeanFactory()
+						.createBean(IndexedStepImplementationResolver.class);
+					break;
+				case "linear":
+					implementation = corpus.getContext().getAutowireCapableBeanFactory()
+						.createBean(DefaultStepImplementationResolver.class);
+					break;
+				default:
+					implementation = corpus.getBean(StepImplementationResolver.class);
+			}
+
+			List<Step> steps = new ArrayList<>();
+			for (Martini martini : corpus.getMartinis()) {
+				steps.addAll(martini.getStepIndex().keySet());
+			}
+			this.steps = steps.toArray(new Step[0]);
+		}
+
+		protected Step next() {
+			Step step = steps[cursor];
+			cursor = cursor + 1 == steps.length ? 0 : cursor + 1;
+			return step;
+		}
+	}
+
+	@Benchmark
+	public StepImplementation resolve(ResolverState state) {
+		return state.implementation.getImplementation(state.next());
+	}
+}
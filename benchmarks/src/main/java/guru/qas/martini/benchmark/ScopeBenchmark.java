@@ -0,0 +1,93 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.ObjectFactory;
+
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.result.DefaultMartiniResult;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.scope.MartiniScenarioScope;
+import guru.qas.martini.tag.Categories;
+
+/**
+ * Scenario-scoped bean lookup and a scenario's populate-then-clear cycle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ScopeBenchmark {
+
+	protected static final String[] NAMES = {
+		"bean0", "bean1", "bean2", "bean3", "bean4", "bean5", "bean6", "bean7",
+		"bean8", "bean9", "bean10", "bean11", "bean12", "bean13", "bean14", "bean15"};
+
+	@State(Scope.Thread)
+	public static class ScopeState {
+
+		protected MartiniScenarioScope scope;
+		protected MartiniResult result;
+		protected ObjectFactory<Object> factory;
+
+		@Setup(Level.Trial)
+		public void setUp(CorpusState corpus) {
+			scope = corpus.getBean(MartiniScenarioScope.class);
+			result = DefaultMartiniResult.builder()
+				.setMartiniSuiteIdentifier(corpus.getBean(SuiteIdentifier.class))
+				.setMartini(corpus.getMartinis().get(0))
+				.build(corpus.getBean(Categories.class));
+			factory = Object::new;
+			scope.setScenarioIdentifier(result);
+			scope.get(NAMES[0], factory);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			scope.clear();
+		}
+	}
+
+	@Benchmark
+	public Object get(ScopeState state) {
+		return state.scope.get(NAMES[0], state.factory);
+	}
+
+	@Benchmark
+	public void populateAndClear(ScopeState state, Blackhole blackhole) {
+		state.scope.setScenarioIdentifier(state.result);
+		for (String name : NAMES) {
+			blackhole.consume(state.scope.get(name, state.factory));
+		}
+		state.scope.clear();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.NetworkInterface;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.result.StepResult;
+import guru.qas.martini.runtime.event.json.FeatureSerializer;
+import guru.qas.martini.runtime.event.json.HostSerializer;
+import guru.qas.martini.runtime.event.json.JsonRecordWriter;
+import guru.qas.martini.runtime.event.json.MartiniResultSerializer;
+import guru.qas.martini.runtime.event.json.StepImplementationSerializer;
+import guru.qas.martini.runtime.event.json.StepResultSerializer;
+import guru.qas.martini.runtime.event.json.SuiteIdentifierSerializer;
+import guru.qas.martini.step.StepImplementation;
+
+/**
+ * One executed MartiniResult written through the tree-based serializers and through JsonRecordWriter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class ResultState {
+
+		protected MartiniResult result;
+		protected Gson gson;
+		protected JsonRecordWriter recordWriter;
+
+		@Setup(Level.Trial)
+		public void setUp(CorpusState corpus) {
+			AutowireCapableBeanFactory beanFactory = corpus.getContext().getAutowireCapableBeanFactory();
+			result = ExecutionBenchmark.getCallable(beanFactory, corpus.getMartinis().get(0)).call();
+			gson = new GsonBuilder()
+				.registerTypeHierarchyAdapter(MartiniResult.class, corpus.getBean(MartiniResultSerializer.class))
+				.registerTypeHierarchyAdapter(StepResult.class, corpus.getBean(StepResultSerializer.class))
+				.registerTypeHierarchyAdapter(StepImplementation.class, corpus.getBean(StepImplementationSerializer.class))
+				.registerTypeHierarchyAdapter(SuiteIdentifier.class, corpus.getBean(SuiteIdentifierSerializer.class))
+				.registerTypeAdapter(NetworkInterface.class, corpus.getBean(HostSerializer.class))
+				.registerTypeAdapter(FeatureWrapper.class, corpus.getBean(FeatureSerializer.class))
+				.create();
+			recordWriter = corpus.getBean(JsonRecordWriter.class);
+		}
+	}
+
+	@Benchmark
+	public void tree(ResultState state) {
+		state.gson.toJson(state.result, MartiniResult.class, Writer.nullWriter());
+	}
+
+	@Benchmark
+	public void streaming(ResultState state) throws IOException {
+		state.recordWriter.writeResult(new JsonWriter(Writer.nullWriter()), state.result);
+	}
+}
@@ -24,6 +24,7 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,6 +45,7 @@ import guru.qas.martini.gate.MartiniGate;
 import guru.qas.martini.gherkin.FeatureWrapper;
 import guru.qas.martini.tag.DefaultMartiniTag;
 import guru.qas.martini.gherkin.Recipe;
+import guru.qas.martini.step.ArgumentPlan;
 import guru.qas.martini.step.StepImplementation;
 import guru.qas.martini.tag.MartiniTag;
 
@@ -59,6 +61,7 @@ public class DefaultMartini implements Martini {
 	protected final ImmutableMap<Step, StepImplementation> stepIndex;
 	protected final ImmutableSet<MartiniGate> gates;
 	protected final ImmutableSet<MartiniTag> tags;
+	protected final ImmutableMap<Step, ArgumentPlan> argumentPlans;
 
 	@Override
 	public Recipe getRecipe() {
@@ -80,16 +83,32 @@ public class DefaultMartini implements Martini {
 		return tags;
 	}
 
+	@Override
+	public Optional<ArgumentPlan> getArgumentPlan(Step step) {
+		return Optional.ofNullable(argumentPlans.get(step));
+	}
+
 	protected DefaultMartini(
 		@Nonnull Recipe recipe,
 		@Nonnull ImmutableMap<Step, StepImplementation> stepIndex,
 		@Nonnull ImmutableSet<MartiniGate> gates,
 		@Nonnull ImmutableSet<MartiniTag> tags
+	) {
+		this(recipe, stepIndex, gates, tags, ImmutableMap.of());
+	}
+
+	protected DefaultMartini(
+		@Nonnull Recipe recipe,
+		@Nonnull ImmutableMap<Step, StepImplementation> stepIndex,
+		@Nonnull ImmutableSet<MartiniGate> gates,
+		@Nonnull ImmutableSet<MartiniTag> tags,
+		@Nonnull ImmutableMap<Step, ArgumentPlan> argumentPlans
 	) {
 		this.recipe = checkNotNull(recipe, "null Recipe");
 		this.stepIndex = checkNotNull(stepIndex, "null ImmutableMap");
 		this.gates = checkNotNull(gates, "null ImmutableSet<MartiniGate>");
 		this.tags = checkNotNull(tags, "null ImmutableSet<MartiniTag>");
+		this.argumentPlans = checkNotNull(argumentPlans, "null ImmutableMap<Step, ArgumentPlan>");
 	}
 
 	@Override
@@ -163,10 +182,12 @@ public class DefaultMartini implements Martini {
 		protected Recipe recipe;
 		protected final LinkedHashMap<Step, StepImplementation> index;
 		protected final LinkedHashSet<MartiniGate> gates;
+		protected final LinkedHashMap<Step, ArgumentPlan> argumentPlans;
 
 		protected Builder() {
 			index = new LinkedHashMap<>();
 			gates = new LinkedHashSet<>();
+			argumentPlans = new LinkedHashMap<>();
 		}
 
 		protected Builder setRecipe(@Nullable Recipe recipe) {
@@ -180,6 +201,14 @@ public class DefaultMartini implements Martini {
 			return this;
 		}
 
+		@SuppressWarnings("UnusedReturnValue")
+		protected Builder add(@Nonnull Step step, @Nonnull ArgumentPlan plan) {
+			checkNotNull(step, "null Step");
+			checkNotNull(plan, "null ArgumentPlan");
+			argumentPlans.put(step, plan);
+			return this;
+		}
+
 		@SuppressWarnings("UnusedReturnValue")
 		protected Builder addAll(@Nullable Collection<MartiniGate> gates) {
 			if (null != gates) {
@@ -192,7 +221,8 @@ public class DefaultMartini implements Martini {
 			ImmutableSet<MartiniTag> tags = getTags();
 			ImmutableMap<Step, StepImplementation> immutableIndex = ImmutableMap.copyOf(index);
 			ImmutableSet<MartiniGate> immutableGates = ImmutableSet.copyOf(gates);
-			return new DefaultMartini(recipe, immutableIndex, immutableGates, tags);
+			ImmutableMap<Step, ArgumentPlan> immutablePlans = ImmutableMap.copyOf(argumentPlans);
+			return new DefaultMartini(recipe, immutableIndex, immutableGates, tags, immutablePlans);
 		}
 
 		protected ImmutableSet<MartiniTag> getTags() {
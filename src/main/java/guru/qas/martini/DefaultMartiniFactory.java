@@ -21,18 +21,32 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.Resource;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import exception.MartiniException;
 import gherkin.ast.Background;
 import gherkin.ast.ScenarioDefinition;
@@ -42,7 +56,9 @@ import guru.qas.martini.gate.MartiniGateFactory;
 import guru.qas.martini.gherkin.GherkinResourceLoader;
 import guru.qas.martini.gherkin.Mixology;
 import guru.qas.martini.gherkin.Recipe;
+import guru.qas.martini.step.ArgumentPlan;
 import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.step.converter.ParameterConverterFactory;
 import guru.qas.martini.step.StepImplementationResolver;
 import guru.qas.martini.tag.Categories;
 
@@ -53,15 +69,21 @@ import static com.google.common.base.Preconditions.*;
  */
 @SuppressWarnings("WeakerAccess")
 @Configurable
-public class DefaultMartiniFactory implements MartiniFactory, ApplicationContextAware {
+public class DefaultMartiniFactory implements MartiniFactory, ApplicationContextAware, EnvironmentAware, InitializingBean {
 
 	protected final GherkinResourceLoader loader;
 	protected final Mixology mixology;
 	protected final Categories categories;
 	protected final StepImplementationResolver resolver;
 	protected final MartiniGateFactory gateFactory;
+	protected final AtomicLong buildCount;
+	protected final Logger logger;
 
 	protected ApplicationContext context;
+	protected Environment environment;
+	protected int parallelism;
+	protected volatile ImmutableList<Martini> catalog;
+	protected ParameterConverterFactory converterFactory;
 
 	@Autowired
 	protected DefaultMartiniFactory(
@@ -76,6 +98,13 @@ public class DefaultMartiniFactory implements MartiniFactory, ApplicationContext
 		this.categories = categories;
 		this.resolver = resolver;
 		this.gateFactory = gateFactory;
+		this.buildCount = new AtomicLong();
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Autowired(required = false)
+	protected void setConverterFactory(ParameterConverterFactory converterFactory) {
+		this.converterFactory = converterFactory;
 	}
 
 	@Override
@@ -83,15 +112,107 @@ public class DefaultMartiniFactory implements MartiniFactory, ApplicationContext
 		this.context = checkNotNull(context, "null ApplicationContext");
 	}
 
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		parallelism = environment.getProperty(PROPERTY_PARALLELISM, int.class, 1);
+		checkState(parallelism > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_PARALLELISM, parallelism);
+	}
+
+	/**
+	 * @return number of times the Martini catalog has been built
+	 */
+	public long getBuildCount() {
+		return buildCount.get();
+	}
+
+	/**
+	 * @return the Martini catalog, built on first use and retained until refreshed
+	 */
 	@Override
 	public Collection<Martini> getMartinis() {
+		ImmutableList<Martini> martinis = catalog;
+		if (null == martinis) {
+			synchronized (buildCount) {
+				martinis = catalog;
+				if (null == martinis) {
+					martinis = ImmutableList.copyOf(buildMartinis());
+					buildCount.incrementAndGet();
+					catalog = martinis;
+					mixology.catalogBuilt();
+				}
+			}
+		}
+		return martinis;
+	}
+
+	@Override
+	public void refresh() {
+		synchronized (buildCount) {
+			catalog = null;
+		}
+	}
+
+	protected Collection<Martini> buildMartinis() {
 		List<Resource> resources = getFeatureResources();
+		int threads = Math.min(parallelism, resources.size());
+		return threads > 1 ? getMartinis(resources, threads) : getMartinis(resources);
+	}
+
+	protected Collection<Martini> getMartinis(List<Resource> resources) {
 		List<Recipe> recipes = resources.stream()
 			.flatMap(resource -> mixology.get(resource).stream())
 			.collect(Collectors.toList());
 		return getMartinis(recipes);
 	}
 
+	/**
+	 * Parses each resource and builds its Martini instances on a pool of the given size, returning them
+	 * in the same order as sequential loading would.
+	 */
+	protected Collection<Martini> getMartinis(List<Resource> resources, int threads) {
+		ThreadFactory threadFactory = new ThreadFactoryBuilder()
+			.setNameFormat("martini-factory-%d")
+			.setDaemon(true)
+			.build();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+		try {
+			List<Future<Collection<Martini>>> futures = resources.stream()
+				.map(resource -> executor.submit(() -> getMartinis(mixology.get(resource))))
+				.collect(Collectors.toList());
+
+			List<Martini> martinis = new ArrayList<>();
+			for (Future<Collection<Martini>> future : futures) {
+				martinis.addAll(getResult(future));
+			}
+			return martinis;
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	protected <T> T getResult(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MartiniException(e, DefaultMartiniFactoryMessages.LOADING_INTERRUPTED);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (RuntimeException.class.isInstance(cause)) {
+				throw RuntimeException.class.cast(cause);
+			}
+			throw new MartiniException(cause, DefaultMartiniFactoryMessages.LOADING_ERROR);
+		}
+	}
+
 	protected List<Resource> getFeatureResources() {
 		try {
 			Resource[] resources = loader.getFeatureResources();
@@ -112,15 +233,36 @@ public class DefaultMartiniFactory implements MartiniFactory, ApplicationContext
 		Collection<Step> steps = getSteps(recipe);
 
 		DefaultMartini.Builder builder = DefaultMartini.builder().setRecipe(recipe);
+		ArgumentPlan.Builder planBuilder = ArgumentPlan.builder()
+			.setRecipe(recipe)
+			.setConverterFactory(converterFactory);
 		steps.forEach(step -> {
 			StepImplementation implementation = resolver.getImplementation(step);
 			builder.add(step, implementation);
+			getArgumentPlan(planBuilder, step, implementation).ifPresent(plan -> builder.add(step, plan));
 			Collection<MartiniGate> gates = gateFactory.getGates(implementation);
 			builder.addAll(gates);
 		});
 		return builder.build();
 	}
 
+	/**
+	 * Steps whose step text or Examples do not yield arguments are left to MartiniCallable, which reports
+	 * the failure when the step executes. Other exceptions propagate.
+	 */
+	protected Optional<ArgumentPlan> getArgumentPlan(ArgumentPlan.Builder builder, Step step, StepImplementation implementation) {
+		Optional<ArgumentPlan> plan = Optional.empty();
+		if (implementation.getMethod().isPresent()) {
+			try {
+				plan = Optional.of(builder.setStep(step).setImplementation(implementation).build());
+			}
+			catch (IllegalStateException e) {
+				logger.debug("unable to plan arguments for step {}; deferring to execution", step.getText(), e);
+			}
+		}
+		return plan;
+	}
+
 	protected Collection<Step> getSteps(Recipe recipe) {
 		Background background = recipe.getBackground();
 		ScenarioDefinition scenarioDefinition = recipe.getScenarioDefinition();
@@ -24,5 +24,6 @@ import ch.qos.cal10n.LocaleData;
 @BaseName("guru.qas.martini.defaultMartiniFactoryMessages")
 @LocaleData({@Locale("en")})
 public enum DefaultMartiniFactoryMessages {
-	LOADING_ERROR
+	LOADING_ERROR,
+	LOADING_INTERRUPTED
 }
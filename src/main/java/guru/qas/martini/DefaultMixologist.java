@@ -18,15 +18,19 @@ package guru.qas.martini;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
 import org.springframework.expression.Expression;
 import org.springframework.expression.MethodResolver;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
@@ -35,9 +39,12 @@ import org.springframework.expression.spel.support.StandardEvaluationContext;
 import com.google.common.collect.ImmutableList;
 
 import guru.qas.martini.filter.category.CategoryResolver;
+import guru.qas.martini.filter.engine.FilterEngine;
+import guru.qas.martini.filter.engine.MartiniFilter;
 import guru.qas.martini.filter.feature.FeatureResolver;
 import guru.qas.martini.filter.gated.GatedResolver;
 import guru.qas.martini.filter.id.IdResolver;
+import guru.qas.martini.index.MartiniIndex;
 import guru.qas.martini.filter.resource.ResourceResolver;
 import guru.qas.martini.filter.scenario.ScenarioResolver;
 import guru.qas.martini.tag.Categories;
@@ -47,12 +54,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 @SuppressWarnings("WeakerAccess")
 @Configurable
-public class DefaultMixologist implements Mixologist, ApplicationContextAware {
+public class DefaultMixologist implements Mixologist, ApplicationContextAware, EnvironmentAware, InitializingBean {
 
 	protected final Categories categories;
 	protected final MartiniFactory martiniFactory;
 
 	protected ApplicationContext applicationContext;
+	protected Environment environment;
+	protected FilterEngine filterEngine;
+	protected MartiniIndex martiniIndex;
+	protected boolean indexed;
 
 	@Autowired
 	protected DefaultMixologist(Categories categories, MartiniFactory martiniFactory) {
@@ -60,16 +71,38 @@ public class DefaultMixologist implements Mixologist, ApplicationContextAware {
 		this.martiniFactory = martiniFactory;
 	}
 
+	@Autowired(required = false)
+	protected void setFilterEngine(FilterEngine filterEngine) {
+		this.filterEngine = filterEngine;
+	}
+
+	@Autowired(required = false)
+	protected void setMartiniIndex(MartiniIndex martiniIndex) {
+		this.martiniIndex = martiniIndex;
+	}
+
 	@Override
 	public void setApplicationContext(@Nonnull ApplicationContext context) {
 		this.applicationContext = checkNotNull(context, "null ApplicationContext");
 	}
 
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		indexed = null != martiniIndex && environment.getProperty(PROPERTY_INDEXED, boolean.class, true);
+	}
+
 	@Override
 	public Collection<Martini> getMartinis(@Nullable String spelFilter) {
 		String trimmed = null == spelFilter ? "" : spelFilter.trim();
-		Expression expression = trimmed.isEmpty() ? null : getExpression(trimmed);
-		return null == expression ? getMartinis() : getMartinis(expression);
+		if (trimmed.isEmpty()) {
+			return getMartinis();
+		}
+		return null == filterEngine ? getMartinis(getExpression(trimmed)) : getMartinis(filterEngine.getFilter(trimmed));
 	}
 
 	protected Expression getExpression(@Nonnull String expressionString) {
@@ -90,6 +123,14 @@ public class DefaultMixologist implements Mixologist, ApplicationContextAware {
 		}).collect(Collectors.toList());
 	}
 
+	protected Collection<Martini> getMartinis(MartiniFilter filter) {
+		return indexed ? martiniIndex.getMartinis(filter) : getMartinis((Predicate<Martini>) filter);
+	}
+
+	protected Collection<Martini> getMartinis(Predicate<Martini> filter) {
+		return getMartinis().stream().filter(filter).collect(Collectors.toList());
+	}
+
 	protected StandardEvaluationContext getEvaluationContext() {
 		List<MethodResolver> resolvers = getMethodResolvers();
 		StandardEvaluationContext context = new StandardEvaluationContext();
@@ -21,10 +21,12 @@ import java.lang.annotation.Annotation;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import gherkin.ast.Step;
 import guru.qas.martini.gate.MartiniGate;
 import guru.qas.martini.gherkin.Recipe;
+import guru.qas.martini.step.ArgumentPlan;
 import guru.qas.martini.step.StepImplementation;
 import guru.qas.martini.tag.MartiniTag;
 
@@ -64,4 +66,11 @@ public interface Martini extends Serializable {
 	<T extends Annotation> List<T> getStepAnnotations(Class<T> implementation);
 
 	boolean isAnyStepAnnotated(Class<? extends Annotation> implementation);
+
+	/**
+	 * @return arguments for the step's method precomputed when this Martini was built, if any
+	 */
+	default Optional<ArgumentPlan> getArgumentPlan(Step step) {
+		return Optional.empty();
+	}
 }
\ No newline at end of file
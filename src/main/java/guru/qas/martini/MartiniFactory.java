@@ -22,5 +22,16 @@ public interface MartiniFactory {
 
 	String IMPLEMENTATION_KEY = "martini.factory.implementation";
 
+	/**
+	 * Number of threads used to parse features and build Martini instances; 1 loads sequentially.
+	 */
+	String PROPERTY_PARALLELISM = "martini.factory.parallelism";
+
 	Collection<Martini> getMartinis();
+
+	/**
+	 * Discards any cached Martini instances so the next call to getMartinis() rebuilds them.
+	 */
+	default void refresh() {
+	}
 }
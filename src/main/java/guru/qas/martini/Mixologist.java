@@ -27,6 +27,12 @@ public interface Mixologist {
 
 	String IMPLEMENTATION_KEY = "martini.mixologist.implementation";
 
+	/**
+	 * When true, the default, filtered selections are answered from a MartiniIndex snapshot of the catalog;
+	 * false evaluates every filter against each Martini in turn.
+	 */
+	String PROPERTY_INDEXED = "martini.mixologist.indexed";
+
 	/**
 	 * @return all available Martini instances
 	 */
@@ -30,12 +30,14 @@ import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.ReflectionUtils;
 
 import com.google.common.collect.Sets;
 
 import exception.MartiniException;
+import guru.qas.martini.event.StepImplementationRegisteredEvent;
 import guru.qas.martini.step.DefaultStepImplementation;
 
 import static com.google.common.base.Preconditions.*;
@@ -51,6 +53,7 @@ public class MartiniAnnotationCallback<A extends Annotation> implements Reflecti
 	protected final Set<String> regularExpressions;
 
 	protected ConfigurableListableBeanFactory beanFactory;
+	protected ApplicationEventPublisher eventPublisher;
 	protected Class<? extends Annotation> annotationContainerClass;
 
 	@Autowired
@@ -58,6 +61,11 @@ public class MartiniAnnotationCallback<A extends Annotation> implements Reflecti
 		this.beanFactory = f;
 	}
 
+	@Autowired
+	protected void setEventPublisher(ApplicationEventPublisher p) {
+		this.eventPublisher = p;
+	}
+
 	public MartiniAnnotationCallback(Class<A> annotationClass) {
 		this.annotationClass = checkNotNull(annotationClass, "null Class");
 		this.atomicInteger = new AtomicInteger();
@@ -99,6 +107,7 @@ public class MartiniAnnotationCallback<A extends Annotation> implements Reflecti
 
 		DefaultStepImplementation step = new DefaultStepImplementation(annotationName, pattern, method);
 		beanFactory.registerSingleton(name, step);
+		eventPublisher.publishEvent(new StepImplementationRegisteredEvent(this, step));
 	}
 
 	protected String getValue(A annotation) {
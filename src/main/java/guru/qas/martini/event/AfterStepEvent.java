@@ -16,8 +16,6 @@ limitations under the License.
 
 package guru.qas.martini.event;
 
-import java.util.List;
-
 import org.springframework.core.ResolvableType;
 
 import com.google.common.collect.Iterables;
@@ -30,8 +28,12 @@ import guru.qas.martini.result.StepResult;
 
 public class AfterStepEvent extends MartiniScenarioEvent {
 
+	private final StepResult last;
+
 	public AfterStepEvent(Object source, MartiniResult payload) {
 		super(source, payload);
+		// Captured up front; listeners may run after later steps have been added to the payload.
+		last = Iterables.getLast(payload.getStepResults(), null);
 	}
 
 	@Override
@@ -40,10 +42,8 @@ public class AfterStepEvent extends MartiniScenarioEvent {
 	}
 
 	public Step getStep() {
-		MartiniResult payload = super.getPayload();
-		List<StepResult> stepResults = payload.getStepResults();
-		StepResult last = Iterables.getLast(stepResults, null);
 		if (null == last) {
+			MartiniResult payload = super.getPayload();
 			Martini martini = payload.getMartini();
 			String id = martini.getId();
 			throw new MartiniException(StepEventMessages.EMPTY_RESULTS, id);
@@ -0,0 +1,409 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import guru.qas.martini.result.MartiniResult;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * MartiniEventPublisher delivering step events off the scenario thread.
+ * <p>
+ * Scenario events are queued on bounded ring buffers, one per consumer thread, with every event of a
+ * scenario going to the same buffer. Consumers hand them in batches to MartiniEventBatchListener beans and
+ * publish BeforeStepEvents and AfterStepEvents to the ApplicationContext. Suite events and
+ * BeforeScenarioEvents are published on the calling thread so scenario scope keeps working; an
+ * AfterScenarioEvent is published on the calling thread once the scenario's step events have been delivered,
+ * and an AfterSuiteEvent once every queued event has been.
+ * <p>
+ * A scenario whose step events have all been delivered publishes its AfterScenarioEvent without waiting.
+ * Otherwise it waits for its last step event, and so for anything queued ahead of that event by scenarios
+ * sharing its buffer; raise the consumer count where slow listeners hold up parallel scenarios.
+ * <p>
+ * Listener failures, Errors included, are logged and do not stop a consumer. Should a consumer stop anyway,
+ * publishing to or flushing its buffer fails rather than waiting.
+ * <p>
+ * Step event listeners must not rely on scenario-scoped beans or on the calling thread.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class AsyncMartiniEventPublisher extends DefaultMartiniEventPublisher
+	implements ApplicationContextAware, EnvironmentAware, InitializingBean, DisposableBean {
+
+	public static final String PROPERTY_CAPACITY = "martini.event.publisher.async.capacity";
+	public static final String PROPERTY_CONSUMERS = "martini.event.publisher.async.consumers";
+	public static final String PROPERTY_BATCH_SIZE = "martini.event.publisher.async.batch.size";
+	public static final String PROPERTY_BACKPRESSURE = "martini.event.publisher.async.backpressure";
+
+	protected static final long POLL_MILLISECONDS = 100;
+
+	public enum Backpressure {
+		/**
+		 * Publishing threads wait for room on a full buffer.
+		 */
+		BLOCK,
+
+		/**
+		 * Step events finding a full buffer are dropped; other events wait for room.
+		 */
+		DROP_STEP_EVENTS
+	}
+
+	protected final AtomicLong dropped;
+	protected final Logger logger;
+
+	protected ApplicationContext applicationContext;
+	protected Environment environment;
+	protected int capacity;
+	protected int batchSize;
+	protected Backpressure backpressure;
+	protected List<Consumer> consumers;
+	protected volatile List<MartiniEventBatchListener> batchListeners;
+
+	@Autowired
+	protected AsyncMartiniEventPublisher(ApplicationEventPublisher publisher) {
+		super(publisher);
+		this.dropped = new AtomicLong();
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void setApplicationContext(@Nonnull ApplicationContext applicationContext) {
+		this.applicationContext = checkNotNull(applicationContext, "null ApplicationContext");
+	}
+
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	/**
+	 * @return number of step events dropped under Backpressure.DROP_STEP_EVENTS
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		capacity = environment.getProperty(PROPERTY_CAPACITY, int.class, 1024);
+		int consumerCount = environment.getProperty(PROPERTY_CONSUMERS, int.class, 1);
+		batchSize = environment.getProperty(PROPERTY_BATCH_SIZE, int.class, 128);
+		backpressure = environment.getProperty(PROPERTY_BACKPRESSURE, Backpressure.class, Backpressure.BLOCK);
+		checkState(capacity > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_CAPACITY, capacity);
+		checkState(consumerCount > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_CONSUMERS, consumerCount);
+		checkState(batchSize > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_BATCH_SIZE, batchSize);
+
+		ThreadFactory threadFactory = new ThreadFactoryBuilder()
+			.setNameFormat("martini-event-%d")
+			.setDaemon(true)
+			.build();
+		List<Consumer> consumers = new ArrayList<>(consumerCount);
+		for (int i = 0; i < consumerCount; i++) {
+			Consumer consumer = new Consumer(new ArrayBlockingQueue<>(capacity));
+			consumers.add(consumer);
+			threadFactory.newThread(consumer).start();
+		}
+		this.consumers = Collections.unmodifiableList(consumers);
+	}
+
+	@Override
+	public void publish(MartiniScenarioEvent event) {
+		checkNotNull(event, "null MartiniScenarioEvent");
+		Consumer consumer = getConsumer(event.getPayload());
+
+		if (BeforeScenarioEvent.class.isInstance(event)) {
+			publisher.publishEvent(event);
+			consumer.put(event);
+		}
+		else if (AfterScenarioEvent.class.isInstance(event)) {
+			consumer.await(event.getPayload().getId());
+			publisher.publishEvent(event);
+			consumer.put(event);
+		}
+		else if (Backpressure.DROP_STEP_EVENTS == backpressure) {
+			if (!consumer.offer(event)) {
+				dropped.incrementAndGet();
+			}
+		}
+		else {
+			consumer.put(event);
+		}
+	}
+
+	@Override
+	public void publish(MartiniSuiteEvent event) {
+		checkNotNull(event, "null MartiniSuiteEvent");
+		if (AfterSuiteEvent.class.isInstance(event)) {
+			flush();
+			long count = dropped.get();
+			if (count > 0) {
+				logger.warn("dropped {} step events", count);
+			}
+		}
+		publisher.publishEvent(event);
+	}
+
+	/**
+	 * Waits until every event queued so far has been delivered.
+	 */
+	public void flush() {
+		consumers.forEach(Consumer::flush);
+	}
+
+	protected Consumer getConsumer(MartiniResult result) {
+		int index = Math.floorMod(result.getId().hashCode(), consumers.size());
+		return consumers.get(index);
+	}
+
+	protected List<MartiniEventBatchListener> getBatchListeners() {
+		List<MartiniEventBatchListener> listeners = batchListeners;
+		if (null == listeners) {
+			listeners = applicationContext.getBeanProvider(MartiniEventBatchListener.class)
+				.orderedStream()
+				.collect(Collectors.toList());
+			batchListeners = listeners;
+		}
+		return listeners;
+	}
+
+	protected void deliver(List<MartiniScenarioEvent> events) {
+		if (events.isEmpty()) {
+			return;
+		}
+
+		List<MartiniScenarioEvent> batch = Collections.unmodifiableList(events);
+		for (MartiniEventBatchListener listener : getBatchListeners()) {
+			try {
+				listener.onEvents(batch);
+			}
+			catch (Throwable e) {
+				logger.warn("unable to deliver events to {}", listener, e);
+			}
+		}
+
+		for (MartiniScenarioEvent event : events) {
+			if (BeforeStepEvent.class.isInstance(event) || AfterStepEvent.class.isInstance(event)) {
+				try {
+					publisher.publishEvent(event);
+				}
+				catch (Throwable e) {
+					logger.warn("unable to publish {}", event, e);
+				}
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (null != consumers) {
+			try {
+				flush();
+			}
+			catch (IllegalStateException e) {
+				logger.warn("unable to flush events", e);
+			}
+			consumers.forEach(Consumer::stop);
+		}
+	}
+
+	/**
+	 * Consumes one ring buffer. Queued items are either MartiniScenarioEvents or CountDownLatches marking
+	 * a flush. Undelivered events are counted per scenario so an AfterScenarioEvent waits only while its own
+	 * scenario has events outstanding.
+	 */
+	protected class Consumer implements Runnable {
+
+		protected final BlockingQueue<Object> queue;
+		protected final ConcurrentMap<UUID, Integer> pending;
+		protected volatile Thread thread;
+		protected volatile boolean running;
+		protected volatile Throwable failure;
+
+		protected Consumer(BlockingQueue<Object> queue) {
+			this.queue = queue;
+			this.pending = new ConcurrentHashMap<>();
+			this.running = true;
+		}
+
+		protected boolean offer(MartiniScenarioEvent event) {
+			checkRunning();
+			UUID id = event.getPayload().getId();
+			pending.merge(id, 1, Integer::sum);
+			boolean queued = queue.offer(event);
+			if (!queued) {
+				release(id);
+			}
+			return queued;
+		}
+
+		protected void put(MartiniScenarioEvent event) {
+			UUID id = event.getPayload().getId();
+			pending.merge(id, 1, Integer::sum);
+			try {
+				enqueue(event);
+			}
+			catch (RuntimeException e) {
+				release(id);
+				throw e;
+			}
+		}
+
+		protected void enqueue(Object item) {
+			checkRunning();
+			try {
+				while (!queue.offer(item, POLL_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+					checkRunning();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while queueing " + item, e);
+			}
+		}
+
+		/**
+		 * Waits until every event queued so far on this buffer has been delivered.
+		 */
+		protected void flush() {
+			CountDownLatch latch = new CountDownLatch(1);
+			enqueue(latch);
+			try {
+				while (!latch.await(POLL_MILLISECONDS, TimeUnit.MILLISECONDS)) {
+					checkRunning();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while flushing events", e);
+			}
+		}
+
+		/**
+		 * Waits until every event queued so far for the identified scenario has been delivered.
+		 */
+		protected void await(UUID id) {
+			synchronized (pending) {
+				try {
+					while (pending.containsKey(id)) {
+						checkRunning();
+						pending.wait(POLL_MILLISECONDS);
+					}
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("interrupted while flushing events", e);
+				}
+			}
+		}
+
+		protected void release(UUID id) {
+			pending.computeIfPresent(id, (key, count) -> 1 == count ? null : count - 1);
+		}
+
+		protected void release(List<MartiniScenarioEvent> events) {
+			events.forEach(event -> release(event.getPayload().getId()));
+			synchronized (pending) {
+				pending.notifyAll();
+			}
+		}
+
+		protected void checkRunning() {
+			if (!running) {
+				throw new IllegalStateException("event consumer has stopped", failure);
+			}
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			List<Object> items = new ArrayList<>(batchSize);
+			List<MartiniScenarioEvent> events = new ArrayList<>(batchSize);
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					items.add(queue.take());
+					queue.drainTo(items, batchSize - 1);
+					for (Object item : items) {
+						if (CountDownLatch.class.isInstance(item)) {
+							deliver(events);
+							release(events);
+							events = new ArrayList<>(batchSize);
+							CountDownLatch.class.cast(item).countDown();
+						}
+						else {
+							events.add(MartiniScenarioEvent.class.cast(item));
+						}
+					}
+					if (!events.isEmpty()) {
+						deliver(events);
+						release(events);
+						events = new ArrayList<>(batchSize);
+					}
+					items.clear();
+				}
+			}
+			catch (InterruptedException ignored) {
+			}
+			catch (Throwable e) {
+				failure = e;
+				logger.error("event consumer {} stopped", thread.getName(), e);
+			}
+			finally {
+				running = false;
+				synchronized (pending) {
+					pending.notifyAll();
+				}
+			}
+		}
+
+		protected void stop() {
+			Thread thread = this.thread;
+			if (null != thread) {
+				thread.interrupt();
+			}
+		}
+	}
+}
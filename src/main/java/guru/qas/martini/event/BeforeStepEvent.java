@@ -28,15 +28,18 @@ import gherkin.ast.Step;
 import guru.qas.martini.Martini;
 import exception.MartiniException;
 import guru.qas.martini.result.MartiniResult;
-import guru.qas.martini.result.StepResult;
 import guru.qas.martini.step.StepImplementation;
 
 import static guru.qas.martini.event.StepEventMessages.*;
 
 public class BeforeStepEvent extends MartiniScenarioEvent {
 
+	private final int stepIndex;
+
 	public BeforeStepEvent(Object source, MartiniResult payload) {
 		super(source, payload);
+		// Captured up front; listeners may run after later steps have been added to the payload.
+		stepIndex = payload.getStepResults().size();
 	}
 
 	@Override
@@ -66,9 +69,7 @@ public class BeforeStepEvent extends MartiniScenarioEvent {
 	}
 
 	private int getStepIndex() {
-		MartiniResult payload = super.getPayload();
-		List<StepResult> stepResults = payload.getStepResults();
-		return stepResults.size();
+		return stepIndex;
 	}
 
 	private Step getStep(List<Step> steps, int index) {
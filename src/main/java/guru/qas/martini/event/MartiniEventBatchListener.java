@@ -0,0 +1,29 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.event;
+
+import java.util.List;
+
+/**
+ * Receives scenario events from AsyncMartiniEventPublisher in batches, on the publisher's consumer threads.
+ */
+public interface MartiniEventBatchListener {
+
+	/**
+	 * @param events events of one or more scenarios; those of any one scenario are in publication order
+	 */
+	void onEvents(List<MartiniScenarioEvent> events);
+}
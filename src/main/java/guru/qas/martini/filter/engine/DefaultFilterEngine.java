@@ -0,0 +1,207 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.BooleanLiteral;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.StringLiteral;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import guru.qas.martini.filter.category.CategoryResolver;
+import guru.qas.martini.filter.feature.FeatureResolver;
+import guru.qas.martini.filter.gated.GatedResolver;
+import guru.qas.martini.filter.id.IdResolver;
+import guru.qas.martini.filter.resource.ResourceResolver;
+import guru.qas.martini.filter.scenario.ScenarioResolver;
+import guru.qas.martini.filter.tag.TagResolver;
+import guru.qas.martini.tag.Categories;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Parses each filter once and translates and/or/not combinations of the Martini filter functions into
+ * plain MartiniFilter trees. Expressions using anything else are evaluated by SPeL in MIXED compiler mode.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultFilterEngine implements FilterEngine {
+
+	protected static final long MAXIMUM_CACHED_FILTERS = 1_000;
+
+	protected final Categories categories;
+	protected final ApplicationContext applicationContext;
+	protected final SpelExpressionParser parser;
+	protected final Cache<String, MartiniFilter> cache;
+
+	protected volatile EvaluationContext evaluationContext;
+
+	@Autowired
+	protected DefaultFilterEngine(Categories categories, ApplicationContext applicationContext) {
+		this.categories = checkNotNull(categories, "null Categories");
+		this.applicationContext = checkNotNull(applicationContext, "null ApplicationContext");
+		SpelParserConfiguration configuration = new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader());
+		this.parser = new SpelExpressionParser(configuration);
+		this.cache = CacheBuilder.newBuilder().maximumSize(MAXIMUM_CACHED_FILTERS).build();
+	}
+
+	@Override
+	public MartiniFilter getFilter(@Nonnull String spelFilter) {
+		String trimmed = checkNotNull(spelFilter, "null String").trim();
+		try {
+			return cache.get(trimmed, () -> compile(trimmed));
+		}
+		catch (ExecutionException | UncheckedExecutionException e) {
+			Throwable cause = e.getCause();
+			throw RuntimeException.class.isInstance(cause) ? RuntimeException.class.cast(cause) : new RuntimeException(cause);
+		}
+	}
+
+	protected MartiniFilter compile(String spelFilter) {
+		SpelExpression expression = (SpelExpression) parser.parseExpression(spelFilter);
+		MartiniFilter filter = translate(expression.getAST());
+		return null == filter ? new ExpressionFilter(expression, getEvaluationContext()) : filter;
+	}
+
+	/**
+	 * @return translated node, or null if the node or any of its descendants is not translatable
+	 */
+	@Nullable
+	protected MartiniFilter translate(SpelNode node) {
+		MartiniFilter filter = null;
+		if (OpAnd.class.isInstance(node) || OpOr.class.isInstance(node)) {
+			filter = translateLogical(node);
+		}
+		else if (OperatorNot.class.isInstance(node)) {
+			MartiniFilter operand = translate(node.getChild(0));
+			filter = null == operand ? null : new NotFilter(operand);
+		}
+		else if (BooleanLiteral.class.isInstance(node)) {
+			Object value = BooleanLiteral.class.cast(node).getLiteralValue().getValue();
+			filter = new ConstantFilter(Boolean.TRUE.equals(value));
+		}
+		else if (MethodReference.class.isInstance(node)) {
+			filter = translateMethod(MethodReference.class.cast(node));
+		}
+		return filter;
+	}
+
+	protected MartiniFilter translateLogical(SpelNode node) {
+		LogicalFilter.Operator operator = OpAnd.class.isInstance(node) ? LogicalFilter.Operator.AND : LogicalFilter.Operator.OR;
+		List<MartiniFilter> operands = new ArrayList<>();
+		for (int i = 0; i < node.getChildCount(); i++) {
+			MartiniFilter operand = translate(node.getChild(i));
+			if (null == operand) {
+				return null;
+			}
+			operands.add(operand);
+		}
+		return new LogicalFilter(operator, operands);
+	}
+
+	@Nullable
+	protected MartiniFilter translateMethod(MethodReference reference) {
+		int count = reference.getChildCount();
+		if (count > 1) {
+			return null;
+		}
+
+		String argument = null;
+		if (1 == count) {
+			SpelNode child = reference.getChild(0);
+			if (!StringLiteral.class.isInstance(child)) {
+				return null;
+			}
+			argument = String.class.cast(StringLiteral.class.cast(child).getLiteralValue().getValue());
+		}
+
+		// Mirrors the resolution order of DefaultMixologist's MethodResolvers.
+		String name = reference.getName();
+		switch (name) {
+			case ScenarioResolver.NAME:
+				return null == argument ? null : new IdentifierFilter(IdentifierFilter.Type.SCENARIO, argument);
+			case CategoryResolver.NAME:
+				return null == argument ? null : new CategoryFilter(categories, argument);
+			case GatedResolver.NAME:
+				return new GatedFilter(argument);
+			case FeatureResolver.NAME:
+				return null == argument ? null : new IdentifierFilter(IdentifierFilter.Type.FEATURE, argument);
+			case ResourceResolver.NAME:
+				return null == argument ? null : getResourceFilter(argument);
+			case IdResolver.NAME:
+				return null == argument ? null : new IdentifierFilter(IdentifierFilter.Type.ID, argument);
+			default:
+				return name.startsWith("is") && name.length() > 2 ? new TagFilter(name.substring(2), argument) : null;
+		}
+	}
+
+	@Nullable
+	protected MartiniFilter getResourceFilter(String locationPattern) {
+		try {
+			return new ResourceFilter(applicationContext, locationPattern);
+		}
+		catch (Exception e) {
+			return null;
+		}
+	}
+
+	protected EvaluationContext getEvaluationContext() {
+		EvaluationContext context = evaluationContext;
+		if (null == context) {
+			StandardEvaluationContext standardContext = new StandardEvaluationContext();
+			getMethodResolvers().forEach(standardContext::addMethodResolver);
+			context = standardContext;
+			evaluationContext = context;
+		}
+		return context;
+	}
+
+	protected List<MethodResolver> getMethodResolvers() {
+		return ImmutableList.of(
+			new ScenarioResolver(),
+			new CategoryResolver(categories),
+			new GatedResolver(),
+			new FeatureResolver(),
+			new ResourceResolver(applicationContext),
+			new IdResolver(),
+			new TagResolver()
+		);
+	}
+}
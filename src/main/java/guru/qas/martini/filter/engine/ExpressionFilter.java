@@ -0,0 +1,48 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Evaluates a SPeL expression that could not be translated.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ExpressionFilter implements MartiniFilter {
+
+	protected final Expression expression;
+	protected final EvaluationContext context;
+
+	public Expression getExpression() {
+		return expression;
+	}
+
+	public ExpressionFilter(Expression expression, EvaluationContext context) {
+		this.expression = checkNotNull(expression, "null Expression");
+		this.context = checkNotNull(context, "null EvaluationContext");
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		Boolean evaluation = expression.getValue(context, martini, Boolean.class);
+		return Boolean.TRUE.equals(evaluation);
+	}
+}
@@ -0,0 +1,32 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Translates Spring SPeL filter expressions into reusable MartiniFilter instances.
+ */
+public interface FilterEngine {
+
+	String IMPLEMENTATION_KEY = "martini.filter.engine.implementation";
+
+	/**
+	 * @param spelFilter Spring SPeL expression, e.g. "isCategory('Smoke') and !isGated()"
+	 * @return filter evaluating the expression against a Martini
+	 */
+	MartiniFilter getFilter(@Nonnull String spelFilter);
+}
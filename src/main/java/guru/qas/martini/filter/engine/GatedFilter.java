@@ -0,0 +1,56 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.annotation.Gated;
+import guru.qas.martini.step.StepImplementation;
+
+/**
+ * Matches Martini instances with a step method annotated @Gated, optionally by gate name.
+ */
+@SuppressWarnings("WeakerAccess")
+public class GatedFilter implements MartiniFilter {
+
+	protected final String gateName;
+
+	public Optional<String> getGateName() {
+		return Optional.ofNullable(gateName);
+	}
+
+	public GatedFilter(@Nullable String gateName) {
+		this.gateName = gateName;
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		for (StepImplementation implementation : martini.getStepIndex().values()) {
+			Method method = implementation.getMethod().orElse(null);
+			Gated[] annotations = null == method ? new Gated[0] : method.getDeclaredAnnotationsByType(Gated.class);
+			for (Gated annotation : annotations) {
+				if (null == gateName || gateName.equals(annotation.name())) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,74 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Matches isId, isFeature and isScenario, comparing identifiers with whitespace runs collapsed.
+ */
+@SuppressWarnings("WeakerAccess")
+public class IdentifierFilter implements MartiniFilter {
+
+	public enum Type {
+		ID(Martini::getId),
+		FEATURE(Martini::getFeatureName),
+		SCENARIO(Martini::getScenarioName);
+
+		private final Function<Martini, String> accessor;
+
+		Type(Function<Martini, String> accessor) {
+			this.accessor = accessor;
+		}
+
+		public String getIdentifier(Martini martini) {
+			return accessor.apply(martini);
+		}
+	}
+
+	protected static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	protected final Type type;
+	protected final String identifier;
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getIdentifier() {
+		return identifier;
+	}
+
+	public IdentifierFilter(Type type, String identifier) {
+		this.type = checkNotNull(type, "null Type");
+		this.identifier = getNormalized(checkNotNull(identifier, "null String"));
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		String martiniIdentifier = type.getIdentifier(martini);
+		return identifier.equals(getNormalized(martiniIdentifier));
+	}
+
+	public static String getNormalized(String s) {
+		return WHITESPACE.matcher(s).replaceAll(" ").trim();
+	}
+}
@@ -0,0 +1,56 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.*;
+
+@SuppressWarnings("WeakerAccess")
+public class LogicalFilter implements MartiniFilter {
+
+	public enum Operator {
+		AND, OR
+	}
+
+	protected final Operator operator;
+	protected final ImmutableList<MartiniFilter> operands;
+
+	public Operator getOperator() {
+		return operator;
+	}
+
+	public List<MartiniFilter> getOperands() {
+		return operands;
+	}
+
+	public LogicalFilter(Operator operator, List<MartiniFilter> operands) {
+		this.operator = checkNotNull(operator, "null Operator");
+		this.operands = ImmutableList.copyOf(checkNotNull(operands, "null List"));
+		checkArgument(!this.operands.isEmpty(), "no operands");
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		return Operator.AND == operator ?
+			operands.stream().allMatch(operand -> operand.test(martini)) :
+			operands.stream().anyMatch(operand -> operand.test(martini));
+	}
+}
@@ -0,0 +1,39 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+@SuppressWarnings("WeakerAccess")
+public class NotFilter implements MartiniFilter {
+
+	protected final MartiniFilter operand;
+
+	public MartiniFilter getOperand() {
+		return operand;
+	}
+
+	public NotFilter(MartiniFilter operand) {
+		this.operand = checkNotNull(operand, "null MartiniFilter");
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		return !operand.test(martini);
+	}
+}
@@ -0,0 +1,74 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Set;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+
+import com.google.common.collect.ImmutableSet;
+
+import guru.qas.martini.Martini;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Matches Martini instances loaded from a resource found by the given location pattern. The pattern is
+ * resolved once, when the filter is created.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ResourceFilter implements MartiniFilter {
+
+	protected final String locationPattern;
+	protected final ImmutableSet<URI> uris;
+
+	public String getLocationPattern() {
+		return locationPattern;
+	}
+
+	public Set<URI> getURIs() {
+		return uris;
+	}
+
+	public ResourceFilter(ResourcePatternResolver resolver, String locationPattern) throws IOException {
+		checkNotNull(resolver, "null ResourcePatternResolver");
+		this.locationPattern = checkNotNull(locationPattern, "null String");
+
+		ImmutableSet.Builder<URI> builder = ImmutableSet.builder();
+		for (Resource resource : resolver.getResources(locationPattern)) {
+			builder.add(resource.getURI());
+		}
+		this.uris = builder.build();
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		Resource resource = martini.getRecipe().getFeatureWrapper().getResource();
+		return uris.contains(getURI(resource));
+	}
+
+	public static URI getURI(Resource resource) {
+		try {
+			return resource.getURI();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
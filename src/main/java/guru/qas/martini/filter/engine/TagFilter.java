@@ -0,0 +1,58 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.filter.engine;
+
+import java.util.Optional;
+
+import javax.annotation.Nullable;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.tag.MartiniTag;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Matches is&lt;TagName&gt;() and is&lt;TagName&gt;('argument').
+ */
+@SuppressWarnings("WeakerAccess")
+public class TagFilter implements MartiniFilter {
+
+	protected final String name;
+	protected final String argument;
+
+	public String getName() {
+		return name;
+	}
+
+	public Optional<String> getArgument() {
+		return Optional.ofNullable(argument);
+	}
+
+	public TagFilter(String name, @Nullable String argument) {
+		this.name = checkNotNull(name, "null String");
+		this.argument = argument;
+	}
+
+	@Override
+	public boolean test(Martini martini) {
+		for (MartiniTag tag : martini.getTags()) {
+			if (name.equals(tag.getName()) && (null == argument || argument.equals(tag.getArgument()))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
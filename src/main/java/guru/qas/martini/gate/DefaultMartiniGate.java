@@ -19,10 +19,15 @@ package guru.qas.martini.gate;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.Objects;
 
+import guru.qas.martini.metrics.Counter;
+
 import static com.google.common.base.Preconditions.*;
 
 @SuppressWarnings("WeakerAccess")
@@ -31,6 +36,9 @@ public class DefaultMartiniGate implements MartiniGate {
 	private final String name;
 	private final Semaphore semaphore;
 	private final AtomicBoolean hasPermit;
+	private final Counter failures;
+	private final Consumer<String> releaseListener;
+	private boolean refused;
 
 	@Override
 	public String getName() {
@@ -38,9 +46,31 @@ public class DefaultMartiniGate implements MartiniGate {
 	}
 
 	protected DefaultMartiniGate(String name, Semaphore semaphore) {
+		this(name, semaphore, null);
+	}
+
+	/**
+	 * @param failures incremented when enter() first fails to obtain a permit, and not again until it has
+	 *                 obtained one, so retries while waiting on the gate are not counted
+	 */
+	protected DefaultMartiniGate(String name, Semaphore semaphore, @Nullable Counter failures) {
+		this(name, semaphore, failures, null);
+	}
+
+	/**
+	 * @param releaseListener given the gate name whenever leave() returns a permit
+	 */
+	protected DefaultMartiniGate(
+		String name,
+		Semaphore semaphore,
+		@Nullable Counter failures,
+		@Nullable Consumer<String> releaseListener
+	) {
 		this.name = checkNotNull(name, "null String");
 		this.semaphore = checkNotNull(semaphore, "null Semaphore");
 		this.hasPermit = new AtomicBoolean(false);
+		this.failures = failures;
+		this.releaseListener = releaseListener;
 	}
 
 	@Override
@@ -57,18 +87,33 @@ public class DefaultMartiniGate implements MartiniGate {
 			}
 			catch (InterruptedException ignored) {
 			}
-			return hasPermit.get();
+			boolean entered = hasPermit.get();
+			if (entered) {
+				refused = false;
+			}
+			else if (!refused) {
+				refused = true;
+				if (null != failures) {
+					failures.increment();
+				}
+			}
+			return entered;
 		}
 	}
 
 	@Override
 	public synchronized void leave() {
+		boolean released;
 		synchronized (hasPermit) {
-			if (hasPermit.get()) {
+			released = hasPermit.get();
+			if (released) {
 				semaphore.release();
 				hasPermit.set(false);
 			}
 		}
+		if (released && null != releaseListener) {
+			releaseListener.accept(name);
+		}
 	}
 
 	@Override
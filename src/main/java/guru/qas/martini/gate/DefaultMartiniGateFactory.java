@@ -20,12 +20,14 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.annotation.Nonnull;
@@ -44,38 +46,76 @@ import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
 import guru.qas.martini.annotation.Gated;
+import guru.qas.martini.metrics.Counter;
+import guru.qas.martini.metrics.MetricRegistry;
 import guru.qas.martini.step.StepImplementation;
 
-import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Preconditions.*;
 
 @SuppressWarnings("WeakerAccess")
 @Configurable
 public class DefaultMartiniGateFactory implements MartiniGateFactory, InitializingBean {
 
+	/**
+	 * Counts scenarios refused entry to the gate, once per wait rather than once per retry.
+	 */
+	public static final String METRIC_ENTER_FAILURES = "gates.%s.enter.failures";
+	public static final String METRIC_PERMITS_IN_USE = "gates.%s.permits.used";
+
 	protected enum Source {
 		METHOD, CLASS
 	}
 
 	protected final Environment environment;
 	protected final Cache<String, Optional<Semaphore>> index;
+	protected final List<Consumer<String>> releaseListeners;
 	protected final Logger logger;
 
 	protected boolean ignoringGates;
 	protected int defaultGatePermits;
+	protected MetricRegistry metricRegistry;
 
 	@Autowired
 	DefaultMartiniGateFactory(Environment environment) {
 		this.environment = environment;
 		index = CacheBuilder.newBuilder().build();
+		releaseListeners = new CopyOnWriteArrayList<>();
 		this.logger = LoggerFactory.getLogger(getClass());
 	}
 
+	@Autowired(required = false)
+	protected void setMetricRegistry(MetricRegistry metricRegistry) {
+		this.metricRegistry = metricRegistry;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		ignoringGates = environment.getProperty(MartiniGateFactory.PROPERTY_IGNORING_GATES, boolean.class, false);
 		defaultGatePermits = environment.getProperty(MartiniGateFactory.PROPERTY_DEFAULT_GATE_PERMITS, int.class, 1);
 	}
 
+	@Override
+	public boolean addReleaseListener(@Nonnull Consumer<String> listener) {
+		releaseListeners.add(checkNotNull(listener, "null Consumer"));
+		return true;
+	}
+
+	@Override
+	public void removeReleaseListener(@Nonnull Consumer<String> listener) {
+		releaseListeners.remove(listener);
+	}
+
+	protected void released(String gateName) {
+		for (Consumer<String> listener : releaseListeners) {
+			try {
+				listener.accept(gateName);
+			}
+			catch (RuntimeException e) {
+				logger.warn("unable to notify {} of {} gate release", listener, gateName, e);
+			}
+		}
+	}
+
 	@Nonnull
 	@Override
 	public Collection<MartiniGate> getGates(@Nullable StepImplementation implementation) {
@@ -108,7 +148,7 @@ public class DefaultMartiniGateFactory implements MartiniGateFactory, Initializi
 		return gateNames.stream()
 			.map(n -> {
 				Semaphore semaphore = getSemaphore(n).orElse(null);
-				return null == semaphore ? null : new DefaultMartiniGate(n, semaphore);
+				return null == semaphore ? null : new DefaultMartiniGate(n, semaphore, getFailureCounter(n), this::released);
 			})
 			.filter(Objects::nonNull)
 			.collect(Collectors.toList());
@@ -120,7 +160,12 @@ public class DefaultMartiniGateFactory implements MartiniGateFactory, Initializi
 				AtomicReference<Semaphore> ref = new AtomicReference<>();
 				getPermits(gateName).ifPresent(permits -> {
 					logger.info("creating {} gate semaphore with {} permits", gateName, permits);
-					ref.set(new Semaphore(permits, true));
+					Semaphore semaphore = new Semaphore(permits, true);
+					if (null != metricRegistry) {
+						String name = String.format(METRIC_PERMITS_IN_USE, gateName);
+						metricRegistry.gauge(name, () -> permits - semaphore.availablePermits());
+					}
+					ref.set(semaphore);
 				});
 				return Optional.ofNullable(ref.get());
 			});
@@ -130,6 +175,11 @@ public class DefaultMartiniGateFactory implements MartiniGateFactory, Initializi
 		}
 	}
 
+	@Nullable
+	protected Counter getFailureCounter(String gateName) {
+		return null == metricRegistry ? null : metricRegistry.counter(String.format(METRIC_ENTER_FAILURES, gateName));
+	}
+
 	protected Optional<Integer> getPermits(String gateName) {
 		String property = String.format(PROPERTY_GATE_PERMIT_TEMPLATE, gateName);
 		String configured = environment.getProperty(property, String.valueOf(defaultGatePermits)).trim();
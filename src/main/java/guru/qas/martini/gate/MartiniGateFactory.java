@@ -17,6 +17,7 @@ limitations under the License.
 package guru.qas.martini.gate;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -35,4 +36,17 @@ public interface MartiniGateFactory {
 
 	@Nonnull
 	Collection<MartiniGate> getGates(@Nullable StepImplementation implementation);
+
+	/**
+	 * Registers a listener to be given the name of each gate left through a MartiniGate this factory created.
+	 * Listeners are called on the leaving thread and must not block.
+	 *
+	 * @return true where the factory notifies listeners, false where callers must poll for released gates
+	 */
+	default boolean addReleaseListener(@Nonnull Consumer<String> listener) {
+		return false;
+	}
+
+	default void removeReleaseListener(@Nonnull Consumer<String> listener) {
+	}
 }
@@ -0,0 +1,288 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.gherkin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StreamUtils;
+
+import com.google.common.hash.Hashing;
+
+import exception.MartiniException;
+import gherkin.Parser;
+
+import static com.google.common.base.Preconditions.*;
+import static guru.qas.martini.gherkin.DefaultMixologyMessages.RECIPE_CREATION_ERROR;
+
+/**
+ * Mixology decorator persisting compiled Recipes to a binary file between runs. Entries are keyed by
+ * resource URI and validated against a SHA-256 hash of the resource content; on a hit Recipes are
+ * rebuilt without parsing or compiling. The file is written once a catalog has been built and again on
+ * destruction, keeping only the entries requested during the run. The whole file is discarded when its
+ * format or the gherkin library changes.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CachingMixology implements Mixology, InitializingBean, DisposableBean {
+
+	public static final String PROPERTY_CACHE_FILE = "martini.mixology.cache.file";
+
+	protected static final int MAGIC = 0x4D52434D;
+	protected static final int FORMAT_VERSION = 1;
+
+	protected final Mixology delegate;
+	protected final Path file;
+	protected final RecipeCodec codec;
+	protected final Map<String, Entry> entries;
+	protected final Set<String> requested;
+	protected final AtomicLong hits;
+	protected final AtomicLong misses;
+	protected final AtomicBoolean modified;
+	protected final Logger logger;
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public CachingMixology(@Nonnull Mixology delegate, @Nonnull Path file) {
+		this.delegate = checkNotNull(delegate, "null Mixology");
+		this.file = checkNotNull(file, "null Path");
+		this.codec = new RecipeCodec();
+		this.entries = new ConcurrentHashMap<>();
+		this.requested = ConcurrentHashMap.newKeySet();
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+		this.modified = new AtomicBoolean(false);
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (Files.isRegularFile(file)) {
+			try {
+				load();
+			}
+			catch (Exception e) {
+				logger.warn("discarding unreadable Mixology cache {}", file, e);
+				entries.clear();
+			}
+		}
+	}
+
+	protected void load() throws IOException {
+		try (InputStream is = Files.newInputStream(file);
+			 DataInputStream in = new DataInputStream(new BufferedInputStream(is))
+		) {
+			boolean current = MAGIC == in.readInt()
+				&& FORMAT_VERSION == in.readInt()
+				&& getGherkinVersion().equals(in.readUTF());
+
+			if (current) {
+				int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					String key = in.readUTF();
+					byte[] hash = readBytes(in);
+					byte[] recipes = readBytes(in);
+					entries.put(key, new Entry(hash, recipes));
+				}
+				logger.info("loaded {} cached features from {}", count, file);
+			}
+			else {
+				logger.info("discarding stale Mixology cache {}", file);
+				modified.set(true);
+			}
+		}
+	}
+
+	protected static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * @return identifies the gherkin library in use, preferring its implementation version and falling
+	 * back on the location it was loaded from
+	 */
+	protected static String getGherkinVersion() {
+		Package gherkinPackage = Parser.class.getPackage();
+		String version = null == gherkinPackage ? null : gherkinPackage.getImplementationVersion();
+		if (null == version) {
+			CodeSource source = Parser.class.getProtectionDomain().getCodeSource();
+			URL location = null == source ? null : source.getLocation();
+			version = null == location ? "unknown" : location.toString();
+		}
+		return version;
+	}
+
+	@Override
+	public Collection<Recipe> get(Resource resource) {
+		checkNotNull(resource, "null Resource");
+		try {
+			String key = getKey(resource);
+			requested.add(key);
+			byte[] hash = getHash(resource);
+
+			Entry entry = entries.get(key);
+			Collection<Recipe> recipes = null == entry || !entry.isMatch(hash) ? null : decode(entry, resource);
+			if (null == recipes) {
+				misses.incrementAndGet();
+				recipes = delegate.get(resource);
+				codec.encode(recipes).ifPresent(encoded -> {
+					entries.put(key, new Entry(hash, encoded));
+					modified.set(true);
+				});
+			}
+			else {
+				hits.incrementAndGet();
+			}
+			return recipes;
+		}
+		catch (IOException e) {
+			throw new MartiniException(e, RECIPE_CREATION_ERROR, resource);
+		}
+	}
+
+	protected Collection<Recipe> decode(Entry entry, Resource resource) {
+		try {
+			return codec.decode(entry.recipes, resource);
+		}
+		catch (Exception e) {
+			logger.warn("unable to decode cached Recipes for {}", resource, e);
+			return null;
+		}
+	}
+
+	protected String getKey(Resource resource) throws IOException {
+		return resource.getURI().toString();
+	}
+
+	protected byte[] getHash(Resource resource) throws IOException {
+		try (InputStream is = resource.getInputStream()) {
+			byte[] content = StreamUtils.copyToByteArray(is);
+			return Hashing.sha256().hashBytes(content).asBytes();
+		}
+	}
+
+	@Override
+	public void catalogBuilt() {
+		delegate.catalogBuilt();
+		try {
+			flush();
+		}
+		catch (IOException e) {
+			logger.warn("unable to write Mixology cache {}", file, e);
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		logger.info("Mixology cache hits: {}, misses: {}", hits.get(), misses.get());
+		flush();
+	}
+
+	/**
+	 * Writes the cache to disk if anything has changed since it was loaded or last flushed, dropping
+	 * entries not requested during this run. Nothing is dropped before the first request.
+	 */
+	public synchronized void flush() throws IOException {
+		if (!requested.isEmpty() && entries.keySet().retainAll(requested)) {
+			modified.set(true);
+		}
+		if (modified.getAndSet(false)) {
+			Path parent = file.toAbsolutePath().getParent();
+			if (null != parent) {
+				Files.createDirectories(parent);
+			}
+
+			Path temporary = Files.createTempFile(null == parent ? file.toAbsolutePath() : parent, "mixology", ".tmp");
+			try {
+				write(temporary);
+				Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException e) {
+				modified.set(true);
+				Files.deleteIfExists(temporary);
+				throw e;
+			}
+		}
+	}
+
+	protected void write(Path destination) throws IOException {
+		try (OutputStream os = Files.newOutputStream(destination);
+			 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))
+		) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeUTF(getGherkinVersion());
+
+			Map<String, Entry> snapshot = Map.copyOf(entries);
+			out.writeInt(snapshot.size());
+			for (Map.Entry<String, Entry> mapEntry : snapshot.entrySet()) {
+				Entry entry = mapEntry.getValue();
+				out.writeUTF(mapEntry.getKey());
+				out.writeInt(entry.hash.length);
+				out.write(entry.hash);
+				out.writeInt(entry.recipes.length);
+				out.write(entry.recipes);
+			}
+		}
+	}
+
+	protected static class Entry {
+
+		protected final byte[] hash;
+		protected final byte[] recipes;
+
+		protected Entry(byte[] hash, byte[] recipes) {
+			this.hash = hash;
+			this.recipes = recipes;
+		}
+
+		protected boolean isMatch(byte[] hash) {
+			return Arrays.equals(this.hash, hash);
+		}
+	}
+}
@@ -24,6 +24,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.core.io.Resource;
@@ -54,13 +55,23 @@ import static guru.qas.martini.gherkin.DefaultMixologyMessages.*;
 @Configurable
 public class DefaultMixology implements Mixology {
 
-	protected final Parser<GherkinDocument> parser;
+	protected final ObjectProvider<Parser<GherkinDocument>> parserProvider;
 	protected final Compiler compiler;
+	protected final ThreadLocal<Parser<GherkinDocument>> parsers;
 
 	@Autowired
-	protected DefaultMixology(Parser<GherkinDocument> parser, Compiler compiler) {
-		this.parser = parser;
+	protected DefaultMixology(ObjectProvider<Parser<GherkinDocument>> parserProvider, Compiler compiler) {
+		this.parserProvider = parserProvider;
 		this.compiler = compiler;
+		this.parsers = ThreadLocal.withInitial(parserProvider::getObject);
+	}
+
+	/**
+	 * Parser is not thread-safe; each thread obtains its own from the configured Parser bean, which is
+	 * prototype-scoped by default. A singleton Parser is shared, with parsing serialized on it.
+	 */
+	protected Parser<GherkinDocument> getParser() {
+		return parsers.get();
 	}
 
 	@Override
@@ -71,7 +82,11 @@ public class DefaultMixology implements Mixology {
 		try (InputStream is = resource.getInputStream();
 			 InputStreamReader isr = new InputStreamReader(is)
 		) {
-			GherkinDocument document = parser.parse(isr, matcher);
+			Parser<GherkinDocument> parser = getParser();
+			GherkinDocument document;
+			synchronized (parser) {
+				document = parser.parse(isr, matcher);
+			}
 			return getRecipes(resource, document);
 		}
 		catch (Exception e) {
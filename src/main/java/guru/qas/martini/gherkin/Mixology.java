@@ -23,4 +23,10 @@ import org.springframework.core.io.Resource;
 public interface Mixology {
 
 	Collection<Recipe> get(Resource resource);
+
+	/**
+	 * Called once a Martini catalog has been built from the Recipes returned by get(Resource).
+	 */
+	default void catalogBuilt() {
+	}
 }
\ No newline at end of file
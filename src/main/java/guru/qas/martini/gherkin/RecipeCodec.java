@@ -0,0 +1,545 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.gherkin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.core.io.Resource;
+
+import gherkin.ast.Background;
+import gherkin.ast.DataTable;
+import gherkin.ast.DocString;
+import gherkin.ast.Examples;
+import gherkin.ast.Feature;
+import gherkin.ast.Location;
+import gherkin.ast.Node;
+import gherkin.ast.Scenario;
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.ScenarioOutline;
+import gherkin.ast.Step;
+import gherkin.ast.TableCell;
+import gherkin.ast.TableRow;
+import gherkin.ast.Tag;
+import gherkin.pickles.Argument;
+import gherkin.pickles.Pickle;
+import gherkin.pickles.PickleCell;
+import gherkin.pickles.PickleLocation;
+import gherkin.pickles.PickleRow;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleString;
+import gherkin.pickles.PickleTable;
+import gherkin.pickles.PickleTag;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Compact binary form of the Recipes of a single feature: the Feature AST followed by each Recipe's Pickle,
+ * PickleLocation and the index of its ScenarioDefinition within the Feature.
+ * <p>
+ * PickleTag does not expose its location, so decoded tags carry none.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RecipeCodec {
+
+	protected static final int NONE = 0;
+	protected static final int BACKGROUND = 1;
+	protected static final int SCENARIO = 2;
+	protected static final int SCENARIO_OUTLINE = 3;
+	protected static final int DATA_TABLE = 1;
+	protected static final int DOC_STRING = 2;
+
+	/**
+	 * @return encoded Recipes, or empty if the Recipes do not share a single Feature
+	 */
+	public Optional<byte[]> encode(@Nonnull Collection<Recipe> recipes) throws IOException {
+		checkNotNull(recipes, "null Collection");
+		Feature feature = recipes.isEmpty() ? null : recipes.iterator().next().getFeatureWrapper().getFeature();
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeBoolean(null != feature);
+			if (null != feature) {
+				writeFeature(out, feature);
+			}
+
+			out.writeInt(recipes.size());
+			for (Recipe recipe : recipes) {
+				int index = null == feature ? -1 : indexOf(feature.getChildren(), recipe.getScenarioDefinition());
+				if (recipe.getFeatureWrapper().getFeature() != feature || index < 0) {
+					return Optional.empty();
+				}
+				out.writeInt(index);
+				writePickleLocation(out, recipe.getLocation());
+				writePickle(out, recipe.getPickle());
+			}
+		}
+		return Optional.of(bytes.toByteArray());
+	}
+
+	protected static int indexOf(List<ScenarioDefinition> children, ScenarioDefinition definition) {
+		for (int i = 0; i < children.size(); i++) {
+			if (children.get(i) == definition) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public List<Recipe> decode(@Nonnull byte[] encoded, @Nonnull Resource resource) throws IOException {
+		checkNotNull(encoded, "null byte[]");
+		checkNotNull(resource, "null Resource");
+
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded))) {
+			Feature feature = in.readBoolean() ? readFeature(in) : null;
+			FeatureWrapper wrapper = null == feature ? null : new FeatureWrapper(feature, resource);
+
+			int count = in.readInt();
+			List<Recipe> recipes = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				checkState(null != wrapper, "Recipe encoded without a Feature");
+				ScenarioDefinition definition = feature.getChildren().get(in.readInt());
+				PickleLocation location = readPickleLocation(in);
+				Pickle pickle = readPickle(in);
+				recipes.add(new DefaultRecipe(wrapper, pickle, location, definition));
+			}
+			return recipes;
+		}
+	}
+
+	protected void writeFeature(DataOutputStream out, Feature feature) throws IOException {
+		writeTags(out, feature.getTags());
+		writeLocation(out, feature.getLocation());
+		writeString(out, feature.getLanguage());
+		writeString(out, feature.getKeyword());
+		writeString(out, feature.getName());
+		writeString(out, feature.getDescription());
+
+		List<ScenarioDefinition> children = feature.getChildren();
+		out.writeInt(children.size());
+		for (ScenarioDefinition child : children) {
+			writeScenarioDefinition(out, child);
+		}
+	}
+
+	protected Feature readFeature(DataInputStream in) throws IOException {
+		List<Tag> tags = readTags(in);
+		Location location = readLocation(in);
+		String language = readString(in);
+		String keyword = readString(in);
+		String name = readString(in);
+		String description = readString(in);
+
+		int count = in.readInt();
+		List<ScenarioDefinition> children = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			children.add(readScenarioDefinition(in));
+		}
+		return new Feature(tags, location, language, keyword, name, description, children);
+	}
+
+	protected void writeScenarioDefinition(DataOutputStream out, ScenarioDefinition definition) throws IOException {
+		if (Background.class.isInstance(definition)) {
+			out.writeByte(BACKGROUND);
+		}
+		else if (ScenarioOutline.class.isInstance(definition)) {
+			out.writeByte(SCENARIO_OUTLINE);
+			writeTags(out, ScenarioOutline.class.cast(definition).getTags());
+		}
+		else if (Scenario.class.isInstance(definition)) {
+			out.writeByte(SCENARIO);
+			writeTags(out, Scenario.class.cast(definition).getTags());
+		}
+		else {
+			throw new IOException("unsupported ScenarioDefinition " + definition.getClass());
+		}
+
+		writeLocation(out, definition.getLocation());
+		writeString(out, definition.getKeyword());
+		writeString(out, definition.getName());
+		writeString(out, definition.getDescription());
+
+		List<Step> steps = definition.getSteps();
+		out.writeInt(steps.size());
+		for (Step step : steps) {
+			writeStep(out, step);
+		}
+
+		if (ScenarioOutline.class.isInstance(definition)) {
+			List<Examples> examples = ScenarioOutline.class.cast(definition).getExamples();
+			out.writeInt(examples.size());
+			for (Examples example : examples) {
+				writeExamples(out, example);
+			}
+		}
+	}
+
+	protected ScenarioDefinition readScenarioDefinition(DataInputStream in) throws IOException {
+		int type = in.readByte();
+		List<Tag> tags = BACKGROUND == type ? null : readTags(in);
+
+		Location location = readLocation(in);
+		String keyword = readString(in);
+		String name = readString(in);
+		String description = readString(in);
+
+		int stepCount = in.readInt();
+		List<Step> steps = new ArrayList<>(stepCount);
+		for (int i = 0; i < stepCount; i++) {
+			steps.add(readStep(in));
+		}
+
+		ScenarioDefinition definition;
+		switch (type) {
+			case BACKGROUND:
+				definition = new Background(location, keyword, name, description, steps);
+				break;
+			case SCENARIO:
+				definition = new Scenario(tags, location, keyword, name, description, steps);
+				break;
+			case SCENARIO_OUTLINE:
+				int exampleCount = in.readInt();
+				List<Examples> examples = new ArrayList<>(exampleCount);
+				for (int i = 0; i < exampleCount; i++) {
+					examples.add(readExamples(in));
+				}
+				definition = new ScenarioOutline(tags, location, keyword, name, description, steps, examples);
+				break;
+			default:
+				throw new IOException("unrecognized ScenarioDefinition type " + type);
+		}
+		return definition;
+	}
+
+	protected void writeStep(DataOutputStream out, Step step) throws IOException {
+		writeLocation(out, step.getLocation());
+		writeString(out, step.getKeyword());
+		writeString(out, step.getText());
+
+		Node argument = step.getArgument();
+		if (DataTable.class.isInstance(argument)) {
+			out.writeByte(DATA_TABLE);
+			writeTableRows(out, DataTable.class.cast(argument).getRows());
+		}
+		else if (DocString.class.isInstance(argument)) {
+			out.writeByte(DOC_STRING);
+			DocString docString = DocString.class.cast(argument);
+			writeLocation(out, docString.getLocation());
+			writeString(out, docString.getContentType());
+			writeString(out, docString.getContent());
+		}
+		else if (null == argument) {
+			out.writeByte(NONE);
+		}
+		else {
+			throw new IOException("unsupported Step argument " + argument.getClass());
+		}
+	}
+
+	protected Step readStep(DataInputStream in) throws IOException {
+		Location location = readLocation(in);
+		String keyword = readString(in);
+		String text = readString(in);
+
+		Node argument;
+		int type = in.readByte();
+		switch (type) {
+			case NONE:
+				argument = null;
+				break;
+			case DATA_TABLE:
+				argument = new DataTable(readTableRows(in));
+				break;
+			case DOC_STRING:
+				Location docStringLocation = readLocation(in);
+				String contentType = readString(in);
+				String content = readString(in);
+				argument = new DocString(docStringLocation, contentType, content);
+				break;
+			default:
+				throw new IOException("unrecognized Step argument type " + type);
+		}
+		return new Step(location, keyword, text, argument);
+	}
+
+	protected void writeExamples(DataOutputStream out, Examples examples) throws IOException {
+		writeLocation(out, examples.getLocation());
+		writeTags(out, examples.getTags());
+		writeString(out, examples.getKeyword());
+		writeString(out, examples.getName());
+		writeString(out, examples.getDescription());
+
+		TableRow header = examples.getTableHeader();
+		out.writeBoolean(null != header);
+		if (null != header) {
+			writeTableRow(out, header);
+		}
+
+		List<TableRow> body = examples.getTableBody();
+		out.writeBoolean(null != body);
+		if (null != body) {
+			writeTableRows(out, body);
+		}
+	}
+
+	protected Examples readExamples(DataInputStream in) throws IOException {
+		Location location = readLocation(in);
+		List<Tag> tags = readTags(in);
+		String keyword = readString(in);
+		String name = readString(in);
+		String description = readString(in);
+		TableRow header = in.readBoolean() ? readTableRow(in) : null;
+		List<TableRow> body = in.readBoolean() ? readTableRows(in) : null;
+		return new Examples(location, tags, keyword, name, description, header, body);
+	}
+
+	protected void writeTableRows(DataOutputStream out, List<TableRow> rows) throws IOException {
+		out.writeInt(rows.size());
+		for (TableRow row : rows) {
+			writeTableRow(out, row);
+		}
+	}
+
+	protected List<TableRow> readTableRows(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<TableRow> rows = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			rows.add(readTableRow(in));
+		}
+		return rows;
+	}
+
+	protected void writeTableRow(DataOutputStream out, TableRow row) throws IOException {
+		writeLocation(out, row.getLocation());
+		List<TableCell> cells = row.getCells();
+		out.writeInt(cells.size());
+		for (TableCell cell : cells) {
+			writeLocation(out, cell.getLocation());
+			writeString(out, cell.getValue());
+		}
+	}
+
+	protected TableRow readTableRow(DataInputStream in) throws IOException {
+		Location location = readLocation(in);
+		int count = in.readInt();
+		List<TableCell> cells = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Location cellLocation = readLocation(in);
+			String value = readString(in);
+			cells.add(new TableCell(cellLocation, value));
+		}
+		return new TableRow(location, cells);
+	}
+
+	protected void writeTags(DataOutputStream out, List<Tag> tags) throws IOException {
+		out.writeInt(tags.size());
+		for (Tag tag : tags) {
+			writeLocation(out, tag.getLocation());
+			writeString(out, tag.getName());
+		}
+	}
+
+	protected List<Tag> readTags(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<Tag> tags = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Location location = readLocation(in);
+			String name = readString(in);
+			tags.add(new Tag(location, name));
+		}
+		return tags;
+	}
+
+	protected void writeLocation(DataOutputStream out, Location location) throws IOException {
+		out.writeInt(location.getLine());
+		out.writeInt(location.getColumn());
+	}
+
+	protected Location readLocation(DataInputStream in) throws IOException {
+		int line = in.readInt();
+		int column = in.readInt();
+		return new Location(line, column);
+	}
+
+	protected void writePickle(DataOutputStream out, Pickle pickle) throws IOException {
+		writeString(out, pickle.getName());
+		writeString(out, pickle.getLanguage());
+
+		List<PickleStep> steps = pickle.getSteps();
+		out.writeInt(steps.size());
+		for (PickleStep step : steps) {
+			writePickleStep(out, step);
+		}
+
+		List<PickleTag> tags = pickle.getTags();
+		out.writeInt(tags.size());
+		for (PickleTag tag : tags) {
+			writeString(out, tag.getName());
+		}
+
+		writePickleLocations(out, pickle.getLocations());
+	}
+
+	protected Pickle readPickle(DataInputStream in) throws IOException {
+		String name = readString(in);
+		String language = readString(in);
+
+		int stepCount = in.readInt();
+		List<PickleStep> steps = new ArrayList<>(stepCount);
+		for (int i = 0; i < stepCount; i++) {
+			steps.add(readPickleStep(in));
+		}
+
+		int tagCount = in.readInt();
+		List<PickleTag> tags = new ArrayList<>(tagCount);
+		for (int i = 0; i < tagCount; i++) {
+			tags.add(new PickleTag(null, readString(in)));
+		}
+
+		List<PickleLocation> locations = readPickleLocations(in);
+		return new Pickle(name, language, steps, tags, locations);
+	}
+
+	protected void writePickleStep(DataOutputStream out, PickleStep step) throws IOException {
+		writeString(out, step.getText());
+
+		List<Argument> arguments = step.getArgument();
+		out.writeInt(arguments.size());
+		for (Argument argument : arguments) {
+			if (PickleTable.class.isInstance(argument)) {
+				out.writeByte(DATA_TABLE);
+				List<PickleRow> rows = PickleTable.class.cast(argument).getRows();
+				out.writeInt(rows.size());
+				for (PickleRow row : rows) {
+					List<PickleCell> cells = row.getCells();
+					out.writeInt(cells.size());
+					for (PickleCell cell : cells) {
+						writePickleLocation(out, cell.getLocation());
+						writeString(out, cell.getValue());
+					}
+				}
+			}
+			else if (PickleString.class.isInstance(argument)) {
+				out.writeByte(DOC_STRING);
+				PickleString pickleString = PickleString.class.cast(argument);
+				writePickleLocation(out, pickleString.getLocation());
+				writeString(out, pickleString.getContent());
+			}
+			else {
+				throw new IOException("unsupported PickleStep argument " + argument.getClass());
+			}
+		}
+
+		writePickleLocations(out, step.getLocations());
+	}
+
+	protected PickleStep readPickleStep(DataInputStream in) throws IOException {
+		String text = readString(in);
+
+		int argumentCount = in.readInt();
+		List<Argument> arguments = new ArrayList<>(argumentCount);
+		for (int i = 0; i < argumentCount; i++) {
+			int type = in.readByte();
+			if (DATA_TABLE == type) {
+				int rowCount = in.readInt();
+				List<PickleRow> rows = new ArrayList<>(rowCount);
+				for (int j = 0; j < rowCount; j++) {
+					int cellCount = in.readInt();
+					List<PickleCell> cells = new ArrayList<>(cellCount);
+					for (int k = 0; k < cellCount; k++) {
+						PickleLocation location = readPickleLocation(in);
+						String value = readString(in);
+						cells.add(new PickleCell(location, value));
+					}
+					rows.add(new PickleRow(cells));
+				}
+				arguments.add(new PickleTable(rows));
+			}
+			else if (DOC_STRING == type) {
+				PickleLocation location = readPickleLocation(in);
+				String content = readString(in);
+				arguments.add(new PickleString(location, content));
+			}
+			else {
+				throw new IOException("unrecognized PickleStep argument type " + type);
+			}
+		}
+
+		List<PickleLocation> locations = readPickleLocations(in);
+		return new PickleStep(text, arguments, locations);
+	}
+
+	protected void writePickleLocations(DataOutputStream out, List<PickleLocation> locations) throws IOException {
+		out.writeInt(locations.size());
+		for (PickleLocation location : locations) {
+			writePickleLocation(out, location);
+		}
+	}
+
+	protected List<PickleLocation> readPickleLocations(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<PickleLocation> locations = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			locations.add(readPickleLocation(in));
+		}
+		return locations;
+	}
+
+	protected void writePickleLocation(DataOutputStream out, PickleLocation location) throws IOException {
+		out.writeInt(location.getLine());
+		out.writeInt(location.getColumn());
+	}
+
+	protected PickleLocation readPickleLocation(DataInputStream in) throws IOException {
+		int line = in.readInt();
+		int column = in.readInt();
+		return new PickleLocation(line, column);
+	}
+
+	protected static void writeString(DataOutputStream out, @Nullable String s) throws IOException {
+		if (null == s) {
+			out.writeInt(-1);
+		}
+		else {
+			byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	@Nullable
+	protected static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,305 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.index;
+
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nonnull;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.annotation.Gated;
+import guru.qas.martini.filter.engine.CategoryFilter;
+import guru.qas.martini.filter.engine.ConstantFilter;
+import guru.qas.martini.filter.engine.GatedFilter;
+import guru.qas.martini.filter.engine.IdentifierFilter;
+import guru.qas.martini.filter.engine.LogicalFilter;
+import guru.qas.martini.filter.engine.MartiniFilter;
+import guru.qas.martini.filter.engine.NotFilter;
+import guru.qas.martini.filter.engine.ResourceFilter;
+import guru.qas.martini.filter.engine.TagFilter;
+import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.tag.Categories;
+import guru.qas.martini.tag.MartiniTag;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * MartiniIndex built once from MartiniFactory.getMartinis() and kept until refresh(), which
+ * CatalogRefreshListener calls as a StepImplementation is registered; call refresh() after refreshing the
+ * MartiniFactory directly.
+ * Posting lists are kept for tag name, tag name and argument, expanded category, feature name, scenario
+ * name, ID, @Gated step gate name and resource URI. Filter nodes without a posting list are evaluated
+ * against each Martini still selected.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultMartiniIndex implements MartiniIndex {
+
+	protected final MartiniFactory martiniFactory;
+	protected final Categories categories;
+
+	protected volatile Postings postings;
+
+	@Autowired
+	protected DefaultMartiniIndex(MartiniFactory martiniFactory, Categories categories) {
+		this.martiniFactory = checkNotNull(martiniFactory, "null MartiniFactory");
+		this.categories = checkNotNull(categories, "null Categories");
+	}
+
+	@Override
+	public List<Martini> getMartinis() {
+		return getPostings().martinis;
+	}
+
+	@Override
+	public BitSet getOrdinals(@Nonnull MartiniFilter filter) {
+		checkNotNull(filter, "null MartiniFilter");
+		Postings current = getPostings();
+		return getOrdinals(current, filter);
+	}
+
+	@Override
+	public List<Martini> getMartinis(@Nonnull MartiniFilter filter) {
+		checkNotNull(filter, "null MartiniFilter");
+		Postings current = getPostings();
+		BitSet ordinals = getOrdinals(current, filter);
+
+		ImmutableList.Builder<Martini> builder = ImmutableList.builder();
+		ordinals.stream().forEach(ordinal -> builder.add(current.martinis.get(ordinal)));
+		return builder.build();
+	}
+
+	@Override
+	public synchronized void refresh() {
+		postings = null;
+	}
+
+	protected Postings getPostings() {
+		Postings current = postings;
+		if (null == current) {
+			synchronized (this) {
+				current = postings;
+				if (null == current) {
+					current = new Postings(martiniFactory.getMartinis());
+					postings = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	protected BitSet getOrdinals(Postings postings, MartiniFilter filter) {
+		BitSet ordinals;
+		if (LogicalFilter.class.isInstance(filter)) {
+			ordinals = getOrdinals(postings, LogicalFilter.class.cast(filter));
+		}
+		else if (NotFilter.class.isInstance(filter)) {
+			ordinals = postings.getAll();
+			ordinals.andNot(getOrdinals(postings, NotFilter.class.cast(filter).getOperand()));
+		}
+		else if (ConstantFilter.class.isInstance(filter)) {
+			ordinals = ConstantFilter.class.cast(filter).getValue() ? postings.getAll() : new BitSet();
+		}
+		else if (TagFilter.class.isInstance(filter)) {
+			TagFilter tagFilter = TagFilter.class.cast(filter);
+			String name = tagFilter.getName();
+			ordinals = tagFilter.getArgument()
+				.map(argument -> postings.get(postings.taggedArguments, getTagKey(name, argument)))
+				.orElseGet(() -> postings.get(postings.tagged, name));
+		}
+		else if (CategoryFilter.class.isInstance(filter) && !CategoryFilter.class.cast(filter).getCategory().isEmpty()) {
+			ordinals = postings.get(postings.categorized, CategoryFilter.class.cast(filter).getCategory());
+		}
+		else if (IdentifierFilter.class.isInstance(filter)) {
+			IdentifierFilter identifierFilter = IdentifierFilter.class.cast(filter);
+			Map<String, BitSet> index = postings.identified.get(identifierFilter.getType());
+			ordinals = postings.get(index, identifierFilter.getIdentifier());
+		}
+		else if (GatedFilter.class.isInstance(filter)) {
+			ordinals = GatedFilter.class.cast(filter).getGateName()
+				.map(name -> postings.get(postings.gated, name))
+				.orElseGet(() -> (BitSet) postings.anyGated.clone());
+		}
+		else if (ResourceFilter.class.isInstance(filter)) {
+			ordinals = new BitSet();
+			for (URI uri : ResourceFilter.class.cast(filter).getURIs()) {
+				ordinals.or(postings.get(postings.located, uri));
+			}
+		}
+		else {
+			ordinals = scan(postings, postings.getAll(), filter);
+		}
+		return ordinals;
+	}
+
+	protected BitSet getOrdinals(Postings postings, LogicalFilter filter) {
+		boolean conjunction = LogicalFilter.Operator.AND == filter.getOperator();
+
+		BitSet ordinals = null;
+		List<MartiniFilter> deferred = new ArrayList<>();
+		for (MartiniFilter operand : filter.getOperands()) {
+			if (conjunction && !isIndexed(operand)) {
+				deferred.add(operand);
+				continue;
+			}
+
+			BitSet operandOrdinals = getOrdinals(postings, operand);
+			if (null == ordinals) {
+				ordinals = operandOrdinals;
+			}
+			else if (conjunction) {
+				ordinals.and(operandOrdinals);
+			}
+			else {
+				ordinals.or(operandOrdinals);
+			}
+		}
+
+		// Unindexed conjuncts only need evaluating against what the indexed ones selected.
+		for (MartiniFilter operand : deferred) {
+			ordinals = scan(postings, null == ordinals ? postings.getAll() : ordinals, operand);
+		}
+		return ordinals;
+	}
+
+	protected boolean isIndexed(MartiniFilter filter) {
+		boolean evaluation;
+		if (LogicalFilter.class.isInstance(filter)) {
+			evaluation = LogicalFilter.class.cast(filter).getOperands().stream().allMatch(this::isIndexed);
+		}
+		else if (NotFilter.class.isInstance(filter)) {
+			evaluation = isIndexed(NotFilter.class.cast(filter).getOperand());
+		}
+		else if (CategoryFilter.class.isInstance(filter)) {
+			evaluation = !CategoryFilter.class.cast(filter).getCategory().isEmpty();
+		}
+		else {
+			evaluation = ConstantFilter.class.isInstance(filter)
+				|| TagFilter.class.isInstance(filter)
+				|| IdentifierFilter.class.isInstance(filter)
+				|| GatedFilter.class.isInstance(filter)
+				|| ResourceFilter.class.isInstance(filter);
+		}
+		return evaluation;
+	}
+
+	protected BitSet scan(Postings postings, BitSet candidates, MartiniFilter filter) {
+		BitSet ordinals = new BitSet();
+		candidates.stream()
+			.filter(ordinal -> filter.test(postings.martinis.get(ordinal)))
+			.forEach(ordinals::set);
+		return ordinals;
+	}
+
+	protected static String getTagKey(String name, String argument) {
+		return String.format("%s(%s)", name, argument);
+	}
+
+	protected class Postings {
+
+		protected final ImmutableList<Martini> martinis;
+		protected final Map<String, BitSet> tagged;
+		protected final Map<String, BitSet> taggedArguments;
+		protected final Map<String, BitSet> categorized;
+		protected final Map<IdentifierFilter.Type, Map<String, BitSet>> identified;
+		protected final Map<String, BitSet> gated;
+		protected final BitSet anyGated;
+		protected final Map<URI, BitSet> located;
+
+		protected Postings(Collection<Martini> catalog) {
+			this.martinis = ImmutableList.copyOf(catalog);
+			this.tagged = new HashMap<>();
+			this.taggedArguments = new HashMap<>();
+			this.categorized = new HashMap<>();
+			this.gated = new HashMap<>();
+			this.anyGated = new BitSet();
+			this.located = new HashMap<>();
+
+			Map<IdentifierFilter.Type, Map<String, BitSet>> identified = new HashMap<>();
+			for (IdentifierFilter.Type type : IdentifierFilter.Type.values()) {
+				identified.put(type, new HashMap<>());
+			}
+			this.identified = ImmutableMap.copyOf(identified);
+
+			for (int ordinal = 0; ordinal < this.martinis.size(); ordinal++) {
+				index(ordinal, this.martinis.get(ordinal));
+			}
+		}
+
+		protected void index(int ordinal, Martini martini) {
+			for (MartiniTag tag : martini.getTags()) {
+				String name = tag.getName();
+				post(tagged, name, ordinal);
+				String argument = tag.getArgument();
+				if (null != argument) {
+					post(taggedArguments, getTagKey(name, argument), ordinal);
+				}
+			}
+
+			Set<String> categorizations = categories.getCategorizations(martini);
+			categorizations.forEach(category -> post(categorized, category, ordinal));
+
+			identified.forEach((type, index) -> {
+				String identifier = type.getIdentifier(martini);
+				if (null != identifier) {
+					post(index, IdentifierFilter.getNormalized(identifier), ordinal);
+				}
+			});
+
+			for (StepImplementation implementation : martini.getStepIndex().values()) {
+				Method method = implementation.getMethod().orElse(null);
+				Gated[] annotations = null == method ? new Gated[0] : method.getDeclaredAnnotationsByType(Gated.class);
+				for (Gated annotation : annotations) {
+					anyGated.set(ordinal);
+					post(gated, annotation.name(), ordinal);
+				}
+			}
+
+			URI uri = ResourceFilter.getURI(martini.getRecipe().getFeatureWrapper().getResource());
+			post(located, uri, ordinal);
+		}
+
+		protected <K> void post(Map<K, BitSet> index, K key, int ordinal) {
+			index.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+		}
+
+		protected <K> BitSet get(Map<K, BitSet> index, K key) {
+			BitSet ordinals = index.get(key);
+			return null == ordinals ? new BitSet() : (BitSet) ordinals.clone();
+		}
+
+		protected BitSet getAll() {
+			BitSet ordinals = new BitSet(martinis.size());
+			ordinals.set(0, martinis.size());
+			return ordinals;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.index;
+
+import java.util.BitSet;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.filter.engine.MartiniFilter;
+
+/**
+ * Inverted index over the Martini catalog, answering filters with bitsets of Martini ordinals.
+ */
+public interface MartiniIndex {
+
+	String IMPLEMENTATION_KEY = "martini.index.implementation";
+
+	/**
+	 * @return indexed Martini instances, positioned by ordinal
+	 */
+	List<Martini> getMartinis();
+
+	/**
+	 * @return ordinals of Martini instances matching the filter
+	 */
+	BitSet getOrdinals(@Nonnull MartiniFilter filter);
+
+	/**
+	 * @return Martini instances matching the filter, in ordinal order
+	 */
+	List<Martini> getMartinis(@Nonnull MartiniFilter filter);
+
+	/**
+	 * Discards the index; it is rebuilt on next use.
+	 */
+	void refresh();
+}
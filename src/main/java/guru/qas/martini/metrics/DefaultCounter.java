@@ -0,0 +1,38 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultCounter implements Counter {
+
+	protected final LongAdder count;
+
+	public DefaultCounter() {
+		count = new LongAdder();
+	}
+
+	@Override
+	public void add(long delta) {
+		count.add(delta);
+	}
+
+	@Override
+	public long getCount() {
+		return count.sum();
+	}
+}
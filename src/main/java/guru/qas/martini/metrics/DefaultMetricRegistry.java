@@ -0,0 +1,106 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Configurable;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Dependency-free MetricRegistry holding metrics in memory for the life of the ApplicationContext.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultMetricRegistry implements MetricRegistry {
+
+	protected final ConcurrentMap<String, Metric> metrics;
+
+	public DefaultMetricRegistry() {
+		metrics = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public Counter counter(String name) {
+		return get(name, Counter.class, DefaultCounter::new);
+	}
+
+	@Override
+	public Timer timer(String name) {
+		return get(name, Timer.class, DefaultTimer::new);
+	}
+
+	protected <T extends Metric> T get(String name, Class<T> type, Supplier<T> supplier) {
+		checkNotNull(name, "null String");
+		Metric metric = metrics.get(name);
+		if (null == metric) {
+			metric = metrics.computeIfAbsent(name, key -> supplier.get());
+		}
+		checkState(type.isInstance(metric), "metric %s is a %s, not a %s", name, metric.getClass(), type);
+		return type.cast(metric);
+	}
+
+	@Override
+	public void gauge(String name, Gauge gauge) {
+		checkNotNull(name, "null String");
+		checkNotNull(gauge, "null Gauge");
+		Metric previous = metrics.put(name, gauge);
+		if (null != previous && !Gauge.class.isInstance(previous)) {
+			metrics.put(name, previous);
+			throw new IllegalStateException(String.format("metric %s is a %s, not a Gauge", name, previous.getClass()));
+		}
+	}
+
+	@Override
+	public <T extends Gauge> T gauge(String name, Class<T> type, Supplier<T> supplier) {
+		checkNotNull(type, "null Class");
+		checkNotNull(supplier, "null Supplier");
+		return get(name, type, supplier);
+	}
+
+	@Override
+	public SortedMap<String, Metric> getMetrics() {
+		return new TreeMap<>(metrics);
+	}
+
+	@Override
+	public SortedMap<String, Number> getValues() {
+		SortedMap<String, Number> values = new TreeMap<>();
+		metrics.forEach((name, metric) -> {
+			if (Counter.class.isInstance(metric)) {
+				values.put(name, Counter.class.cast(metric).getCount());
+			}
+			else if (Gauge.class.isInstance(metric)) {
+				values.put(name, Gauge.class.cast(metric).getValue());
+			}
+			else if (Timer.class.isInstance(metric)) {
+				Timer timer = Timer.class.cast(metric);
+				values.put(name + ".count", timer.getCount());
+				values.put(name + ".totalNanos", timer.getTotal());
+				values.put(name + ".meanNanos", timer.getMean());
+				values.put(name + ".p50Nanos", timer.getValueAtPercentile(50));
+				values.put(name + ".p99Nanos", timer.getValueAtPercentile(99));
+				values.put(name + ".maxNanos", timer.getMax());
+			}
+		});
+		return values;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import guru.qas.martini.runtime.instrumentation.LatencyHistogram;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Timer backed by a lock-free LatencyHistogram.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DefaultTimer implements Timer {
+
+	protected final LatencyHistogram histogram;
+
+	public DefaultTimer() {
+		histogram = new LatencyHistogram();
+	}
+
+	@Override
+	public void record(long duration, TimeUnit unit) {
+		checkNotNull(unit, "null TimeUnit");
+		histogram.record(Math.max(0, unit.toNanos(duration)));
+	}
+
+	@Override
+	public long getCount() {
+		return histogram.getCount();
+	}
+
+	@Override
+	public long getTotal() {
+		return histogram.getTotal();
+	}
+
+	@Override
+	public long getMax() {
+		return histogram.getMax();
+	}
+
+	@Override
+	public long getValueAtPercentile(double percentile) {
+		return histogram.getValueAtPercentile(percentile);
+	}
+}
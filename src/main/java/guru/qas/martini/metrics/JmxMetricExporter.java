@@ -0,0 +1,149 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.SortedMap;
+
+import javax.annotation.Nonnull;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Exposes every MetricRegistry value as a read-only attribute of a single MBean on the platform
+ * MBeanServer, named {domain}:type=Metrics,context={application context id}. The MBean lives as long as
+ * the declared bean, registered once its properties are set and unregistered as it is destroyed.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class JmxMetricExporter implements DynamicMBean, ApplicationContextAware, EnvironmentAware, InitializingBean, DisposableBean {
+
+	public static final String PROPERTY_DOMAIN = "martini.metrics.jmx.domain";
+
+	protected final MetricRegistry registry;
+
+	protected ApplicationContext applicationContext;
+	protected Environment environment;
+	protected MBeanServer server;
+	protected ObjectName objectName;
+
+	@Autowired
+	public JmxMetricExporter(MetricRegistry registry) {
+		this.registry = checkNotNull(registry, "null MetricRegistry");
+	}
+
+	@Override
+	public void setApplicationContext(@Nonnull ApplicationContext applicationContext) {
+		this.applicationContext = checkNotNull(applicationContext, "null ApplicationContext");
+	}
+
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	public ObjectName getObjectName() {
+		return objectName;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws JMException {
+		String domain = null == environment ? null : environment.getProperty(PROPERTY_DOMAIN);
+		Hashtable<String, String> properties = new Hashtable<>();
+		properties.put("type", "Metrics");
+		properties.put("context", ObjectName.quote(null == applicationContext ? "default" : applicationContext.getId()));
+		objectName = new ObjectName(null == domain ? "guru.qas.martini" : domain, properties);
+		server = ManagementFactory.getPlatformMBeanServer();
+		server.registerMBean(this, objectName);
+	}
+
+	@Override
+	public void destroy() throws JMException {
+		if (null != server && server.isRegistered(objectName)) {
+			server.unregisterMBean(objectName);
+		}
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		Number value = registry.getValues().get(attribute);
+		if (null == value) {
+			throw new AttributeNotFoundException(attribute);
+		}
+		return value;
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		SortedMap<String, Number> values = registry.getValues();
+		AttributeList list = new AttributeList();
+		for (String attribute : attributes) {
+			Number value = values.get(attribute);
+			if (null != value) {
+				list.add(new Attribute(attribute, value));
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException(String.format("attribute %s is read-only", attribute.getName()));
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+		throw new ReflectionException(new NoSuchMethodException(actionName));
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		SortedMap<String, Number> values = registry.getValues();
+		MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+		int i = 0;
+		for (Map.Entry<String, Number> entry : values.entrySet()) {
+			String type = entry.getValue().getClass().getName();
+			attributes[i++] = new MBeanAttributeInfo(entry.getKey(), type, entry.getKey(), true, false, false);
+		}
+		return new MBeanInfo(getClass().getName(), "Martini runtime metrics", attributes, null, null, null);
+	}
+}
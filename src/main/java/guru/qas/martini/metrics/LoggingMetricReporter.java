@@ -0,0 +1,131 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import guru.qas.martini.event.AfterSuiteEvent;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Logs every MetricRegistry value each PROPERTY_PERIOD seconds and after each suite, with Counters
+ * accompanied by their rate per second since the previous report. A period of zero reports after suites
+ * only. The MetricRegistry collects regardless; declaring this reporter as a bean is what puts the values
+ * in the log.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class LoggingMetricReporter implements EnvironmentAware, InitializingBean, DisposableBean {
+
+	public static final String PROPERTY_PERIOD = "martini.metrics.log.period";
+
+	protected final MetricRegistry registry;
+	protected final Logger logger;
+	protected final Map<String, Long> previousCounts;
+
+	protected Environment environment;
+	protected ScheduledExecutorService executor;
+	protected long previousNanos;
+
+	@Autowired
+	public LoggingMetricReporter(MetricRegistry registry) {
+		this.registry = checkNotNull(registry, "null MetricRegistry");
+		this.logger = LoggerFactory.getLogger(getClass());
+		this.previousCounts = new HashMap<>();
+		this.previousNanos = System.nanoTime();
+	}
+
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		long period = null == environment ? 60 : environment.getProperty(PROPERTY_PERIOD, long.class, 60L);
+		checkState(period >= 0, "invalid %s setting %s, must not be negative", PROPERTY_PERIOD, period);
+		if (period > 0) {
+			executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+				.setDaemon(true)
+				.setNameFormat("martini-metrics-reporter")
+				.build());
+			executor.scheduleAtFixedRate(this::report, period, period, TimeUnit.SECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (null != executor) {
+			executor.shutdownNow();
+		}
+	}
+
+	@EventListener
+	public void handle(@SuppressWarnings("unused") AfterSuiteEvent event) {
+		report();
+	}
+
+	public synchronized void report() {
+		if (logger.isInfoEnabled()) {
+			try {
+				logger.info(getReport());
+			}
+			catch (RuntimeException e) {
+				logger.warn("unable to report metrics", e);
+			}
+		}
+	}
+
+	protected String getReport() {
+		long now = System.nanoTime();
+		double seconds = Math.max(1, now - previousNanos) / 1e9;
+		previousNanos = now;
+
+		SortedMap<String, Metric> metrics = registry.getMetrics();
+		StringBuilder builder = new StringBuilder("metrics:");
+		registry.getValues().forEach((name, value) -> {
+			builder.append(String.format("%n  %s = %s", name, value));
+			Metric metric = metrics.get(name);
+			if (Counter.class.isInstance(metric)) {
+				long count = value.longValue();
+				Long previous = previousCounts.put(name, count);
+				double rate = (count - (null == previous ? 0 : previous)) / seconds;
+				builder.append(String.format(" (%.1f/s)", rate));
+			}
+		});
+		return builder.toString();
+	}
+}
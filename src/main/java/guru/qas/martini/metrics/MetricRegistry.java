@@ -0,0 +1,58 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.SortedMap;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, gauges and timers describing a running suite.
+ */
+public interface MetricRegistry {
+
+	String IMPLEMENTATION_KEY = "martini.metric.registry.implementation";
+
+	/**
+	 * @return the Counter registered under the name, created on first use
+	 */
+	Counter counter(String name);
+
+	/**
+	 * @return the Timer registered under the name, created on first use
+	 */
+	Timer timer(String name);
+
+	/**
+	 * Registers the Gauge under the name, replacing any Gauge previously registered there.
+	 */
+	void gauge(String name, Gauge gauge);
+
+	/**
+	 * @return the Gauge registered under the name, registering the supplied one on first use; lets callers
+	 * created per scenario share a Gauge holding state of its own
+	 */
+	<T extends Gauge> T gauge(String name, Class<T> type, Supplier<T> supplier);
+
+	/**
+	 * @return registered metrics by name
+	 */
+	SortedMap<String, Metric> getMetrics();
+
+	/**
+	 * @return current value of every metric by name; Timers contribute count, total, mean, p50, p99 and max entries
+	 */
+	SortedMap<String, Number> getValues();
+}
@@ -0,0 +1,39 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of durations; values are reported in nanoseconds.
+ */
+public interface Timer extends Metric {
+
+	void record(long duration, TimeUnit unit);
+
+	long getCount();
+
+	long getTotal();
+
+	long getMax();
+
+	long getValueAtPercentile(double percentile);
+
+	default double getMean() {
+		long count = getCount();
+		return 0 == count ? 0 : (double) getTotal() / count;
+	}
+}
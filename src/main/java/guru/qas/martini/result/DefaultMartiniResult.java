@@ -16,16 +16,12 @@ limitations under the License.
 
 package guru.qas.martini.result;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Ordering;
 
 import guru.qas.martini.Martini;
 import guru.qas.martini.event.Status;
@@ -43,7 +39,7 @@ public class DefaultMartiniResult implements MutableMartiniResult {
 	protected final ImmutableSet<String> categorizations;
 	protected final String threadGroupName;
 	protected final String threadName;
-	protected final List<StepResult> stepResults;
+	protected final StepResultLog stepResults;
 
 	@Override
 	public UUID getId() {
@@ -76,7 +72,7 @@ public class DefaultMartiniResult implements MutableMartiniResult {
 
 	@Override
 	public List<StepResult> getStepResults() {
-		return ImmutableList.copyOf(stepResults);
+		return stepResults.getSnapshot().getStepResults();
 	}
 
 	protected DefaultMartiniResult(
@@ -92,7 +88,7 @@ public class DefaultMartiniResult implements MutableMartiniResult {
 		this.categorizations = ImmutableSet.copyOf(categorizations);
 		this.threadGroupName = threadGroupName;
 		this.threadName = threadName;
-		this.stepResults = new ArrayList<>();
+		this.stepResults = new StepResultLog();
 	}
 
 	@Override
@@ -103,46 +99,27 @@ public class DefaultMartiniResult implements MutableMartiniResult {
 
 	@Override
 	public Optional<Status> getStatus() {
-		return stepResults.stream()
-			.map(result -> result.getStatus().orElse(null))
-			.filter(Objects::nonNull)
-			.distinct()
-			.max(Ordering.natural());
+		return stepResults.getSnapshot().getStatus();
 	}
 
 	@Override
 	public Optional<Long> getStartTimestamp() {
-		return stepResults.stream()
-			.map(result -> result.getStartTimestamp().orElse(null))
-			.filter(Objects::nonNull)
-			.distinct()
-			.min(Ordering.natural());
+		return stepResults.getSnapshot().getStartTimestamp();
 	}
 
 	@Override
 	public Optional<Long> getEndTimestamp() {
-		return stepResults.stream()
-			.map(result -> result.getEndTimestamp().orElse(null))
-			.filter(Objects::nonNull)
-			.distinct()
-			.max(Ordering.natural());
+		return stepResults.getSnapshot().getEndTimestamp();
 	}
 
 	@Override
 	public Optional<Long> getExecutionTimeMs() {
-		Long evaluation = null;
-		if (getStartTimestamp().isPresent() && getEndTimestamp().isPresent()) {
-			evaluation = getEndTimestamp().get() - getStartTimestamp().get();
-		}
-		return Optional.ofNullable(evaluation);
+		return stepResults.getSnapshot().getExecutionTimeMs();
 	}
 
 	@Override
 	public Optional<Exception> getException() {
-		return stepResults.stream()
-			.map(result -> result.getException().orElse(null))
-			.filter(Objects::nonNull)
-			.findFirst();
+		return stepResults.getSnapshot().getException();
 	}
 
 	public static Builder builder() {
@@ -40,6 +40,8 @@ public class DefaultStepResult implements StepResult {
 
 	private Long startTimestamp;
 	private Long endTimestamp;
+	private Long startNanos;
+	private Long endNanos;
 	private Status status;
 	private Exception exception;
 
@@ -93,6 +95,20 @@ public class DefaultStepResult implements StepResult {
 		endTimestamp = l;
 	}
 
+	/**
+	 * @param l System.nanoTime() reading taken when the step started
+	 */
+	public void setStartNanos(Long l) {
+		this.startNanos = l;
+	}
+
+	/**
+	 * @param l System.nanoTime() reading taken when the step ended
+	 */
+	public void setEndNanos(Long l) {
+		this.endNanos = l;
+	}
+
 	public DefaultStepResult(Step step, StepImplementation implementation) {
 		this.step = checkNotNull(step, "null Step");
 		this.implementation = implementation;
@@ -109,9 +125,15 @@ public class DefaultStepResult implements StepResult {
 	public Optional<Long> getExecutionTime(TimeUnit unit) {
 		checkNotNull(unit, "null TimeUnit");
 
-		Long millis = getStartTimestamp().isPresent() && getEndTimestamp().isPresent() ?
-			getEndTimestamp().get() - getStartTimestamp().get() : null;
-		Long conversion = null == millis ? null : unit.convert(millis, TimeUnit.MILLISECONDS);
+		Long conversion;
+		if (null != startNanos && null != endNanos) {
+			conversion = unit.convert(endNanos - startNanos, TimeUnit.NANOSECONDS);
+		}
+		else {
+			Long millis = getStartTimestamp().isPresent() && getEndTimestamp().isPresent() ?
+				getEndTimestamp().get() - getStartTimestamp().get() : null;
+			conversion = null == millis ? null : unit.convert(millis, TimeUnit.MILLISECONDS);
+		}
 		return Optional.ofNullable(conversion);
 	}
 }
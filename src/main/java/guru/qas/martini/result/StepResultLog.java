@@ -0,0 +1,160 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.result;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+import javax.annotation.Nullable;
+
+import guru.qas.martini.event.Status;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Append-only record of a scenario's StepResults maintaining aggregate status, timestamps and first exception
+ * as results are added. StepResults are expected to be complete when appended.
+ */
+@SuppressWarnings("WeakerAccess")
+public class StepResultLog {
+
+	protected static final int INITIAL_CAPACITY = 8;
+
+	protected volatile Snapshot snapshot;
+
+	public StepResultLog() {
+		snapshot = new Snapshot(new StepResult[INITIAL_CAPACITY], 0, null, null, null, null);
+	}
+
+	public synchronized void add(StepResult result) {
+		checkNotNull(result, "null StepResult");
+		Snapshot current = snapshot;
+
+		StepResult[] elements = current.elements;
+		int size = current.size;
+		if (size == elements.length) {
+			elements = Arrays.copyOf(elements, size * 2);
+		}
+		elements[size] = result;
+
+		Status status = max(current.status, result.getStatus().orElse(null));
+		Long start = min(current.startTimestamp, result.getStartTimestamp().orElse(null));
+		Long end = max(current.endTimestamp, result.getEndTimestamp().orElse(null));
+		Exception exception = null == current.exception ? result.getException().orElse(null) : current.exception;
+		snapshot = new Snapshot(elements, size + 1, status, start, end, exception);
+	}
+
+	/**
+	 * Returns the current state; later additions are not reflected.
+	 */
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	@Nullable
+	protected static <T extends Comparable<T>> T max(@Nullable T current, @Nullable T candidate) {
+		return null == current || null != candidate && candidate.compareTo(current) > 0 ? candidate : current;
+	}
+
+	@Nullable
+	protected static <T extends Comparable<T>> T min(@Nullable T current, @Nullable T candidate) {
+		return null == current || null != candidate && candidate.compareTo(current) < 0 ? candidate : current;
+	}
+
+	public static class Snapshot {
+
+		// Shared with later snapshots; slots below size are never rewritten.
+		protected final StepResult[] elements;
+		protected final int size;
+		protected final Status status;
+		protected final Long startTimestamp;
+		protected final Long endTimestamp;
+		protected final Exception exception;
+
+		protected Snapshot(
+			StepResult[] elements,
+			int size,
+			@Nullable Status status,
+			@Nullable Long startTimestamp,
+			@Nullable Long endTimestamp,
+			@Nullable Exception exception
+		) {
+			this.elements = elements;
+			this.size = size;
+			this.status = status;
+			this.startTimestamp = startTimestamp;
+			this.endTimestamp = endTimestamp;
+			this.exception = exception;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * Returns an unmodifiable view of the StepResults recorded at the time of the snapshot.
+		 */
+		public List<StepResult> getStepResults() {
+			return new View(elements, size);
+		}
+
+		public Optional<Status> getStatus() {
+			return Optional.ofNullable(status);
+		}
+
+		public Optional<Long> getStartTimestamp() {
+			return Optional.ofNullable(startTimestamp);
+		}
+
+		public Optional<Long> getEndTimestamp() {
+			return Optional.ofNullable(endTimestamp);
+		}
+
+		public Optional<Long> getExecutionTimeMs() {
+			Long evaluation = null == startTimestamp || null == endTimestamp ? null : endTimestamp - startTimestamp;
+			return Optional.ofNullable(evaluation);
+		}
+
+		public Optional<Exception> getException() {
+			return Optional.ofNullable(exception);
+		}
+	}
+
+	protected static class View extends AbstractList<StepResult> implements RandomAccess {
+
+		protected final StepResult[] elements;
+		protected final int size;
+
+		protected View(StepResult[] elements, int size) {
+			this.elements = elements;
+			this.size = size;
+		}
+
+		@Override
+		public StepResult get(int index) {
+			checkElementIndex(index, size);
+			return elements[index];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
@@ -16,8 +16,31 @@ limitations under the License.
 
 package guru.qas.martini.runtime.event;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import guru.qas.martini.event.AfterScenarioEvent;
 import guru.qas.martini.event.AfterStepEvent;
@@ -25,55 +48,267 @@ import guru.qas.martini.event.AfterSuiteEvent;
 import guru.qas.martini.event.BeforeScenarioEvent;
 import guru.qas.martini.event.BeforeStepEvent;
 import guru.qas.martini.event.BeforeSuiteEvent;
+import guru.qas.martini.event.DefaultMartiniEventPublisher;
+import guru.qas.martini.event.MartiniEventBatchListener;
 import guru.qas.martini.event.MartiniEventPublisher;
 import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.metrics.MetricRegistry;
+import guru.qas.martini.metrics.Timer;
 import guru.qas.martini.result.MartiniResult;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Scenario and step events are only created where a listener would receive them. Listeners are detected
+ * once singletons have been instantiated, as the context is refreshed and on refresh(). Publishing only
+ * compares the number of listeners added through addApplicationListener across the context hierarchy,
+ * detecting again when it changes; listener beans registered later, and listeners added directly to an
+ * ApplicationEventMulticaster, are not seen until refresh(). Suite events are always published.
+ */
 @SuppressWarnings({"WeakerAccess", "unused"})
 @Configurable
-public class DefaultEventManager implements EventManager {
+public class DefaultEventManager implements EventManager, ApplicationContextAware, SmartInitializingSingleton {
+
+	protected static final ImmutableSet<Class<? extends ApplicationEvent>> SCENARIO_EVENT_TYPES = ImmutableSet.of(
+		BeforeScenarioEvent.class, AfterScenarioEvent.class, BeforeStepEvent.class, AfterStepEvent.class);
+
+	protected final ImmutableMap<Class<? extends ApplicationEvent>, LongAdder> published;
+	protected final ImmutableMap<Class<? extends ApplicationEvent>, LongAdder> skipped;
+
+	public static final String METRIC_PUBLISH = "events.publish";
+	public static final String METRIC_PUBLISHED = "events.published";
+	public static final String METRIC_SKIPPED = "events.skipped";
 
 	protected MartiniEventPublisher publisher;
+	protected ApplicationContext applicationContext;
+	protected volatile Listened listened;
+	protected Timer publishTimer;
+
+	public DefaultEventManager() {
+		ImmutableMap.Builder<Class<? extends ApplicationEvent>, LongAdder> published = ImmutableMap.builder();
+		ImmutableMap.Builder<Class<? extends ApplicationEvent>, LongAdder> skipped = ImmutableMap.builder();
+		for (Class<? extends ApplicationEvent> type : SCENARIO_EVENT_TYPES) {
+			published.put(type, new LongAdder());
+			skipped.put(type, new LongAdder());
+		}
+		this.published = published.build();
+		this.skipped = skipped.build();
+	}
 
 	@Autowired
 	protected void setMartiniEventPublisher(MartiniEventPublisher publisher) {
 		this.publisher = publisher;
 	}
 
+	@Autowired(required = false)
+	protected void setMetricRegistry(MetricRegistry registry) {
+		publishTimer = registry.timer(METRIC_PUBLISH);
+		registry.gauge(METRIC_PUBLISHED, () -> published.values().stream().mapToLong(LongAdder::sum).sum());
+		registry.gauge(METRIC_SKIPPED, () -> skipped.values().stream().mapToLong(LongAdder::sum).sum());
+	}
+
+	@Override
+	public void setApplicationContext(@Nonnull ApplicationContext applicationContext) {
+		this.applicationContext = checkNotNull(applicationContext, "null ApplicationContext");
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		if (ConfigurableApplicationContext.class.isInstance(applicationContext)) {
+			ConfigurableApplicationContext.class.cast(applicationContext).addApplicationListener(new RefreshListener());
+		}
+		refresh();
+	}
+
+	/**
+	 * Detects anew which scenario and step events have listeners.
+	 */
+	public void refresh() {
+		listened = new Listened(getListenerCount(), detectListened());
+	}
+
+	/**
+	 * @return number of scenario or step events of the given type published; suite events are not counted
+	 */
+	public long getPublishedCount(Class<? extends ApplicationEvent> eventType) {
+		LongAdder count = published.get(eventType);
+		return null == count ? 0 : count.sum();
+	}
+
+	/**
+	 * @return number of events of the given type not created for want of listeners
+	 */
+	public long getSkippedCount(Class<? extends ApplicationEvent> eventType) {
+		LongAdder count = skipped.get(eventType);
+		return null == count ? 0 : count.sum();
+	}
+
 	@Override
 	public void publishBeforeSuite(Object source, SuiteIdentifier suiteIdentifier) {
 		BeforeSuiteEvent event = new BeforeSuiteEvent(source, suiteIdentifier);
+		long start = System.nanoTime();
 		publisher.publish(event);
+		recordPublish(start);
 	}
 
 	@Override
 	public void publishAfterSuite(Object source, SuiteIdentifier suiteIdentifier) {
 		AfterSuiteEvent event = new AfterSuiteEvent(source, suiteIdentifier);
+		long start = System.nanoTime();
 		publisher.publish(event);
+		recordPublish(start);
 	}
 
 	@Override
 	public void publishBeforeScenario(Object source, MartiniResult result) {
-		BeforeScenarioEvent event = new BeforeScenarioEvent(source, result);
-		publisher.publish(event);
+		if (isPublishing(BeforeScenarioEvent.class)) {
+			BeforeScenarioEvent event = new BeforeScenarioEvent(source, result);
+			long start = System.nanoTime();
+			publisher.publish(event);
+			recordPublish(start);
+		}
 	}
 
 	@Override
 	public void publishAfterScenario(Object source, MartiniResult result) {
-		AfterScenarioEvent event = new AfterScenarioEvent(source, result);
-		publisher.publish(event);
+		if (isPublishing(AfterScenarioEvent.class)) {
+			AfterScenarioEvent event = new AfterScenarioEvent(source, result);
+			long start = System.nanoTime();
+			publisher.publish(event);
+			recordPublish(start);
+		}
 	}
 
 	@Override
 	public void publishBeforeStep(Object source, MartiniResult result) {
-		BeforeStepEvent event = new BeforeStepEvent(source, result);
-		publisher.publish(event);
+		if (isPublishing(BeforeStepEvent.class)) {
+			BeforeStepEvent event = new BeforeStepEvent(source, result);
+			long start = System.nanoTime();
+			publisher.publish(event);
+			recordPublish(start);
+		}
 	}
 
 	@Override
 	public void publishAfterStep(Object source, MartiniResult result) {
-		AfterStepEvent event = new AfterStepEvent(source, result);
-		publisher.publish(event);
+		if (isPublishing(AfterStepEvent.class)) {
+			AfterStepEvent event = new AfterStepEvent(source, result);
+			long start = System.nanoTime();
+			publisher.publish(event);
+			recordPublish(start);
+		}
+	}
+
+	protected void recordPublish(long start) {
+		if (null != publishTimer) {
+			publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	protected boolean isPublishing(Class<? extends ApplicationEvent> eventType) {
+		boolean publishing = getListened().types.contains(eventType);
+		(publishing ? published : skipped).get(eventType).increment();
+		return publishing;
+	}
+
+	protected Listened getListened() {
+		Listened snapshot = listened;
+		if (null == snapshot || snapshot.listenerCount != getListenerCount()) {
+			refresh();
+			snapshot = listened;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Called as every scenario and step event is published, so never consults the bean factory.
+	 */
+	protected int getListenerCount() {
+		int count = 0;
+		for (ApplicationContext context = applicationContext; null != context; context = context.getParent()) {
+			if (!AbstractApplicationContext.class.isInstance(context)) {
+				return -1;
+			}
+			count += AbstractApplicationContext.class.cast(context).getApplicationListeners().size();
+		}
+		return count;
+	}
+
+	/**
+	 * Errs on the side of publishing: events are only skipped where every listener in the context
+	 * hierarchy is known not to receive them.
+	 */
+	protected ImmutableSet<Class<? extends ApplicationEvent>> detectListened() {
+		if (!DefaultMartiniEventPublisher.class.isInstance(publisher) || null == applicationContext ||
+			applicationContext.getBeanNamesForType(MartiniEventBatchListener.class).length > 0) {
+			return SCENARIO_EVENT_TYPES;
+		}
+
+		List<ApplicationListener<?>> listeners = new ArrayList<>();
+		List<Class<?>> listenerBeanTypes = new ArrayList<>();
+		for (ApplicationContext context = applicationContext; null != context; context = context.getParent()) {
+			if (!AbstractApplicationContext.class.isInstance(context)) {
+				return SCENARIO_EVENT_TYPES;
+			}
+			listeners.addAll(AbstractApplicationContext.class.cast(context).getApplicationListeners());
+			for (String name : context.getBeanNamesForType(ApplicationListener.class, true, false)) {
+				listenerBeanTypes.add(context.getType(name));
+			}
+		}
+
+		ImmutableSet.Builder<Class<? extends ApplicationEvent>> builder = ImmutableSet.builder();
+		for (Class<? extends ApplicationEvent> type : SCENARIO_EVENT_TYPES) {
+			ResolvableType eventType = ResolvableType.forClass(type);
+			if (isListened(listeners, listenerBeanTypes, eventType)) {
+				builder.add(type);
+			}
+		}
+		return builder.build();
 	}
-}
 
+	protected boolean isListened(
+		Collection<ApplicationListener<?>> listeners,
+		Collection<Class<?>> listenerBeanTypes,
+		ResolvableType eventType
+	) {
+		return listeners.stream().anyMatch(listener -> supportsEventType(listener, eventType)) ||
+			listenerBeanTypes.stream().anyMatch(type -> supportsEventType(type, eventType));
+	}
+
+	protected boolean supportsEventType(ApplicationListener<?> listener, ResolvableType eventType) {
+		GenericApplicationListener adapter = GenericApplicationListener.class.isInstance(listener) ?
+			GenericApplicationListener.class.cast(listener) : new GenericApplicationListenerAdapter(listener);
+		return adapter.supportsEventType(eventType);
+	}
+
+	/**
+	 * Decides from the bean type alone, for listener beans that may not have been instantiated.
+	 */
+	protected boolean supportsEventType(Class<?> listenerType, ResolvableType eventType) {
+		if (null == listenerType || SmartApplicationListener.class.isAssignableFrom(listenerType) ||
+			GenericApplicationListener.class.isAssignableFrom(listenerType)) {
+			return true;
+		}
+		ResolvableType declared = ResolvableType.forClass(listenerType).as(ApplicationListener.class).getGeneric();
+		return ResolvableType.NONE == declared || null == declared.resolve() || declared.isAssignableFrom(eventType);
+	}
+
+	protected class RefreshListener implements ApplicationListener<ContextRefreshedEvent> {
+
+		@Override
+		public void onApplicationEvent(@Nonnull ContextRefreshedEvent event) {
+			refresh();
+		}
+	}
+
+	protected static class Listened {
+
+		protected final int listenerCount;
+		protected final ImmutableSet<Class<? extends ApplicationEvent>> types;
+
+		protected Listened(int listenerCount, ImmutableSet<Class<? extends ApplicationEvent>> types) {
+			this.listenerCount = listenerCount;
+			this.types = types;
+		}
+	}
+}
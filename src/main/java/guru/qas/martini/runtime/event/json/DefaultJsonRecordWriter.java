@@ -0,0 +1,264 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.HttpEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+
+import com.google.common.base.Throwables;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.Step;
+import guru.qas.martini.Martini;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.result.StepResult;
+import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.tag.Categories;
+import guru.qas.martini.tag.MartiniTag;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Streaming counterpart of the Default*Serializer classes. Tags and embedded HttpEntity content are handed to
+ * Gson adapters as the tree-based serializers do; everything else is written field by field. Null handling and
+ * escaping follow the settings of the JsonWriter supplied.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultJsonRecordWriter implements JsonRecordWriter {
+
+	protected final Categories categories;
+	protected Gson gson;
+	protected EnvironmentAllowList environmentAllowList;
+
+	@Autowired
+	public DefaultJsonRecordWriter(Categories categories) {
+		this.categories = categories;
+		this.gson = new Gson();
+		this.environmentAllowList = EnvironmentAllowList.of(null);
+	}
+
+	@Autowired(required = false)
+	public void setGson(Gson gson) {
+		this.gson = checkNotNull(gson, "null Gson");
+	}
+
+	@Autowired(required = false)
+	public void setEnvironmentAllowList(
+		@Value("${" + EnvironmentAllowList.PROPERTY + ":#{null}}") String[] allowed
+	) {
+		this.environmentAllowList = EnvironmentAllowList.of(allowed);
+	}
+
+	@Override
+	public void writeSuite(JsonWriter writer, SuiteIdentifier identifier) throws IOException {
+		checkNotNull(writer, "null JsonWriter");
+		checkNotNull(identifier, "null SuiteIdentifier");
+
+		writer.beginObject();
+		writer.name(DefaultSuiteIdentifierSerializer.PROPERTY);
+		writer.beginObject();
+		writer.name("id").value(identifier.getId().toString());
+		writer.name("startTimestamp").value(identifier.getStartTimestamp());
+		writer.name("name").value(identifier.getName());
+		writer.name("host");
+		writeHost(writer, identifier);
+		writer.name("profiles");
+		writeStrings(writer, identifier.getProfiles());
+		writer.name("environment");
+		writeEnvironment(writer, environmentAllowList.filter(identifier.getEnvironmentVariables()));
+		writer.endObject();
+		writer.endObject();
+	}
+
+	protected void writeHost(JsonWriter writer, SuiteIdentifier identifier) throws IOException {
+		writer.beginObject();
+		writer.name("hostName").value(identifier.getHostName().orElse(null));
+		writer.name("hostAddress").value(identifier.getHostAddress().orElse(null));
+		writer.name("username").value(identifier.getUsername().orElse(null));
+		writer.endObject();
+	}
+
+	protected void writeEnvironment(JsonWriter writer, Map<String, String> environment) throws IOException {
+		if (null == environment) {
+			writer.nullValue();
+		}
+		else {
+			writer.beginObject();
+			for (Map.Entry<String, String> entry : environment.entrySet()) {
+				writer.name(String.valueOf(entry.getKey())).value(entry.getValue());
+			}
+			writer.endObject();
+		}
+	}
+
+	@Override
+	public void writeFeature(JsonWriter writer, FeatureWrapper feature) throws IOException {
+		checkNotNull(writer, "null JsonWriter");
+		checkNotNull(feature, "null FeatureWrapper");
+
+		writer.beginObject();
+		writer.name(DefaultFeatureSerializer.KEY);
+		writer.beginObject();
+		writer.name("id").value(feature.getId().toString());
+		writer.name("name").value(feature.getName());
+		writer.name("description").value(feature.getDescription());
+		Resource resource = feature.getResource();
+		writer.name("location").value(null == resource ? null : resource.toString());
+		writer.endObject();
+		writer.endObject();
+	}
+
+	@Override
+	public void writeResult(JsonWriter writer, MartiniResult result) throws IOException {
+		checkNotNull(writer, "null JsonWriter");
+		checkNotNull(result, "null MartiniResult");
+
+		Martini martini = result.getMartini();
+		writer.beginObject();
+		writer.name(DefaultMartiniResultSerializer.PROPERTY);
+		writer.beginObject();
+		writer.name("suite").value(result.getSuiteIdentifier().getId().toString());
+		writer.name("feature").value(martini.getRecipe().getFeatureWrapper().getId().toString());
+		writeTimestamp(writer, "startTimestamp", result.getStartTimestamp().orElse(null));
+		writeTimestamp(writer, "endTimestamp", result.getEndTimestamp().orElse(null));
+		writer.name("threadGroup").value(result.getThreadGroupName());
+		writer.name("thread").value(result.getThreadName());
+		writer.name("id").value(martini.getId());
+		writer.name("line").value(martini.getScenarioLine());
+		writer.name("name").value(martini.getScenarioName());
+		writeDescription(writer, martini);
+		writer.name("categories");
+		writeStrings(writer, categories.getCategorizations(martini));
+		writer.name("tags");
+		writeTags(writer, martini.getTags());
+		if (result.getStatus().isPresent()) {
+			writer.name("status").value(result.getStatus().get().name());
+		}
+		writer.name("steps");
+		writeSteps(writer, result.getStepResults());
+		writer.endObject();
+		writer.endObject();
+	}
+
+	protected void writeDescription(JsonWriter writer, Martini martini) throws IOException {
+		ScenarioDefinition definition = martini.getRecipe().getScenarioDefinition();
+		String description = definition.getDescription();
+		writer.name("description").value(null == description ? null : description.trim());
+	}
+
+	protected void writeTags(JsonWriter writer, Collection<MartiniTag> tags) throws IOException {
+		writeList(writer, tags);
+	}
+
+	protected void writeSteps(JsonWriter writer, List<StepResult> stepResults) throws IOException {
+		writer.beginArray();
+		for (StepResult stepResult : stepResults) {
+			writeStep(writer, stepResult);
+		}
+		writer.endArray();
+	}
+
+	protected void writeStep(JsonWriter writer, StepResult stepResult) throws IOException {
+		Step step = stepResult.getStep();
+		writer.beginObject();
+		writeTimestamp(writer, "startTimestamp", stepResult.getStartTimestamp().orElse(null));
+		writeTimestamp(writer, "endTimestamp", stepResult.getEndTimestamp().orElse(null));
+		writer.name("keyword").value(step.getKeyword());
+		writer.name("text").value(step.getText());
+		writer.name("line").value(step.getLocation().getLine());
+
+		StepImplementation implementation = stepResult.getStepImplementation();
+		if (implementation.getMethod().isPresent()) {
+			writer.name("method");
+			writeImplementation(writer, implementation);
+		}
+
+		if (stepResult.getStatus().isPresent()) {
+			writer.name("status").value(stepResult.getStatus().get().name());
+		}
+		writer.name("embedded");
+		writeEmbedded(writer, stepResult.getEmbedded());
+		if (stepResult.getException().isPresent()) {
+			Exception exception = stepResult.getException().get();
+			writer.name("exception").value(Throwables.getStackTraceAsString(exception));
+		}
+		writer.endObject();
+	}
+
+	protected void writeImplementation(JsonWriter writer, StepImplementation implementation) throws IOException {
+		writer.beginObject();
+		writer.name("class").value(implementation.getClass().getName());
+		if (implementation.getPattern().isPresent()) {
+			writer.name("pattern").value(implementation.getPattern().get().pattern());
+		}
+		if (implementation.getMethod().isPresent()) {
+			Method method = implementation.getMethod().get();
+			writer.name("name").value(method.getName());
+			writer.name("parameters");
+			writer.beginArray();
+			for (Class<?> parameterType : method.getParameterTypes()) {
+				writer.value(parameterType.getName());
+			}
+			writer.endArray();
+		}
+		writer.endObject();
+	}
+
+	protected void writeEmbedded(JsonWriter writer, List<HttpEntity> embedded) throws IOException {
+		writeList(writer, embedded);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	protected void writeList(JsonWriter writer, Collection<?> values) throws IOException {
+		// Adapter used directly so the JsonWriter's own null and escaping settings apply.
+		TypeAdapter adapter = gson.getAdapter(List.class);
+		adapter.write(writer, values);
+	}
+
+	protected void writeStrings(JsonWriter writer, Collection<String> values) throws IOException {
+		if (null == values) {
+			writer.nullValue();
+		}
+		else {
+			writer.beginArray();
+			for (String value : values) {
+				writer.value(value);
+			}
+			writer.endArray();
+		}
+	}
+
+	protected void writeTimestamp(JsonWriter writer, String name, Long timestamp) throws IOException {
+		if (null != timestamp) {
+			writer.name(name).value(timestamp);
+		}
+	}
+}
@@ -22,6 +22,9 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSerializationContext;
@@ -33,6 +36,15 @@ public class DefaultSuiteIdentifierSerializer implements SuiteIdentifierSerializ
 
 	protected final static String PROPERTY = "suite";
 
+	protected EnvironmentAllowList environmentAllowList = EnvironmentAllowList.of(null);
+
+	@Autowired(required = false)
+	public void setEnvironmentAllowList(
+		@Value("${" + EnvironmentAllowList.PROPERTY + ":#{null}}") String[] allowed
+	) {
+		this.environmentAllowList = EnvironmentAllowList.of(allowed);
+	}
+
 	@Override
 	public JsonElement serialize(SuiteIdentifier identifier, Type type, JsonSerializationContext context) {
 		JsonElement contents = new Builder(identifier, context).build();
@@ -95,7 +107,7 @@ public class DefaultSuiteIdentifierSerializer implements SuiteIdentifierSerializ
 		}
 
 		protected void setEnvironment() {
-			Map<String, String> environment = identifier.getEnvironmentVariables();
+			Map<String, String> environment = environmentAllowList.filter(identifier.getEnvironmentVariables());
 			JsonElement serializedEnvironment = context.serialize(environment, Map.class);
 			serialized.add("environment", serializedEnvironment);
 		}
@@ -0,0 +1,86 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Environment variable names permitted in suite records. Entries are exact names or, ending in '*', name
+ * prefixes. Without a configured list every variable is permitted.
+ */
+@SuppressWarnings("WeakerAccess")
+public class EnvironmentAllowList {
+
+	public static final String PROPERTY = "json.suite.environment.allowed";
+
+	protected static final EnvironmentAllowList UNRESTRICTED = new EnvironmentAllowList(null, null);
+
+	protected final ImmutableSet<String> names;
+	protected final ImmutableList<String> prefixes;
+
+	protected EnvironmentAllowList(@Nullable ImmutableSet<String> names, @Nullable ImmutableList<String> prefixes) {
+		this.names = names;
+		this.prefixes = prefixes;
+	}
+
+	public boolean isRestricted() {
+		return null != names;
+	}
+
+	public boolean isAllowed(String name) {
+		return !isRestricted() || names.contains(name) || prefixes.stream().anyMatch(name::startsWith);
+	}
+
+	@Nullable
+	public Map<String, String> filter(@Nullable Map<String, String> environment) {
+		if (null == environment || !isRestricted()) {
+			return environment;
+		}
+
+		Map<String, String> filtered = new LinkedHashMap<>();
+		environment.forEach((name, value) -> {
+			if (null != name && isAllowed(name)) {
+				filtered.put(name, value);
+			}
+		});
+		return filtered;
+	}
+
+	public static EnvironmentAllowList of(@Nullable String[] entries) {
+		if (null == entries) {
+			return UNRESTRICTED;
+		}
+
+		ImmutableSet.Builder<String> names = ImmutableSet.builder();
+		ImmutableList.Builder<String> prefixes = ImmutableList.builder();
+		for (String entry : entries) {
+			String trimmed = null == entry ? "" : entry.trim();
+			if (trimmed.endsWith("*")) {
+				prefixes.add(trimmed.substring(0, trimmed.length() - 1));
+			}
+			else if (!trimmed.isEmpty()) {
+				names.add(trimmed);
+			}
+		}
+		return new EnvironmentAllowList(names.build(), prefixes.build());
+	}
+}
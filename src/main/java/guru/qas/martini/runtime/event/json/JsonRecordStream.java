@@ -0,0 +1,108 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import com.google.gson.stream.JsonWriter;
+
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.result.MartiniResult;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Writes records as elements of a single JSON array. Each SuiteIdentifier and FeatureWrapper is written once,
+ * ahead of the first result referring to it; results carry only their suite and feature ids.
+ */
+@SuppressWarnings("WeakerAccess")
+public class JsonRecordStream implements Closeable {
+
+	protected final JsonRecordWriter recordWriter;
+	protected final JsonWriter writer;
+	protected final Set<UUID> suites;
+	protected final Set<UUID> features;
+	protected boolean closed;
+
+	public JsonRecordStream(JsonRecordWriter recordWriter, JsonWriter writer) throws IOException {
+		this.recordWriter = checkNotNull(recordWriter, "null JsonRecordWriter");
+		this.writer = checkNotNull(writer, "null JsonWriter");
+		this.suites = new HashSet<>();
+		this.features = new HashSet<>();
+		writer.beginArray();
+	}
+
+	/**
+	 * For streams framing records themselves; getJsonWriter(), flush() and close() must be overridden.
+	 */
+	protected JsonRecordStream(JsonRecordWriter recordWriter) {
+		this.recordWriter = checkNotNull(recordWriter, "null JsonRecordWriter");
+		this.writer = null;
+		this.suites = new HashSet<>();
+		this.features = new HashSet<>();
+	}
+
+	public synchronized void write(SuiteIdentifier identifier) throws IOException {
+		checkNotNull(identifier, "null SuiteIdentifier");
+		checkState(!closed, "stream closed");
+		if (suites.add(identifier.getId())) {
+			recordWriter.writeSuite(getJsonWriter(), identifier);
+			endRecord();
+		}
+	}
+
+	public synchronized void write(FeatureWrapper feature) throws IOException {
+		checkNotNull(feature, "null FeatureWrapper");
+		checkState(!closed, "stream closed");
+		if (features.add(feature.getId())) {
+			recordWriter.writeFeature(getJsonWriter(), feature);
+			endRecord();
+		}
+	}
+
+	public synchronized void write(MartiniResult result) throws IOException {
+		checkNotNull(result, "null MartiniResult");
+		write(result.getSuiteIdentifier());
+		write(result.getMartini().getRecipe().getFeatureWrapper());
+		recordWriter.writeResult(getJsonWriter(), result);
+		endRecord();
+	}
+
+	protected JsonWriter getJsonWriter() {
+		return writer;
+	}
+
+	protected void endRecord() throws IOException {
+	}
+
+	public synchronized void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			writer.endArray();
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.io.IOException;
+
+import com.google.gson.stream.JsonWriter;
+
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.result.MartiniResult;
+
+/**
+ * Writes suite, feature and result records directly to a JsonWriter, producing the same documents as the
+ * tree-based serializers without building an intermediate JsonObject.
+ */
+public interface JsonRecordWriter {
+
+	void writeSuite(JsonWriter writer, SuiteIdentifier identifier) throws IOException;
+
+	void writeFeature(JsonWriter writer, FeatureWrapper feature) throws IOException;
+
+	void writeResult(JsonWriter writer, MartiniResult result) throws IOException;
+}
@@ -0,0 +1,355 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import com.google.common.io.CountingOutputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.stream.JsonWriter;
+
+import guru.qas.martini.event.AfterScenarioEvent;
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.metrics.MetricRegistry;
+import guru.qas.martini.result.MartiniResult;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Writes each completed MartiniResult as newline-delimited JSON from a background thread.
+ * <p>
+ * Output is split into chunks of roughly PROPERTY_CHUNK_BYTES on disk, each optionally gzip compressed and
+ * each starting with the suite and feature records its results refer to. A chunk is synced to disk when it
+ * is closed, on rotation and after every suite. As the sink owns a writer thread and files under
+ * PROPERTY_DIRECTORY, a suite wanting result files declares this class as a bean.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class NdjsonResultSink implements EnvironmentAware, InitializingBean, DisposableBean {
+
+	public static final String PROPERTY_DIRECTORY = "martini.json.sink.directory";
+	public static final String PROPERTY_PREFIX = "martini.json.sink.prefix";
+	public static final String PROPERTY_GZIP = "martini.json.sink.gzip";
+	public static final String PROPERTY_CHUNK_BYTES = "martini.json.sink.chunk.bytes";
+	public static final String PROPERTY_CAPACITY = "martini.json.sink.capacity";
+
+	public static final String METRIC_QUEUE_DEPTH = "json.sink.queue.depth";
+	public static final String METRIC_RECORDS_WRITTEN = "json.sink.records.written";
+	public static final String METRIC_BYTES_WRITTEN = "json.sink.bytes.written";
+	public static final String METRIC_FAILURES = "json.sink.failures";
+
+	protected final JsonRecordWriter recordWriter;
+	protected final AtomicLong recordsWritten;
+	protected final AtomicLong bytesWritten;
+	protected final AtomicLong chunksWritten;
+	protected final AtomicLong failures;
+	protected final Logger logger;
+
+	protected Environment environment;
+	protected Path directory;
+	protected String prefix;
+	protected boolean gzip;
+	protected long chunkBytes;
+	protected BlockingQueue<Object> queue;
+	protected volatile Thread thread;
+
+	// Writer thread state.
+	protected Chunk chunk;
+	protected int chunkIndex;
+	protected long completedBytes;
+
+	@Autowired
+	public NdjsonResultSink(JsonRecordWriter recordWriter) {
+		this.recordWriter = checkNotNull(recordWriter, "null JsonRecordWriter");
+		this.recordsWritten = new AtomicLong();
+		this.bytesWritten = new AtomicLong();
+		this.chunksWritten = new AtomicLong();
+		this.failures = new AtomicLong();
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	@Autowired(required = false)
+	protected void setMetricRegistry(MetricRegistry registry) {
+		registry.gauge(METRIC_QUEUE_DEPTH, this::getQueueDepth);
+		registry.gauge(METRIC_RECORDS_WRITTEN, this::getRecordsWritten);
+		registry.gauge(METRIC_BYTES_WRITTEN, this::getBytesWritten);
+		registry.gauge(METRIC_FAILURES, this::getFailures);
+	}
+
+	public int getQueueDepth() {
+		return null == queue ? 0 : queue.size();
+	}
+
+	public long getRecordsWritten() {
+		return recordsWritten.get();
+	}
+
+	/**
+	 * @return bytes written to disk, after compression
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.get();
+	}
+
+	public long getChunksWritten() {
+		return chunksWritten.get();
+	}
+
+	public long getFailures() {
+		return failures.get();
+	}
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		directory = Paths.get(environment.getProperty(PROPERTY_DIRECTORY, "martini"));
+		prefix = environment.getProperty(PROPERTY_PREFIX, "results");
+		gzip = environment.getProperty(PROPERTY_GZIP, boolean.class, true);
+		chunkBytes = environment.getProperty(PROPERTY_CHUNK_BYTES, long.class, 64L * 1024 * 1024);
+		int capacity = environment.getProperty(PROPERTY_CAPACITY, int.class, 1024);
+		checkState(chunkBytes > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_CHUNK_BYTES, chunkBytes);
+		checkState(capacity > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_CAPACITY, capacity);
+
+		Files.createDirectories(directory);
+		queue = new ArrayBlockingQueue<>(capacity);
+		new ThreadFactoryBuilder()
+			.setNameFormat("martini-json-sink-%d")
+			.setDaemon(true)
+			.build()
+			.newThread(this::run)
+			.start();
+	}
+
+	@EventListener
+	public void handle(AfterScenarioEvent event) {
+		put(event.getPayload());
+	}
+
+	@EventListener
+	public void handle(@SuppressWarnings("unused") AfterSuiteEvent event) {
+		flush();
+	}
+
+	/**
+	 * Waits until every result queued so far has been written and the current chunk synced and closed.
+	 */
+	public void flush() {
+		CountDownLatch latch = new CountDownLatch(1);
+		put(latch);
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while flushing results", e);
+		}
+	}
+
+	protected void put(Object item) {
+		try {
+			queue.put(item);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while queueing " + item, e);
+		}
+	}
+
+	protected void run() {
+		thread = Thread.currentThread();
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				Object item = queue.take();
+				if (CountDownLatch.class.isInstance(item)) {
+					closeChunk();
+					CountDownLatch.class.cast(item).countDown();
+				}
+				else {
+					write(MartiniResult.class.cast(item));
+				}
+			}
+		}
+		catch (InterruptedException ignored) {
+		}
+		finally {
+			closeChunk();
+		}
+	}
+
+	protected void write(MartiniResult result) {
+		try {
+			if (null == chunk) {
+				chunk = openChunk(result.getSuiteIdentifier());
+			}
+			chunk.write(result);
+			recordsWritten.incrementAndGet();
+			bytesWritten.set(completedBytes + chunk.getBytes());
+			if (chunk.getBytes() >= chunkBytes) {
+				closeChunk();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			failures.incrementAndGet();
+			logger.error("unable to write result {}", result.getId(), e);
+			abandonChunk();
+		}
+	}
+
+	protected Chunk openChunk(SuiteIdentifier identifier) throws IOException {
+		String extension = gzip ? ".ndjson.gz" : ".ndjson";
+		String name = String.format("%s-%s-%05d%s", prefix, identifier.getId(), ++chunkIndex, extension);
+		return new Chunk(directory.resolve(name));
+	}
+
+	protected void closeChunk() {
+		if (null != chunk) {
+			try {
+				chunk.close();
+				completedBytes += chunk.getBytes();
+				bytesWritten.set(completedBytes);
+				chunksWritten.incrementAndGet();
+				logger.debug("wrote {}", chunk.path);
+			}
+			catch (IOException e) {
+				failures.incrementAndGet();
+				logger.error("unable to close {}", chunk.path, e);
+			}
+			finally {
+				chunk = null;
+			}
+		}
+	}
+
+	protected void abandonChunk() {
+		if (null != chunk) {
+			try {
+				chunk.close();
+			}
+			catch (IOException e) {
+				logger.debug("unable to close {}", chunk.path, e);
+			}
+			finally {
+				completedBytes += chunk.getBytes();
+				chunk = null;
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		Thread thread = this.thread;
+		if (null != thread && thread.isAlive()) {
+			flush();
+			thread.interrupt();
+		}
+	}
+
+	protected class Chunk extends JsonRecordStream {
+
+		protected final Path path;
+		protected final FileOutputStream file;
+		protected final CountingOutputStream counted;
+		protected final OutputStream compressed;
+		protected final Writer output;
+		protected final StringWriter record;
+
+		protected Chunk(Path path) throws IOException {
+			super(NdjsonResultSink.this.recordWriter);
+			this.path = path;
+			this.file = new FileOutputStream(path.toFile());
+			this.counted = new CountingOutputStream(new BufferedOutputStream(file, 64 * 1024));
+			this.compressed = gzip ? new GZIPOutputStream(counted, 64 * 1024) : counted;
+			this.output = new OutputStreamWriter(compressed, StandardCharsets.UTF_8);
+			this.record = new StringWriter();
+		}
+
+		protected long getBytes() {
+			return counted.getCount();
+		}
+
+		/**
+		 * Records are serialized to a buffer first so a failing serializer never leaves a partial line in the chunk.
+		 */
+		@Override
+		protected JsonWriter getJsonWriter() {
+			record.getBuffer().setLength(0);
+			return new JsonWriter(record);
+		}
+
+		@Override
+		protected void endRecord() throws IOException {
+			StringBuffer buffer = record.getBuffer();
+			buffer.append('\n');
+			output.append(buffer);
+			buffer.setLength(0);
+		}
+
+		@Override
+		public synchronized void flush() throws IOException {
+			output.flush();
+		}
+
+		@Override
+		public synchronized void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				try {
+					output.flush();
+					if (gzip) {
+						GZIPOutputStream.class.cast(compressed).finish();
+					}
+					counted.flush();
+					file.getFD().sync();
+				}
+				finally {
+					file.close();
+				}
+			}
+		}
+	}
+}
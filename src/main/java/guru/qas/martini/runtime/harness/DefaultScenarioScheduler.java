@@ -0,0 +1,169 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Dispatches scenarios in submission order, skipping those that cannot take all of their gates.
+ * <p>
+ * Gates are entered in name order, all or none. A scenario finding a gate closed waits in that gate's
+ * queue and is only retried once a scenario holding the gate is released, so each release revisits
+ * the waiters of the gates it frees rather than every pending scenario.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DefaultScenarioScheduler implements ScenarioScheduler {
+
+	protected final TreeSet<Entry> ready;
+	protected final Map<String, TreeSet<Entry>> waiting;
+	protected final Map<Integer, Entry> dispatched;
+	protected final Logger logger;
+
+	protected int waitingCount;
+
+	public DefaultScenarioScheduler() {
+		ready = new TreeSet<>(Comparator.comparingInt(e -> e.id));
+		waiting = new HashMap<>();
+		dispatched = new HashMap<>();
+		logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void add(int id, @Nonnull Martini martini) {
+		checkNotNull(martini, "null Martini");
+		checkArgument(!dispatched.containsKey(id), "scenario %s already dispatched", id);
+		ready.add(new Entry(id, martini));
+	}
+
+	@Override
+	@Nullable
+	public Integer next() {
+		Entry entry;
+		while (null != (entry = ready.pollFirst())) {
+			String closed = enter(entry);
+			if (null == closed) {
+				dispatched.put(entry.id, entry);
+				return entry.id;
+			}
+			waiting.computeIfAbsent(closed, name -> new TreeSet<>(ready.comparator())).add(entry);
+			waitingCount++;
+		}
+		return null;
+	}
+
+	/**
+	 * @return name of the first gate found closed, or null where every gate was entered
+	 */
+	@Nullable
+	protected String enter(Entry entry) {
+		List<MartiniGate> entered = new ArrayList<>(entry.gates.size());
+		String closed = null;
+		for (MartiniGate gate : entry.gates) {
+			if (enter(gate)) {
+				entered.add(gate);
+			}
+			else {
+				closed = gate.getName();
+				break;
+			}
+		}
+		if (null != closed) {
+			entered.forEach(this::leave);
+		}
+		return closed;
+	}
+
+	protected boolean enter(MartiniGate gate) {
+		try {
+			return gate.enter();
+		}
+		catch (IllegalStateException e) {
+			return false; // the same Martini is already running and holds the gate
+		}
+	}
+
+	@Override
+	public void release(int id) {
+		Entry entry = dispatched.remove(id);
+		checkArgument(null != entry, "scenario %s not dispatched", id);
+		for (MartiniGate gate : entry.gates) {
+			leave(gate);
+			wake(gate.getName());
+		}
+	}
+
+	protected void leave(MartiniGate gate) {
+		try {
+			gate.leave();
+		}
+		catch (RuntimeException e) {
+			logger.warn("unable to leave gate {}", gate.getName(), e);
+		}
+	}
+
+	@Override
+	public void wake() {
+		waiting.values().forEach(ready::addAll);
+		waiting.clear();
+		waitingCount = 0;
+	}
+
+	@Override
+	public void wake(@Nonnull String gateName) {
+		TreeSet<Entry> waiters = waiting.remove(gateName);
+		if (null != waiters) {
+			waitingCount -= waiters.size();
+			ready.addAll(waiters);
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return ready.isEmpty() && 0 == waitingCount;
+	}
+
+	protected static class Entry {
+
+		protected final int id;
+		protected final Martini martini;
+		protected final List<MartiniGate> gates;
+
+		protected Entry(int id, Martini martini) {
+			this.id = id;
+			this.martini = martini;
+			Map<String, MartiniGate> byName = new TreeMap<>();
+			martini.getGates().forEach(gate -> byName.putIfAbsent(gate.getName(), gate));
+			this.gates = new ArrayList<>(byName.values());
+		}
+	}
+}
@@ -0,0 +1,373 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gate.MartiniGateFactory;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.runtime.event.EventManager;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Runs each scenario on a thread of its own, virtual where the JVM supports virtual threads and platform
+ * otherwise, with no more than the configured number running at once. A ScenarioScheduler decides which
+ * scenario starts next; scenarios waiting on gates hold neither a thread nor the scenarios behind them.
+ * <p>
+ * Waiting scenarios are retried as gates are released, including releases by other suites sharing the
+ * MartiniGateFactory. Where the factory does not report releases, waiting scenarios are retried every
+ * GATE_POLL_MILLISECONDS instead.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultSuiteExecutor implements SuiteExecutor, EnvironmentAware, InitializingBean {
+
+	protected static final String THREAD_NAME_PREFIX = "martini-scenario-";
+	protected static final long GATE_POLL_MILLISECONDS = 100;
+
+	protected final AutowireCapableBeanFactory beanFactory;
+	protected final EventManager eventManager;
+	protected final SuiteIdentifier suiteIdentifier;
+	protected final Logger logger;
+
+	protected Environment environment;
+	protected MartiniGateFactory gateFactory;
+	protected int concurrency;
+	protected long terminationTimeout;
+	protected ThreadFactory threadFactory;
+
+	@Autowired
+	protected DefaultSuiteExecutor(
+		AutowireCapableBeanFactory beanFactory,
+		EventManager eventManager,
+		SuiteIdentifier suiteIdentifier
+	) {
+		this.beanFactory = checkNotNull(beanFactory, "null AutowireCapableBeanFactory");
+		this.eventManager = checkNotNull(eventManager, "null EventManager");
+		this.suiteIdentifier = checkNotNull(suiteIdentifier, "null SuiteIdentifier");
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Autowired(required = false)
+	protected void setMartiniGateFactory(MartiniGateFactory gateFactory) {
+		this.gateFactory = gateFactory;
+	}
+
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		int processors = Runtime.getRuntime().availableProcessors();
+		concurrency = environment.getProperty(PROPERTY_CONCURRENCY, int.class, processors);
+		checkState(concurrency > 0, "invalid %s setting %s, must be greater than zero", PROPERTY_CONCURRENCY, concurrency);
+		terminationTimeout = environment.getProperty(PROPERTY_TERMINATION_TIMEOUT, long.class, 30L);
+		checkState(terminationTimeout >= 0, "invalid %s setting %s, must not be negative",
+			PROPERTY_TERMINATION_TIMEOUT, terminationTimeout);
+
+		boolean virtual = environment.getProperty(PROPERTY_VIRTUAL_THREADS, boolean.class, true);
+		threadFactory = virtual ? getVirtualThreadFactory() : null;
+		if (null == threadFactory) {
+			virtual = false;
+			threadFactory = new ThreadFactoryBuilder().setNameFormat(THREAD_NAME_PREFIX + "%d").setDaemon(true).build();
+		}
+		logger.info("running up to {} scenarios at once on {} threads", concurrency, virtual ? "virtual" : "platform");
+	}
+
+	/**
+	 * @return factory for named virtual threads, or null where the running JVM does not provide them
+	 */
+	@Nullable
+	protected ThreadFactory getVirtualThreadFactory() {
+		ThreadFactory factory = null;
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Method name = builderClass.getMethod("name", String.class, long.class);
+			builder = name.invoke(builder, THREAD_NAME_PREFIX, 0L);
+			factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			logger.debug("virtual threads unavailable", e);
+		}
+		return factory;
+	}
+
+	@Override
+	public List<MartiniResult> execute(@Nonnull Collection<Martini> martinis) throws InterruptedException {
+		checkNotNull(martinis, "null Collection");
+
+		eventManager.publishBeforeSuite(this, suiteIdentifier);
+		try {
+			Execution execution = new Execution(martinis);
+			execution.run();
+			return execution.getResults();
+		}
+		finally {
+			eventManager.publishAfterSuite(this, suiteIdentifier);
+		}
+	}
+
+	protected MartiniCallable getCallable(Martini martini) {
+		MartiniCallable callable = new MartiniCallable(martini);
+		beanFactory.autowireBean(callable);
+		String beanName = String.format("%s:%s", MartiniCallable.class.getName(), martini.getId());
+		return (MartiniCallable) beanFactory.initializeBean(callable, beanName);
+	}
+
+	protected ScenarioScheduler createScheduler() {
+		return new DefaultScenarioScheduler();
+	}
+
+	/**
+	 * State of a single call to execute; guarded by lock. The dispatching thread waits on signal, which is
+	 * never held while calling out, so gate release listeners may notify it from any thread.
+	 */
+	protected class Execution {
+
+		protected final ReentrantLock lock;
+		protected final Object signal;
+		protected final AtomicLong signals;
+		protected final Queue<String> released;
+		protected final Consumer<String> releaseListener;
+		protected final List<Martini> martinis;
+		protected final MartiniResult[] results;
+		protected final ScenarioScheduler scheduler;
+		protected final List<Thread> threads;
+		protected int running;
+
+		protected Execution(Collection<Martini> martinis) {
+			this.lock = new ReentrantLock();
+			this.signal = new Object();
+			this.signals = new AtomicLong();
+			this.released = new ConcurrentLinkedQueue<>();
+			this.releaseListener = gateName -> {
+				released.add(gateName);
+				signal();
+			};
+			this.martinis = new ArrayList<>(martinis);
+			this.results = new MartiniResult[this.martinis.size()];
+			this.scheduler = createScheduler();
+			for (int i = 0; i < this.martinis.size(); i++) {
+				scheduler.add(i, this.martinis.get(i));
+			}
+			this.threads = new ArrayList<>();
+		}
+
+		protected void run() throws InterruptedException {
+			boolean notified = null != gateFactory && gateFactory.addReleaseListener(releaseListener);
+			try {
+				while (dispatch()) {
+					if (!await(notified ? 0 : GATE_POLL_MILLISECONDS)) {
+						poll();
+					}
+				}
+			}
+			catch (InterruptedException e) {
+				terminate();
+				throw e;
+			}
+			finally {
+				if (notified) {
+					gateFactory.removeReleaseListener(releaseListener);
+				}
+			}
+		}
+
+		/**
+		 * @return false once every scenario has completed
+		 */
+		protected boolean dispatch() {
+			lock.lock();
+			try {
+				String gateName;
+				while (null != (gateName = released.poll())) {
+					scheduler.wake(gateName);
+				}
+				Integer next;
+				while (running < concurrency && null != (next = scheduler.next())) {
+					start(next);
+				}
+				return !scheduler.isEmpty() || running > 0;
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Retries every waiting scenario, for gates released without notice.
+		 */
+		protected void poll() {
+			lock.lock();
+			try {
+				if (running < concurrency) {
+					scheduler.wake();
+				}
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+
+		protected void signal() {
+			signals.incrementAndGet();
+			synchronized (signal) {
+				signal.notifyAll();
+			}
+		}
+
+		/**
+		 * Waits for a scenario to complete or a gate to be released since dispatch() last ran.
+		 *
+		 * @param timeout milliseconds, or zero to wait without limit
+		 * @return false where the timeout elapsed first
+		 */
+		protected boolean await(long timeout) throws InterruptedException {
+			synchronized (signal) {
+				long deadline = System.currentTimeMillis() + timeout;
+				while (0 == signals.getAndSet(0)) {
+					long remaining = deadline - System.currentTimeMillis();
+					if (0 == timeout) {
+						signal.wait();
+					}
+					else if (remaining > 0) {
+						signal.wait(remaining);
+					}
+					else {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+
+		/**
+		 * Interrupts running scenarios and waits up to terminationTimeout seconds for them to stop, so that
+		 * AfterSuite is not published while they are still publishing events.
+		 */
+		protected void terminate() {
+			List<Thread> started;
+			lock.lock();
+			try {
+				started = new ArrayList<>(threads);
+			}
+			finally {
+				lock.unlock();
+			}
+			started.forEach(Thread::interrupt);
+
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(terminationTimeout);
+			try {
+				for (Thread thread : started) {
+					TimeUnit.NANOSECONDS.timedJoin(thread, Math.max(1, deadline - System.nanoTime()));
+				}
+			}
+			catch (InterruptedException e) {
+				logger.warn("interrupted while waiting for scenarios to stop");
+			}
+
+			List<String> alive = started.stream()
+				.filter(Thread::isAlive)
+				.map(Thread::getName)
+				.collect(Collectors.toList());
+			if (!alive.isEmpty()) {
+				logger.warn("{} scenario threads still running after {} seconds: {}", alive.size(), terminationTimeout, alive);
+			}
+		}
+
+		protected void start(int index) {
+			Martini martini = martinis.get(index);
+			Thread thread = threadFactory.newThread(() -> call(index, martini));
+			running++;
+			threads.add(thread);
+			thread.start();
+		}
+
+		protected void call(int index, Martini martini) {
+			MartiniResult result = null;
+			try {
+				result = getCallable(martini).call();
+			}
+			catch (RuntimeException e) {
+				logger.warn("unable to complete scenario {}", martini.getId(), e);
+			}
+			finally {
+				complete(index, result);
+			}
+		}
+
+		protected void complete(int index, @Nullable MartiniResult result) {
+			lock.lock();
+			try {
+				results[index] = result;
+				scheduler.release(index);
+				running--;
+				threads.remove(Thread.currentThread());
+			}
+			finally {
+				lock.unlock();
+			}
+			signal();
+		}
+
+		protected List<MartiniResult> getResults() {
+			lock.lock();
+			try {
+				List<MartiniResult> completed = new ArrayList<>(results.length);
+				for (MartiniResult result : results) {
+					if (null != result) {
+						completed.add(result);
+					}
+				}
+				return completed;
+			}
+			finally {
+				lock.unlock();
+			}
+		}
+	}
+}
@@ -19,34 +19,45 @@ package guru.qas.martini.runtime.harness;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import javax.annotation.Nullable;
+
 import org.apache.http.HttpEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.slf4j.cal10n.LocLogger;
 import org.slf4j.cal10n.LocLoggerFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.core.convert.ConversionService;
 
 import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 
 import ch.qos.cal10n.IMessageConveyor;
 import exception.SkippedException;
-import gherkin.ast.Examples;
-import gherkin.ast.ScenarioDefinition;
-import gherkin.ast.ScenarioOutline;
 import gherkin.ast.Step;
-import gherkin.ast.TableCell;
-import gherkin.ast.TableRow;
 import gherkin.pickles.Pickle;
 import gherkin.pickles.PickleLocation;
 import guru.qas.martini.Martini;
@@ -55,12 +66,20 @@ import guru.qas.martini.Messages;
 import guru.qas.martini.event.Status;
 import guru.qas.martini.event.SuiteIdentifier;
 import guru.qas.martini.gherkin.Recipe;
+import guru.qas.martini.metrics.Gauge;
+import guru.qas.martini.metrics.MetricRegistry;
 import guru.qas.martini.result.DefaultMartiniResult;
 import guru.qas.martini.result.DefaultStepResult;
 import guru.qas.martini.result.MartiniResult;
 import guru.qas.martini.result.StepResult;
 import guru.qas.martini.runtime.event.EventManager;
+import guru.qas.martini.runtime.instrumentation.StepInstrumentation;
+import guru.qas.martini.step.ArgumentPlan;
 import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.step.converter.ParameterConverter;
+import guru.qas.martini.step.converter.ParameterConverterFactory;
+import guru.qas.martini.step.invoker.StepInvoker;
+import guru.qas.martini.step.invoker.StepInvokerFactory;
 import guru.qas.martini.step.exception.UnimplementedStepException;
 import guru.qas.martini.tag.Categories;
 
@@ -71,7 +90,29 @@ import static guru.qas.martini.runtime.harness.MartiniCallableMessages.*;
 @Configurable
 public class MartiniCallable implements Callable<MartiniResult>, InitializingBean {
 
-	private static final Pattern OUTLINE_PATTERN = Pattern.compile("^<(.*)>$");
+	public static final String PROPERTY_LOGGING = "martini.callable.logging";
+	public static final String MDC_SUITE = "martini.suite";
+	public static final String MDC_SCENARIO = "martini.scenario";
+	public static final String MDC_STEP = "martini.step";
+
+	public static final String METRIC_SCENARIOS_STARTED = "scenarios.started";
+	public static final String METRIC_SCENARIOS_COMPLETED = "scenarios.completed";
+	public static final String METRIC_SCENARIOS_FAILED = "scenarios.failed";
+	public static final String METRIC_SCENARIOS_ACTIVE = "scenarios.active";
+	public static final String METRIC_SCENARIO_DURATION = "scenarios.duration";
+
+	/**
+	 * LOCALIZED logs CAL10N messages through a LocLogger; STRUCTURED logs parameterized SLF4J events
+	 * and carries suite, scenario and step in the MDC.
+	 */
+	public enum Logging {
+		LOCALIZED, STRUCTURED
+	}
+
+	protected static final Logger STRUCTURED_LOGGER = LoggerFactory.getLogger(MartiniCallable.class);
+	private static final ConcurrentMap<List<Object>, LocLogger> LOC_LOGGERS = new ConcurrentHashMap<>();
+	private static final LoadingCache<Recipe, String> SCENARIO_IDS =
+		CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(MartiniCallable::formatScenarioId));
 
 	protected final Martini martini;
 
@@ -80,8 +121,14 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 	protected EventManager eventManager;
 	protected ConversionService conversionService;
 	protected Categories categories;
+	protected ParameterConverterFactory converterFactory;
+	protected StepInvokerFactory invokerFactory;
+	protected StepInstrumentation instrumentation;
+	protected MetricRegistry metricRegistry;
 
 	protected LocLogger logger;
+	protected Logging logging = Logging.LOCALIZED;
+	protected Map<String, String> previousContext;
 
 	@Autowired
 	protected void set(SuiteIdentifier i) {
@@ -108,6 +155,31 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 		this.categories = categories;
 	}
 
+	@Autowired(required = false)
+	protected void set(ParameterConverterFactory converterFactory) {
+		this.converterFactory = converterFactory;
+	}
+
+	@Autowired(required = false)
+	protected void set(StepInvokerFactory invokerFactory) {
+		this.invokerFactory = invokerFactory;
+	}
+
+	@Autowired(required = false)
+	protected void set(StepInstrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	@Autowired(required = false)
+	protected void set(MetricRegistry metricRegistry) {
+		this.metricRegistry = metricRegistry;
+	}
+
+	@Autowired(required = false)
+	protected void set(@Value("${" + PROPERTY_LOGGING + ":LOCALIZED}") Logging logging) {
+		this.logging = checkNotNull(logging, "null Logging");
+	}
+
 	public MartiniCallable(Martini martini) {
 		this.martini = checkNotNull(martini, "null Martini");
 	}
@@ -118,16 +190,31 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 		setUpLogger();
 	}
 
+	/**
+	 * Shares one LocLogger per callable type and Locale rather than creating one per callable.
+	 */
 	protected void setUpLogger() {
-		IMessageConveyor messageConveyor = Messages.getMessageConveyor();
-		LocLoggerFactory loggerFactory = new LocLoggerFactory(messageConveyor);
-		logger = loggerFactory.getLocLogger(this.getClass());
+		Class<?> type = this.getClass();
+		Locale locale = LocaleContextHolder.getLocale();
+		logger = LOC_LOGGERS.computeIfAbsent(Arrays.asList(type, locale), key -> {
+			IMessageConveyor messageConveyor = Messages.getMessageConveyor();
+			LocLoggerFactory loggerFactory = new LocLoggerFactory(messageConveyor);
+			return loggerFactory.getLocLogger(type);
+		});
+	}
+
+	protected boolean isStructured() {
+		return Logging.STRUCTURED == logging;
 	}
 
 	@Override
 	public MartiniResult call() {
+		openLoggingContext();
 		logScenario();
 
+		long started = System.nanoTime();
+		recordStarted();
+
 		DefaultMartiniResult result = null;
 		try {
 			Set<String> categorizations = categories.getCategorizations(martini);
@@ -144,6 +231,9 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 			for (Map.Entry<Step, StepImplementation> mapEntry : stepIndex.entrySet()) {
 				assertNotInterrupted();
 				Step step = mapEntry.getKey();
+				if (isStructured()) {
+					putContext(MDC_STEP, step.getText());
+				}
 				eventManager.publishBeforeStep(this, result);
 
 				StepImplementation implementation = mapEntry.getValue();
@@ -162,8 +252,13 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 			}
 		}
 		catch (RuntimeException e) {
-			String stacktrace = Throwables.getStackTraceAsString(e);
-			logger.warn(UNEXPECTED_EXCEPTION, martini, stacktrace);
+			if (isStructured()) {
+				STRUCTURED_LOGGER.warn("unable to execute scenario {}", martini.getId(), e);
+			}
+			else if (logger.isWarnEnabled()) {
+				String stacktrace = Throwables.getStackTraceAsString(e);
+				logger.warn(UNEXPECTED_EXCEPTION, martini, stacktrace);
+			}
 			e.fillInStackTrace();
 			throw e;
 		}
@@ -171,13 +266,85 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 			if (null != result) {
 				eventManager.publishAfterScenario(this, result);
 			}
+			recordCompleted(started, result);
+			closeLoggingContext();
 		}
 
 		return result;
 	}
 
+	protected void recordStarted() {
+		if (null != metricRegistry) {
+			metricRegistry.counter(METRIC_SCENARIOS_STARTED).increment();
+			getActiveScenarios().count.incrementAndGet();
+		}
+	}
+
+	protected void recordCompleted(long started, @Nullable MartiniResult result) {
+		if (null != metricRegistry) {
+			metricRegistry.timer(METRIC_SCENARIO_DURATION).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+			getActiveScenarios().count.decrementAndGet();
+			metricRegistry.counter(METRIC_SCENARIOS_COMPLETED).increment();
+			if (null == result || Status.FAILED == result.getStatus().orElse(null)) {
+				metricRegistry.counter(METRIC_SCENARIOS_FAILED).increment();
+			}
+		}
+	}
+
+	protected ActiveScenarios getActiveScenarios() {
+		return metricRegistry.gauge(METRIC_SCENARIOS_ACTIVE, ActiveScenarios.class, ActiveScenarios::new);
+	}
+
+	protected void openLoggingContext() {
+		if (isStructured()) {
+			previousContext = new HashMap<>();
+			for (String key : Arrays.asList(MDC_SUITE, MDC_SCENARIO, MDC_STEP)) {
+				previousContext.put(key, getContext(key));
+			}
+			putContext(MDC_SUITE, String.valueOf(suiteIdentifier.getId()));
+			putContext(MDC_SCENARIO, martini.getId());
+		}
+	}
+
+	protected void closeLoggingContext() {
+		if (isStructured()) {
+			restoreContext(MDC_STEP);
+			restoreContext(MDC_SCENARIO);
+			restoreContext(MDC_SUITE);
+		}
+	}
+
+	/**
+	 * Puts back the value the key held before this callable ran, such as an enclosing scenario's.
+	 */
+	protected void restoreContext(String key) {
+		String previous = null == previousContext ? null : previousContext.get(key);
+		if (null == previous) {
+			removeContext(key);
+		}
+		else {
+			putContext(key, previous);
+		}
+	}
+
+	@Nullable
+	protected String getContext(String key) {
+		return MDC.get(key);
+	}
+
+	protected void putContext(String key, String value) {
+		MDC.put(key, value);
+	}
+
+	protected void removeContext(String key) {
+		MDC.remove(key);
+	}
+
 	private void logScenario() {
-		if (logger.isInfoEnabled()) {
+		if (isStructured()) {
+			STRUCTURED_LOGGER.info("executing scenario {}", martini.getId());
+		}
+		else if (logger.isInfoEnabled()) {
 			String id = martini.getId();
 			logger.info(STARTING, id);
 		}
@@ -188,19 +355,34 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 
 		DefaultStepResult result = new DefaultStepResult(step, implementation);
 		result.setStartTimestamp(System.currentTimeMillis());
+		result.setStartNanos(System.nanoTime());
 		try {
 			Method method = implementation.getMethod().orElseThrow(() -> {
 				Recipe recipe = martini.getRecipe();
 				UnimplementedStepException exception =
 					UnimplementedStepException.builder().setRecipe(recipe).setStep(step).build();
-				String message = exception.getLocalizedMessage();
-				logger.warn(message);
+				if (isStructured()) {
+					STRUCTURED_LOGGER.warn("unimplemented step {}", step.getText());
+				}
+				else if (logger.isWarnEnabled()) {
+					String message = exception.getLocalizedMessage();
+					logger.warn(message);
+				}
 				return exception;
 			});
 
-			Object bean = getBean(method);
-			Object[] arguments = getArguments(step, method, implementation);
-			Object o = execute(method, bean, arguments);
+			Object o;
+			if (null == invokerFactory) {
+				Object bean = getBean(method);
+				Object[] arguments = getArguments(step, method, implementation);
+				o = execute(method, bean, arguments);
+			}
+			else {
+				StepInvoker invoker = invokerFactory.getInvoker(method);
+				Object bean = invoker.isBound() ? null : getBean(method);
+				Object[] arguments = getArguments(step, method, implementation);
+				o = execute(invoker, bean, arguments);
+			}
 
 			if (o instanceof HttpEntity) {
 				result.add((HttpEntity) o);
@@ -216,13 +398,23 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 			result.setStatus(Status.FAILED);
 		}
 		finally {
+			result.setEndNanos(System.nanoTime());
 			result.setEndTimestamp(System.currentTimeMillis());
 		}
+
+		if (null != instrumentation) {
+			instrumentation.record(result);
+		}
 		return result;
 	}
 
 	private void logStep(Step step) {
-		if (logger.isInfoEnabled()) {
+		if (isStructured()) {
+			if (STRUCTURED_LOGGER.isInfoEnabled()) {
+				STRUCTURED_LOGGER.info("executing step {} {}", step.getKeyword().trim(), step.getText());
+			}
+		}
+		else if (logger.isInfoEnabled()) {
 			String scenarioId = getScenarioId();
 			String keyword = step.getKeyword().trim();
 			String text = step.getText().trim();
@@ -230,8 +422,14 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 		}
 	}
 
-	private String getScenarioId() {
-		Recipe recipe = martini.getRecipe();
+	/**
+	 * @return scenario name and line, formatted once per Recipe
+	 */
+	protected String getScenarioId() {
+		return SCENARIO_IDS.getUnchecked(martini.getRecipe());
+	}
+
+	private static String formatScenarioId(Recipe recipe) {
 		Pickle pickle = recipe.getPickle();
 		String scenarioName = pickle.getName();
 		PickleLocation location = recipe.getLocation();
@@ -240,6 +438,11 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 	}
 
 	protected void logStepResult(StepResult result) {
+		if (isStructured()) {
+			logStructuredStepResult(result);
+			return;
+		}
+
 		result.getStatus().ifPresent(status -> {
 			if (logger.isInfoEnabled()) {
 				String scenarioId = getScenarioId();
@@ -269,45 +472,55 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 		});
 	}
 
+	protected void logStructuredStepResult(StepResult result) {
+		Status status = result.getStatus().orElse(null);
+		Step step = result.getStep();
+		if (Status.PASSED == status) {
+			if (STRUCTURED_LOGGER.isInfoEnabled()) {
+				STRUCTURED_LOGGER.info("step {}: {} {}", status, step.getKeyword().trim(), step.getText());
+			}
+		}
+		else if (Status.FAILED == status) {
+			if (STRUCTURED_LOGGER.isInfoEnabled()) {
+				Exception exception = result.getException().orElse(null);
+				STRUCTURED_LOGGER.info("step {}: {} {}", status, step.getKeyword().trim(), step.getText(), exception);
+			}
+		}
+		else if (null != status && STRUCTURED_LOGGER.isWarnEnabled()) {
+			STRUCTURED_LOGGER.warn("step {}: {} {}", status, step.getKeyword().trim(), step.getText());
+		}
+	}
+
 	protected Object[] getArguments(Step step, Method method, StepImplementation implementation) {
+		ArgumentPlan plan = martini.getArgumentPlan(step).orElse(null);
+		return null == plan ?
+			getUnplannedArguments(step, method, implementation) : getArguments(plan);
+	}
+
+	protected Object[] getArguments(ArgumentPlan plan) {
+		List<Class<?>> parameterTypes = plan.getParameterTypes();
+		List<ParameterConverter> converters = plan.getConverters();
+		List<String> values = plan.getValues();
+
+		Object[] arguments = new Object[parameterTypes.size()];
+		for (int i = 0; i < values.size(); i++) {
+			String value = values.get(i);
+			arguments[i] = converters.isEmpty() ?
+				conversionService.convert(value, parameterTypes.get(i)) : converters.get(i).convert(value);
+		}
+		return arguments;
+	}
+
+	protected Object[] getUnplannedArguments(Step step, Method method, StepImplementation implementation) {
 		Parameter[] parameters = method.getParameters();
 		Object[] arguments = new Object[parameters.length];
 
-		Map<String, String> exampleValues = null;
-
-		Recipe recipe = martini.getRecipe();
-		ScenarioDefinition definition = recipe.getScenarioDefinition();
-		if (definition instanceof ScenarioOutline) {
-			exampleValues = new HashMap<>();
-			ScenarioOutline outline = (ScenarioOutline) definition;
-
-			int exampleLine = recipe.getLocation().getLine();
-
-			List<Examples> examples = outline.getExamples();
-			TableRow header = null;
-			TableRow match = null;
-			for (Iterator<Examples> i = examples.iterator(); null == match && i.hasNext(); ) {
-				Examples nextExamples = i.next();
-				List<TableRow> rows = nextExamples.getTableBody();
-				for (Iterator<TableRow> j = rows.iterator(); null == match && j.hasNext(); ) {
-					TableRow row = j.next();
-					if (row.getLocation().getLine() == exampleLine) {
-						match = row;
-						header = nextExamples.getTableHeader();
-					}
-				}
-			}
+		Map<String, String> exampleValues = ArgumentPlan.getExampleValues(martini.getRecipe(),
+			() -> Messages.getMessage(MISSING_EXAMPLES),
+			() -> Messages.getMessage(INVALID_EXAMPLES_HEADER));
 
-			checkState(null != header, Messages.getMessage(MISSING_EXAMPLES));
-			List<TableCell> headerCells = header.getCells();
-			List<TableCell> rowCells = match.getCells();
-			checkState(headerCells.size() == rowCells.size(), Messages.getMessage(INVALID_EXAMPLES_HEADER));
-			for (int i = 0; i < headerCells.size(); i++) {
-				String headerValue = headerCells.get(i).getValue();
-				String rowValue = rowCells.get(i).getValue();
-				exampleValues.put(headerValue, rowValue);
-			}
-		}
+		List<ParameterConverter> converters = null == converterFactory ?
+			Collections.emptyList() : converterFactory.getConverters(method);
 
 		if (parameters.length > 0) {
 			Matcher matcher = getMatcher(step, implementation);
@@ -318,19 +531,11 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 				Parameter parameter = parameters[i];
 				Class<?> parameterType = parameter.getType();
 
-				Object converted;
-				if (null == exampleValues) {
-					converted = conversionService.convert(parameterAsString, parameterType);
-				}
-				else {
-					Matcher tableMatcher = OUTLINE_PATTERN.matcher(parameterAsString);
-					checkState(tableMatcher.find(), Messages.getMessage(INVALID_EXAMPLES_FORMAT));
-					String key = tableMatcher.group(1);
-					String tableValue = exampleValues.get(key);
-					converted = conversionService.convert(tableValue, parameterType);
-				}
+				String value = null == exampleValues ? parameterAsString : ArgumentPlan.getExampleValue(
+					exampleValues, parameterAsString, () -> Messages.getMessage(INVALID_EXAMPLES_FORMAT));
 
-				arguments[i] = converted;
+				arguments[i] = converters.isEmpty() ?
+					conversionService.convert(value, parameterType) : converters.get(i).convert(value);
 			}
 		}
 		return arguments;
@@ -343,10 +548,15 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 		if (null != pattern) {
 			String text = step.getText();
 			matcher = pattern.matcher(text);
-			checkState(matcher.find(), Messages.getMessage(INVALID_SUBSTITUTION, pattern.pattern(), text));
+			if (!matcher.find()) {
+				throw new IllegalStateException(Messages.getMessage(INVALID_SUBSTITUTION, pattern.pattern(), text));
+			}
 		}
 
-		return checkNotNull(matcher, Messages.getMessage(NO_MATCHER));
+		if (null == matcher) {
+			throw new NullPointerException(Messages.getMessage(NO_MATCHER));
+		}
+		return matcher;
 	}
 
 	protected Object getBean(Method method) {
@@ -374,8 +584,37 @@ public class MartiniCallable implements Callable<MartiniResult>, InitializingBea
 		}
 	}
 
+	protected Object execute(StepInvoker invoker, Object bean, Object[] arguments) throws MartiniException {
+		assertNotInterrupted();
+
+		try {
+			return invoker.invoke(bean, arguments);
+		}
+		catch (MartiniException e) {
+			throw e;
+		}
+		catch (Throwable e) {
+			throw new MartiniException(e, EXECUTION_EXCEPTION);
+		}
+	}
+
 	protected void assertNotInterrupted() {
 		Thread thread = Thread.currentThread();
-		checkState(!thread.isInterrupted(), Messages.getMessage(INTERRUPTED));
+		if (thread.isInterrupted()) {
+			throw new IllegalStateException(Messages.getMessage(INTERRUPTED));
+		}
+	}
+
+	/**
+	 * Number of scenarios running across every MartiniCallable sharing a MetricRegistry.
+	 */
+	protected static class ActiveScenarios implements Gauge {
+
+		protected final AtomicLong count = new AtomicLong();
+
+		@Override
+		public long getValue() {
+			return count.get();
+		}
 	}
 }
@@ -0,0 +1,58 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import guru.qas.martini.Martini;
+
+/**
+ * Decides which pending scenario runs next, holding its gates on its behalf. Not thread safe; callers
+ * synchronize.
+ */
+public interface ScenarioScheduler {
+
+	void add(int id, @Nonnull Martini martini);
+
+	/**
+	 * @return id of a pending scenario now holding all of its gates, or null where none can run
+	 */
+	@Nullable
+	Integer next();
+
+	/**
+	 * Leaves the gates held for a scenario dispatched by next().
+	 */
+	void release(int id);
+
+	/**
+	 * Retries every waiting scenario, for gates that may have been released outside this scheduler.
+	 */
+	void wake();
+
+	/**
+	 * Retries the scenarios waiting on the named gate, released outside this scheduler.
+	 */
+	default void wake(@Nonnull String gateName) {
+		wake();
+	}
+
+	/**
+	 * @return true where no scenario remains to be dispatched
+	 */
+	boolean isEmpty();
+}
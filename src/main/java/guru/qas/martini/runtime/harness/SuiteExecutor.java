@@ -0,0 +1,42 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.result.MartiniResult;
+
+/**
+ * Runs a suite of Martinis, each as a MartiniCallable, between BeforeSuite and AfterSuite events.
+ */
+public interface SuiteExecutor {
+
+	String IMPLEMENTATION_KEY = "martini.suite.executor.implementation";
+	String PROPERTY_CONCURRENCY = "martini.suite.executor.concurrency";
+	String PROPERTY_VIRTUAL_THREADS = "martini.suite.executor.virtual.threads";
+	String PROPERTY_TERMINATION_TIMEOUT = "martini.suite.executor.termination.timeout";
+
+	/**
+	 * @return results of the scenarios that ran to completion, in the order the Martinis were given
+	 * @throws InterruptedException if interrupted while waiting, after interrupting running scenarios and
+	 *                              waiting up to PROPERTY_TERMINATION_TIMEOUT seconds for them to stop
+	 */
+	List<MartiniResult> execute(@Nonnull Collection<Martini> martinis) throws InterruptedException;
+}
@@ -0,0 +1,132 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.instrumentation;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.result.StepResult;
+import guru.qas.martini.step.StepImplementation;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Keeps a LatencyHistogram per StepImplementation and logs the steps dominating execution time after
+ * each suite. Histograms accumulate across suites until reset. MartiniCallable records into whichever
+ * StepInstrumentation bean is present and skips timing when there is none.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultStepInstrumentation implements StepInstrumentation, EnvironmentAware, InitializingBean {
+
+	public static final String PROPERTY_REPORT_LIMIT = "martini.step.instrumentation.report.limit";
+
+	protected final ConcurrentMap<StepImplementation, LatencyHistogram> histograms;
+	protected final Logger logger;
+
+	protected Environment environment;
+	protected int reportLimit;
+
+	public DefaultStepInstrumentation() {
+		histograms = new ConcurrentHashMap<>();
+		logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void setEnvironment(@Nonnull Environment environment) {
+		this.environment = checkNotNull(environment, "null Environment");
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		reportLimit = null == environment ? 20 : environment.getProperty(PROPERTY_REPORT_LIMIT, int.class, 20);
+		checkState(reportLimit >= 0, "invalid %s setting %s, must not be negative", PROPERTY_REPORT_LIMIT, reportLimit);
+	}
+
+	@Override
+	public void record(StepResult result) {
+		checkNotNull(result, "null StepResult");
+		StepImplementation implementation = result.getStepImplementation();
+		Long nanos = result.getExecutionTime(TimeUnit.NANOSECONDS).orElse(null);
+		if (null != implementation && null != nanos) {
+			getHistogram(implementation).record(Math.max(0, nanos));
+		}
+	}
+
+	protected LatencyHistogram getHistogram(StepImplementation implementation) {
+		LatencyHistogram histogram = histograms.get(implementation);
+		return null == histogram ? histograms.computeIfAbsent(implementation, key -> new LatencyHistogram()) : histogram;
+	}
+
+	@Override
+	public List<StepProfile> getProfiles() {
+		return histograms.entrySet().stream()
+			.map(entry -> new StepProfile(entry.getKey(), entry.getValue()))
+			.filter(profile -> profile.getCount() > 0)
+			.sorted(Comparator.comparingLong(StepProfile::getTotal).reversed())
+			.collect(Collectors.toList());
+	}
+
+	@Override
+	public void reset() {
+		histograms.values().forEach(LatencyHistogram::reset);
+	}
+
+	@EventListener
+	public void handle(@SuppressWarnings("unused") AfterSuiteEvent event) {
+		if (logger.isInfoEnabled() && reportLimit > 0) {
+			report();
+		}
+	}
+
+	protected void report() {
+		List<StepProfile> profiles = getProfiles();
+		long total = profiles.stream().mapToLong(StepProfile::getTotal).sum();
+		long executions = profiles.stream().mapToLong(StepProfile::getCount).sum();
+
+		StringBuilder builder = new StringBuilder(String.format(
+			"step timings: %d executions of %d step implementations, %.3f ms total; top %d by total time%n",
+			executions, profiles.size(), total / 1e6, Math.min(reportLimit, profiles.size())));
+		builder.append(String.format("%12s %6s %8s %12s %12s %12s %12s  %s%n",
+			"total ms", "share", "count", "mean us", "p50 us", "p99 us", "max us", "step"));
+		profiles.stream().limit(reportLimit).forEach(profile -> builder.append(String.format(
+			"%12.3f %5.1f%% %8d %12.1f %12.1f %12.1f %12.1f  %s%n",
+			profile.getTotal() / 1e6,
+			0 == total ? 0 : 100.0 * profile.getTotal() / total,
+			profile.getCount(),
+			profile.getMean() / 1e3,
+			profile.getP50() / 1e3,
+			profile.getP99() / 1e3,
+			profile.getMax() / 1e3,
+			profile.getName())));
+		logger.info(builder.toString().trim());
+	}
+}
@@ -0,0 +1,138 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Lock-free log-linear histogram of non-negative values, in the style of HdrHistogram.
+ * <p>
+ * Values below SUB_BUCKET_COUNT are counted exactly; larger values share a bucket with values whose five
+ * most significant bits match, bounding the reported error at about 3% of the value. Recording is a single
+ * atomic increment plus uncontended adder updates, so any number of threads may record concurrently while
+ * another reads.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LatencyHistogram {
+
+	protected static final int SUB_BUCKET_BITS = 5;
+	protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	protected static final int BUCKET_COUNT = SUB_BUCKET_COUNT * (Long.SIZE - SUB_BUCKET_BITS);
+
+	protected final AtomicLongArray counts;
+	protected final LongAdder count;
+	protected final LongAdder total;
+	protected final LongAccumulator min;
+	protected final LongAccumulator max;
+
+	public LatencyHistogram() {
+		counts = new AtomicLongArray(BUCKET_COUNT);
+		count = new LongAdder();
+		total = new LongAdder();
+		min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+		max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+	}
+
+	public void record(long value) {
+		checkArgument(value >= 0, "negative value %s", value);
+		counts.incrementAndGet(getIndex(value));
+		count.increment();
+		total.add(value);
+		min.accumulate(value);
+		max.accumulate(value);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getTotal() {
+		return total.sum();
+	}
+
+	public long getMin() {
+		return 0 == getCount() ? 0 : min.get();
+	}
+
+	public long getMax() {
+		return 0 == getCount() ? 0 : max.get();
+	}
+
+	public double getMean() {
+		long n = getCount();
+		return 0 == n ? 0 : (double) getTotal() / n;
+	}
+
+	/**
+	 * Returns the highest value equivalent to the value at the given percentile, clamped to the recorded max.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		checkArgument(percentile >= 0 && percentile <= 100, "percentile out of range: %s", percentile);
+
+		long[] snapshot = new long[BUCKET_COUNT];
+		long n = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = counts.get(i);
+			n += snapshot[i];
+		}
+		if (0 == n) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(getHighestEquivalentValue(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		total.reset();
+		min.reset();
+		max.reset();
+	}
+
+	protected static int getIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		long top = value >>> shift;
+		return (int) (SUB_BUCKET_COUNT * shift + top);
+	}
+
+	protected static long getHighestEquivalentValue(int index) {
+		if (index < 2 * SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long top = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		long upper = ((top + 1) << shift) - 1;
+		return upper < 0 ? Long.MAX_VALUE : upper;
+	}
+}
@@ -0,0 +1,35 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.instrumentation;
+
+import java.util.List;
+
+import guru.qas.martini.result.StepResult;
+
+/**
+ * Aggregates step execution times per StepImplementation.
+ */
+public interface StepInstrumentation {
+
+	void record(StepResult result);
+
+	/**
+	 * @return one profile per recorded StepImplementation, by descending total execution time
+	 */
+	List<StepProfile> getProfiles();
+
+	void reset();
+}
@@ -0,0 +1,99 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.instrumentation;
+
+import java.lang.reflect.Method;
+import java.util.regex.Pattern;
+
+import guru.qas.martini.step.StepImplementation;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Point-in-time timing summary for a single StepImplementation; times are in nanoseconds.
+ */
+@SuppressWarnings("WeakerAccess")
+public class StepProfile {
+
+	protected final StepImplementation implementation;
+	protected final long count;
+	protected final long total;
+	protected final long min;
+	protected final long max;
+	protected final long p50;
+	protected final long p90;
+	protected final long p99;
+
+	public StepImplementation getStepImplementation() {
+		return implementation;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return 0 == count ? 0 : (double) total / count;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public long getP90() {
+		return p90;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public StepProfile(StepImplementation implementation, LatencyHistogram histogram) {
+		this.implementation = checkNotNull(implementation, "null StepImplementation");
+		checkNotNull(histogram, "null LatencyHistogram");
+		this.count = histogram.getCount();
+		this.total = histogram.getTotal();
+		this.min = histogram.getMin();
+		this.max = histogram.getMax();
+		this.p50 = histogram.getValueAtPercentile(50);
+		this.p90 = histogram.getValueAtPercentile(90);
+		this.p99 = histogram.getValueAtPercentile(99);
+	}
+
+	/**
+	 * @return declaring class and method name, or keyword where there is no method, followed by the pattern
+	 */
+	public String getName() {
+		String pattern = implementation.getPattern().map(Pattern::pattern).orElse("");
+		Method method = implementation.getMethod().orElse(null);
+		String prefix = null == method ?
+			implementation.getKeyword() :
+			String.format("%s.%s", method.getDeclaringClass().getSimpleName(), method.getName());
+		return String.format("%s %s", prefix, pattern).trim();
+	}
+}
@@ -0,0 +1,162 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.scope;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Configurable;
+
+import guru.qas.martini.result.MartiniResult;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * MartiniScenarioScope keyed by the id of the scenario's MartiniResult rather than by Thread.
+ * <p>
+ * The scenario is carried in a ThreadLocal handle set by setScenarioIdentifier. Work handed to other
+ * threads, virtual or otherwise, joins the scenario's conversation when submitted through wrap() or
+ * getExecutor(); scoped beans are then shared by every thread working on the scenario.
+ * Threads without a handle fall back to a conversation of their own.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class ConversationMartiniScenarioScope extends IndexedMartiniScenarioScope {
+
+	protected final ThreadLocal<MartiniResult> handle;
+
+	public ConversationMartiniScenarioScope() {
+		super();
+		handle = new ThreadLocal<>();
+	}
+
+	@Override
+	public void setScenarioIdentifier(@Nullable MartiniResult result) {
+		super.setScenarioIdentifier(result);
+		if (null == result) {
+			handle.remove();
+		}
+		else {
+			handle.set(result);
+		}
+	}
+
+	@Override
+	public Optional<MartiniResult> getMartiniResult() {
+		return Optional.ofNullable(handle.get());
+	}
+
+	@Override
+	protected Object getConversationKey() {
+		MartiniResult result = handle.get();
+		return null == result ? Thread.currentThread() : result.getId();
+	}
+
+	@Override
+	protected Object getConversationKey(Thread thread) {
+		MartiniResult result = Thread.currentThread().equals(thread) ? handle.get() : resultIndex.get(thread);
+		return null == result ? thread : result.getId();
+	}
+
+	@Override
+	protected Conversation createConversation() {
+		return new SharedConversation();
+	}
+
+	@Override
+	public void clear(Thread thread) {
+		super.clear(thread);
+		if (Thread.currentThread().equals(thread)) {
+			handle.remove();
+		}
+	}
+
+	/**
+	 * @return task running within the calling thread's scenario conversation
+	 */
+	public Runnable wrap(@Nonnull Runnable runnable) {
+		checkNotNull(runnable, "null Runnable");
+		MartiniResult result = handle.get();
+		return () -> {
+			MartiniResult previous = handle.get();
+			handle.set(result);
+			try {
+				runnable.run();
+			}
+			finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * @return task running within the calling thread's scenario conversation
+	 */
+	public <T> Callable<T> wrap(@Nonnull Callable<T> callable) {
+		checkNotNull(callable, "null Callable");
+		MartiniResult result = handle.get();
+		return () -> {
+			MartiniResult previous = handle.get();
+			handle.set(result);
+			try {
+				return callable.call();
+			}
+			finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * @return Executor propagating the submitting thread's scenario conversation to its tasks
+	 */
+	public Executor getExecutor(@Nonnull Executor executor) {
+		checkNotNull(executor, "null Executor");
+		return command -> executor.execute(wrap(command));
+	}
+
+	protected void restore(@Nullable MartiniResult previous) {
+		if (null == previous) {
+			handle.remove();
+		}
+		else {
+			handle.set(previous);
+		}
+	}
+
+	/**
+	 * Conversation shared by the threads working on a scenario; each bean is created once however many
+	 * threads ask for it, while lookups of existing beans do not lock.
+	 */
+	protected static class SharedConversation extends Conversation {
+
+		@Override
+		protected Scoped get(String name, ObjectFactory<?> objectFactory) {
+			Scoped scoped = getBean(name);
+			if (null == scoped) {
+				synchronized (this) {
+					scoped = super.get(name, objectFactory);
+				}
+			}
+			return scoped;
+		}
+	}
+}
@@ -30,12 +30,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Configurable;
 import org.springframework.context.SmartLifecycle;
 
 import guru.qas.martini.Martini;
 import guru.qas.martini.event.SuiteIdentifier;
 import guru.qas.martini.gherkin.Recipe;
+import guru.qas.martini.metrics.MetricRegistry;
 import guru.qas.martini.result.MartiniResult;
 
 import static com.google.common.base.Preconditions.*;
@@ -44,6 +46,9 @@ import static com.google.common.base.Preconditions.*;
 @Configurable
 public class DefaultMartiniScenarioScope implements MartiniScenarioScope, SmartLifecycle {
 
+	public static final String METRIC_BEANS = "scope.beans";
+	public static final String METRIC_CONVERSATIONS = "scope.conversations";
+
 	protected final Logger logger;
 	protected final AtomicBoolean running;
 
@@ -57,6 +62,12 @@ public class DefaultMartiniScenarioScope implements MartiniScenarioScope, SmartL
 		resultIndex = new ConcurrentHashMap<>();
 	}
 
+	@Autowired(required = false)
+	protected void setMetricRegistry(MetricRegistry registry) {
+		registry.gauge(METRIC_BEANS, this::getScopedBeanCount);
+		registry.gauge(METRIC_CONVERSATIONS, this::getConversationCount);
+	}
+
 	@Override
 	public synchronized void start() {
 		if (running.compareAndSet(false, true)) {
@@ -134,6 +145,23 @@ public class DefaultMartiniScenarioScope implements MartiniScenarioScope, SmartL
 		return scoped.getObject();
 	}
 
+	/**
+	 * @return number of scoped beans held across all threads; approximate while scenarios are running
+	 */
+	public long getScopedBeanCount() {
+		long count = 0;
+		for (Stack<Scoped> scoped : scopeIndex.values()) {
+			synchronized (scoped) {
+				count += scoped.stream().filter(Scoped::isBean).count();
+			}
+		}
+		return count;
+	}
+
+	public long getConversationCount() {
+		return scopeIndex.size();
+	}
+
 	protected Stack<Scoped> getScoped() {
 		Thread thread = Thread.currentThread();
 		return scopeIndex.computeIfAbsent(thread, t -> new Stack<>());
@@ -0,0 +1,257 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.scope;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Configurable;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * MartiniScenarioScope indexing each thread's scoped beans and destruction callbacks by name.
+ * Lookups by the thread running a scenario do not lock; changes to a Conversation are synchronized, as
+ * clear(Thread) and stop() clear conversations from other threads. Those first remove the Conversation
+ * from the index, so a thread still working on it starts a new one. Entries are cleared in reverse order
+ * of registration.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class IndexedMartiniScenarioScope extends DefaultMartiniScenarioScope {
+
+	protected final ConcurrentMap<Object, Conversation> conversationIndex;
+
+	public IndexedMartiniScenarioScope() {
+		super();
+		conversationIndex = new ConcurrentHashMap<>();
+	}
+
+	@Override
+	public synchronized void start() {
+		if (running.compareAndSet(false, true)) {
+			conversationIndex.clear();
+		}
+	}
+
+	@Override
+	@Nonnull
+	public Object get(@Nonnull String name, @Nonnull ObjectFactory<?> objectFactory) {
+		checkNotNull(name, "null String");
+		checkNotNull(objectFactory, "null ObjectFactory");
+
+		Scoped scoped = getConversation().get(name, objectFactory);
+		return scoped.getObject();
+	}
+
+	@Override
+	public long getScopedBeanCount() {
+		return conversationIndex.values().stream().mapToLong(conversation -> conversation.beanCount.get()).sum();
+	}
+
+	@Override
+	public long getConversationCount() {
+		return conversationIndex.size();
+	}
+
+	protected Conversation getConversation() {
+		Object key = getConversationKey();
+		Conversation conversation = conversationIndex.get(key);
+		return null == conversation ? conversationIndex.computeIfAbsent(key, k -> createConversation()) : conversation;
+	}
+
+	/**
+	 * @return key of the Conversation in use by the calling thread
+	 */
+	protected Object getConversationKey() {
+		return Thread.currentThread();
+	}
+
+	/**
+	 * @return key of the Conversation last used by the given thread
+	 */
+	protected Object getConversationKey(Thread thread) {
+		return thread;
+	}
+
+	protected Conversation createConversation() {
+		return new Conversation();
+	}
+
+	@Override
+	protected Optional<Scoped> getWrappedBean(String name) {
+		checkNotNull(name, "null String");
+		return Optional.ofNullable(getConversation().getBean(name));
+	}
+
+	@Override
+	public void registerDestructionCallback(@Nonnull String name, @Nonnull Runnable callback) {
+		checkNotNull(name, "null String");
+		checkNotNull(callback, "null Runnable");
+
+		Conversation conversation = getConversation();
+		if (null != conversation.getCallback(name)) {
+			remove(name);
+		}
+		Scoped wrapped = Scoped.destructionCallback(name, callback);
+		conversation.add(wrapped);
+	}
+
+	@Override
+	protected Optional<Scoped> getDestructionCallback(String name) {
+		checkNotNull(name, "null String");
+		return Optional.ofNullable(getConversation().getCallback(name));
+	}
+
+	@Override
+	@Nullable
+	protected Object dispose(String name) {
+		Conversation conversation = getConversation();
+		Scoped wrapped = conversation.getBean(name);
+		if (null != wrapped && conversation.remove(wrapped)) {
+			dispose(wrapped);
+		}
+		return null == wrapped ? null : wrapped.getObject();
+	}
+
+	@Override
+	protected void destroy(@Nonnull String name) {
+		checkNotNull(name, "null String");
+		Conversation conversation = getConversation();
+		Scoped wrapped = conversation.getCallback(name);
+		if (null != wrapped && conversation.remove(wrapped)) {
+			destroy(wrapped);
+		}
+	}
+
+	@Override
+	public void clear(Thread thread) {
+		checkNotNull(thread, "null Thread");
+		Conversation conversation = conversationIndex.remove(getConversationKey(thread));
+		if (null != conversation) {
+			clear(conversation);
+			closeConversation(thread);
+		}
+	}
+
+	protected void clear(Conversation conversation) {
+		List<Scoped> registered = conversation.getRegistered();
+		for (int i = registered.size() - 1; i >= 0; i--) {
+			Scoped scoped = registered.get(i);
+			// Skips entries already removed by an earlier destruction callback.
+			if (conversation.remove(scoped)) {
+				if (scoped.isBean()) {
+					dispose(scoped);
+				}
+				else if (scoped.isDestructionCallback()) {
+					destroy(scoped);
+				}
+			}
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (running.compareAndSet(true, false)) {
+			for (Object key : conversationIndex.keySet()) {
+				Conversation conversation = conversationIndex.remove(key);
+				if (null != conversation) {
+					clear(conversation);
+				}
+			}
+			resultIndex.clear();
+		}
+	}
+
+	protected static class Conversation {
+
+		protected final Map<String, Scoped> beans;
+		protected final Map<String, Scoped> callbacks;
+		protected final Set<Scoped> order;
+		protected final AtomicInteger beanCount;
+
+		protected Conversation() {
+			this.beans = new ConcurrentHashMap<>();
+			this.callbacks = new ConcurrentHashMap<>();
+			this.order = new LinkedHashSet<>();
+			this.beanCount = new AtomicInteger();
+		}
+
+		protected Scoped get(String name, ObjectFactory<?> objectFactory) {
+			Scoped scoped = getBean(name);
+			if (null == scoped) {
+				Object bean = objectFactory.getObject();
+				scoped = Scoped.bean(name, bean);
+				add(scoped);
+			}
+			return scoped;
+		}
+
+		@Nullable
+		protected Scoped getBean(String name) {
+			return beans.get(name);
+		}
+
+		@Nullable
+		protected Scoped getCallback(String name) {
+			return callbacks.get(name);
+		}
+
+		protected synchronized List<Scoped> getRegistered() {
+			return new ArrayList<>(order);
+		}
+
+		protected synchronized void add(Scoped scoped) {
+			Scoped previous = getIndex(scoped).put(scoped.getName(), scoped);
+			if (null != previous) {
+				order.remove(previous);
+			}
+			else if (scoped.isBean()) {
+				beanCount.incrementAndGet();
+			}
+			order.add(scoped);
+		}
+
+		protected synchronized boolean remove(Scoped scoped) {
+			// Scoped equality is by name, so a stale entry must not remove its replacement.
+			Map<String, Scoped> index = getIndex(scoped);
+			boolean removed = scoped == index.get(scoped.getName());
+			if (removed) {
+				index.remove(scoped.getName());
+				order.remove(scoped);
+				if (scoped.isBean()) {
+					beanCount.decrementAndGet();
+				}
+			}
+			return removed;
+		}
+
+		protected Map<String, Scoped> getIndex(Scoped scoped) {
+			return scoped.isBean() ? beans : callbacks;
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+import org.springframework.context.ApplicationListener;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import gherkin.ast.Step;
+import guru.qas.martini.event.StepImplementationRegisteredEvent;
+import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.step.StepImplementationResolver;
+import guru.qas.martini.step.exception.AmbiguousStepException;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * StepImplementationResolver remembering resolutions by trimmed keyword and step text. Scenario Outline steps
+ * are resolved by their template text, so every Examples row shares a single entry. Ambiguous resolutions are
+ * never cached, and all entries are discarded whenever a new StepImplementation is registered.
+ */
+@SuppressWarnings("WeakerAccess")
+public class CachingStepImplementationResolver
+	implements StepImplementationResolver, ApplicationListener<StepImplementationRegisteredEvent> {
+
+	public static final String PROPERTY_MAXIMUM_SIZE = "martini.step.implementation.resolver.cache.size";
+	public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	protected final StepImplementationResolver delegate;
+	protected final Cache<Key, StepImplementation> cache;
+
+	public CachingStepImplementationResolver(StepImplementationResolver delegate, long maximumSize) {
+		this.delegate = checkNotNull(delegate, "null StepImplementationResolver");
+		checkArgument(maximumSize > 0, "maximum size must be positive: %s", maximumSize);
+		this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+	}
+
+	@Override
+	public StepImplementation getImplementation(@Nonnull Step step) throws AmbiguousStepException {
+		checkNotNull(step, "null Step");
+		Key key = new Key(step);
+		StepImplementation implementation = cache.getIfPresent(key);
+		if (null == implementation) {
+			implementation = delegate.getImplementation(step);
+			cache.put(key, implementation);
+		}
+		return implementation;
+	}
+
+	@Override
+	public void onApplicationEvent(@Nonnull StepImplementationRegisteredEvent event) {
+		invalidate();
+	}
+
+	public void invalidate() {
+		cache.invalidateAll();
+	}
+
+	public CacheStats getStats() {
+		return cache.stats();
+	}
+
+	protected static final class Key {
+
+		private final String keyword;
+		private final String text;
+		private final int hashCode;
+
+		protected Key(Step step) {
+			String keyword = step.getKeyword();
+			this.keyword = null == keyword ? null : keyword.trim();
+			this.text = step.getText();
+			this.hashCode = Objects.hash(this.keyword, text);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key that = (Key) o;
+			return hashCode == that.hashCode && Objects.equals(keyword, that.keyword) && Objects.equals(text, that.text);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+Copyright 2017-2018 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.event.StepImplementationRegisteredEvent;
+import guru.qas.martini.index.MartiniIndex;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Refreshes the MartiniFactory catalog and the MartiniIndex built over it as a StepImplementation is
+ * registered, since Martinis built earlier may have resolved their steps differently. Only instances
+ * already created are refreshed; a registration never forces a catalog to be built.
+ */
+@Component
+public class CatalogRefreshListener {
+
+	private final ConfigurableListableBeanFactory beanFactory;
+
+	@Autowired
+	public CatalogRefreshListener(ConfigurableListableBeanFactory beanFactory) {
+		this.beanFactory = checkNotNull(beanFactory, "null ConfigurableListableBeanFactory");
+	}
+
+	@EventListener
+	public void handle(@SuppressWarnings("unused") StepImplementationRegisteredEvent event) {
+		for (String name : beanFactory.getBeanNamesForType(MartiniFactory.class, false, false)) {
+			if (beanFactory.containsSingleton(name)) {
+				beanFactory.getBean(name, MartiniFactory.class).refresh();
+			}
+		}
+		for (String name : beanFactory.getBeanNamesForType(MartiniIndex.class, false, false)) {
+			if (beanFactory.containsSingleton(name)) {
+				beanFactory.getBean(name, MartiniIndex.class).refresh();
+			}
+		}
+	}
+}
@@ -25,8 +25,7 @@ import javax.annotation.Nonnull;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
-import org.springframework.context.annotation.Lazy;
-import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Configurable;
 
 import com.google.common.collect.Iterables;
 
@@ -39,11 +38,10 @@ import guru.qas.martini.step.StepImplementation;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 @SuppressWarnings("WeakerAccess")
-@Lazy
-@Component
+@Configurable
 public class DefaultStepImplementationResolver implements StepImplementationResolver, ApplicationContextAware {
 
-	private ApplicationContext applicationContext;
+	protected ApplicationContext applicationContext;
 
 	@Override
 	public void setApplicationContext(@Nonnull ApplicationContext applicationContext) throws BeansException {
@@ -0,0 +1,265 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+import org.springframework.beans.factory.annotation.Configurable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import gherkin.ast.Step;
+import guru.qas.martini.step.DefaultStepImplementation;
+import guru.qas.martini.step.StepImplementation;
+
+/**
+ * StepImplementationResolver bucketing DefaultStepImplementation beans by keyword and by the literal text
+ * anchoring their regular expressions, so only a handful of candidates are evaluated against each Step.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class IndexedStepImplementationResolver extends DefaultStepImplementationResolver {
+
+	protected static final String METACHARACTERS = "[](){}.*+?^$|";
+	protected static final String QUANTIFIERS = "?*+{";
+
+	protected volatile Index index;
+
+	@Override
+	protected Collection<StepImplementation> getMatches(Step step) {
+		return getIndex().getCandidates(step).stream()
+			.filter(i -> i.isMatch(step))
+			.collect(Collectors.toList());
+	}
+
+	protected Index getIndex() {
+		int count = applicationContext.getBeanNamesForType(StepImplementation.class, false, false).length;
+		Index snapshot = index;
+		if (null == snapshot || snapshot.size != count) {
+			synchronized (this) {
+				snapshot = index;
+				if (null == snapshot || snapshot.size != count) {
+					Map<String, StepImplementation> beans =
+						applicationContext.getBeansOfType(StepImplementation.class, false, false);
+					snapshot = new Index(beans.values());
+					index = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns the literal text every match of the pattern must begin with, or null where the pattern
+	 * is not anchored, carries flags or alternates at the top level.
+	 */
+	@Nullable
+	protected static String getLiteralPrefix(Pattern pattern) {
+		String regex = pattern.pattern();
+		if (0 != pattern.flags() || !regex.startsWith("^") || isAlternating(regex)) {
+			return null;
+		}
+
+		StringBuilder literal = new StringBuilder();
+		int length = regex.length();
+		int i = 1;
+		while (i < length) {
+			char c = regex.charAt(i);
+			char literalCharacter;
+			int next;
+			if ('\\' == c) {
+				if (i + 1 >= length || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+					break;
+				}
+				literalCharacter = regex.charAt(i + 1);
+				next = i + 2;
+			}
+			else if (METACHARACTERS.indexOf(c) >= 0) {
+				break;
+			}
+			else {
+				literalCharacter = c;
+				next = i + 1;
+			}
+
+			if (next < length && QUANTIFIERS.indexOf(regex.charAt(next)) >= 0) {
+				break;
+			}
+			literal.append(literalCharacter);
+			i = next;
+		}
+		return literal.toString();
+	}
+
+	protected static boolean isAlternating(String regex) {
+		int groupDepth = 0;
+		int classDepth = 0;
+		int length = regex.length();
+		for (int i = 0; i < length; i++) {
+			char c = regex.charAt(i);
+			if ('\\' == c) {
+				if (i + 1 < length && 'Q' == regex.charAt(i + 1)) {
+					int end = regex.indexOf("\\E", i + 2);
+					i = -1 == end ? length : end + 1;
+				}
+				else {
+					i++;
+				}
+			}
+			else if ('[' == c) {
+				classDepth++;
+			}
+			else if (']' == c && classDepth > 0) {
+				classDepth--;
+			}
+			else if (0 == classDepth && '(' == c) {
+				groupDepth++;
+			}
+			else if (0 == classDepth && ')' == c) {
+				groupDepth--;
+			}
+			else if (0 == classDepth && 0 == groupDepth && '|' == c) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected static String getLeadingToken(String text) {
+		int length = text.length();
+		int i = 0;
+		while (i < length && !Character.isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		return text.substring(0, i);
+	}
+
+	protected static class Entry {
+
+		protected final int ordinal;
+		protected final String prefix;
+		protected final StepImplementation implementation;
+
+		protected Entry(int ordinal, @Nullable String prefix, StepImplementation implementation) {
+			this.ordinal = ordinal;
+			this.prefix = prefix;
+			this.implementation = implementation;
+		}
+
+		protected boolean isCandidate(String text) {
+			return null == prefix || text.startsWith(prefix);
+		}
+	}
+
+	protected static class Bucket {
+
+		protected final Map<String, List<Entry>> tokenIndex;
+		protected final List<Entry> scanned;
+
+		protected Bucket() {
+			tokenIndex = new HashMap<>();
+			scanned = new ArrayList<>();
+		}
+
+		protected void add(Entry entry) {
+			String prefix = entry.prefix;
+			int whitespace = null == prefix ? -1 : indexOfWhitespace(prefix);
+			if (whitespace < 0) {
+				scanned.add(entry);
+			}
+			else {
+				String token = prefix.substring(0, whitespace);
+				tokenIndex.computeIfAbsent(token, key -> new ArrayList<>()).add(entry);
+			}
+		}
+
+		protected void addCandidates(String text, List<Entry> candidates) {
+			List<Entry> tokenEntries = tokenIndex.get(getLeadingToken(text));
+			if (null != tokenEntries) {
+				tokenEntries.stream().filter(e -> e.isCandidate(text)).forEach(candidates::add);
+			}
+			scanned.stream().filter(e -> e.isCandidate(text)).forEach(candidates::add);
+		}
+
+		protected static int indexOfWhitespace(String prefix) {
+			for (int i = 0; i < prefix.length(); i++) {
+				if (Character.isWhitespace(prefix.charAt(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	protected static class Index {
+
+		protected final int size;
+		protected final ImmutableMap<String, Bucket> keywordIndex;
+		protected final ImmutableList<Entry> unindexed;
+
+		protected Index(Collection<StepImplementation> implementations) {
+			this.size = implementations.size();
+
+			Map<String, Bucket> keywordIndex = new HashMap<>();
+			ImmutableList.Builder<Entry> unindexed = ImmutableList.builder();
+
+			int ordinal = 0;
+			for (StepImplementation implementation : implementations) {
+				int current = ordinal++;
+				if (DefaultStepImplementation.class.equals(implementation.getClass())) {
+					// Implementations without a method or pattern never match and may be left out.
+					if (implementation.getMethod().isPresent() && implementation.getPattern().isPresent()) {
+						String prefix = getLiteralPrefix(implementation.getPattern().get());
+						Entry entry = new Entry(current, prefix, implementation);
+						keywordIndex.computeIfAbsent(implementation.getKeyword(), k -> new Bucket()).add(entry);
+					}
+				}
+				else {
+					unindexed.add(new Entry(current, null, implementation));
+				}
+			}
+			this.keywordIndex = ImmutableMap.copyOf(keywordIndex);
+			this.unindexed = unindexed.build();
+		}
+
+		protected List<StepImplementation> getCandidates(Step step) {
+			List<Entry> candidates = new ArrayList<>(unindexed);
+
+			String keyword = step.getKeyword();
+			Bucket bucket = null == keyword ? null : keywordIndex.get(keyword.trim());
+			String text = step.getText();
+			if (null != bucket && null != text) {
+				bucket.addCandidates(text, candidates);
+			}
+
+			if (candidates.size() > 1) {
+				candidates.sort(Comparator.comparingInt(e -> e.ordinal));
+			}
+			return candidates.stream().map(e -> e.implementation).collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+Copyright 2017-2018 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.step.invoker.StepInvokerFactory;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Creates the StepInvoker of every registered StepImplementation once the context is refreshed, so the
+ * first execution of a step does not pay for building its MethodHandle or binding its bean.
+ */
+@Component
+public class StepInvokerBinder {
+
+	private final ApplicationContext applicationContext;
+
+	@Autowired
+	public StepInvokerBinder(ApplicationContext applicationContext) {
+		this.applicationContext = checkNotNull(applicationContext, "null ApplicationContext");
+	}
+
+	@EventListener
+	public void handle(ContextRefreshedEvent event) {
+		if (applicationContext.equals(event.getApplicationContext())) {
+			applicationContext.getBeanProvider(StepInvokerFactory.class).ifAvailable(factory ->
+				applicationContext.getBeansOfType(StepImplementation.class, false, false).values()
+					.forEach(implementation -> implementation.getMethod().ifPresent(factory::getInvoker)));
+		}
+	}
+}
@@ -16,6 +16,8 @@ limitations under the License.
 
 package guru.qas.martini.spring.configuration;
 
+import java.nio.file.Paths;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
@@ -23,6 +25,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 
+import guru.qas.martini.gherkin.CachingMixology;
 import guru.qas.martini.gherkin.DefaultGherkinResourceLoader;
 import guru.qas.martini.gherkin.DefaultMixology;
 import guru.qas.martini.gherkin.GherkinResourceLoader;
@@ -50,9 +53,12 @@ class GherkinConfiguration {
 
 	@Bean
 	Mixology getMixology(
-		@Value("${martini.mixology:#{null}}") Class<? extends Mixology> impl
+		@Value("${martini.mixology:#{null}}") Class<? extends Mixology> impl,
+		@Value("${" + CachingMixology.PROPERTY_CACHE_FILE + ":#{null}}") String cacheFile
 	) {
-		return null == impl ?
+		Mixology mixology = null == impl ?
 			beanFactory.createBean(DefaultMixology.class) : beanFactory.createBean(impl);
+		return null == cacheFile || cacheFile.trim().isEmpty() ?
+			mixology : new CachingMixology(mixology, Paths.get(cacheFile.trim()));
 	}
 }
@@ -27,12 +27,14 @@ import org.springframework.context.annotation.Lazy;
 
 import guru.qas.martini.runtime.event.json.DefaultFeatureSerializer;
 import guru.qas.martini.runtime.event.json.DefaultHostSerializer;
+import guru.qas.martini.runtime.event.json.DefaultJsonRecordWriter;
 import guru.qas.martini.runtime.event.json.DefaultMartiniResultSerializer;
 import guru.qas.martini.runtime.event.json.DefaultStepImplementationSerializer;
 import guru.qas.martini.runtime.event.json.DefaultStepResultSerializer;
 import guru.qas.martini.runtime.event.json.DefaultSuiteIdentifierSerializer;
 import guru.qas.martini.runtime.event.json.FeatureSerializer;
 import guru.qas.martini.runtime.event.json.HostSerializer;
+import guru.qas.martini.runtime.event.json.JsonRecordWriter;
 import guru.qas.martini.runtime.event.json.MartiniResultSerializer;
 import guru.qas.martini.runtime.event.json.StepImplementationSerializer;
 import guru.qas.martini.runtime.event.json.StepResultSerializer;
@@ -107,4 +109,13 @@ public class JsonMarshallerConfiguration implements BeanFactoryAware {
 			beanFactory.createBean(DefaultStepImplementationSerializer.class) :
 			beanFactory.createBean(impl);
 	}
+
+	@Bean
+	JsonRecordWriter getJsonRecordWriter(
+		@Value("${json.record.writer.impl:#{null}}") Class<? extends JsonRecordWriter> impl
+	) {
+		return null == impl ?
+			beanFactory.createBean(DefaultJsonRecordWriter.class) :
+			beanFactory.createBean(impl);
+	}
 }
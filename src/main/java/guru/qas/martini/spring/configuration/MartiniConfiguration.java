@@ -38,11 +38,26 @@ import guru.qas.martini.MartiniFactory;
 import guru.qas.martini.Mixologist;
 import guru.qas.martini.event.DefaultMartiniEventPublisher;
 import guru.qas.martini.event.MartiniEventPublisher;
+import guru.qas.martini.filter.engine.DefaultFilterEngine;
+import guru.qas.martini.filter.engine.FilterEngine;
 import guru.qas.martini.gate.DefaultMartiniGateFactory;
 import guru.qas.martini.gate.MartiniGateFactory;
-import guru.qas.martini.scope.DefaultMartiniScenarioScope;
+import guru.qas.martini.index.DefaultMartiniIndex;
+import guru.qas.martini.index.MartiniIndex;
+import guru.qas.martini.metrics.DefaultMetricRegistry;
+import guru.qas.martini.metrics.MetricRegistry;
+import guru.qas.martini.runtime.harness.DefaultSuiteExecutor;
+import guru.qas.martini.runtime.harness.SuiteExecutor;
+import guru.qas.martini.scope.IndexedMartiniScenarioScope;
 
 import guru.qas.martini.scope.MartiniScenarioScope;
+import guru.qas.martini.spring.CachingStepImplementationResolver;
+import guru.qas.martini.spring.IndexedStepImplementationResolver;
+import guru.qas.martini.step.StepImplementationResolver;
+import guru.qas.martini.step.converter.DefaultParameterConverterFactory;
+import guru.qas.martini.step.converter.ParameterConverterFactory;
+import guru.qas.martini.step.invoker.DefaultStepInvokerFactory;
+import guru.qas.martini.step.invoker.StepInvokerFactory;
 import guru.qas.martini.tag.Categories;
 import guru.qas.martini.tag.DefaultCategories;
 
@@ -79,23 +94,66 @@ class MartiniConfiguration implements ApplicationContextAware, EnvironmentAware
 			.orElse(beanFactory.createBean(DefaultMartiniGateFactory.class));
 	}
 
+	@Bean
+	StepImplementationResolver getStepImplementationResolver() {
+		StepImplementationResolver resolver =
+			getOverride(StepImplementationResolver.IMPLEMENTATION_KEY, StepImplementationResolver.class)
+				.orElse(beanFactory.createBean(IndexedStepImplementationResolver.class));
+
+		long cacheSize = environment.getProperty(
+			CachingStepImplementationResolver.PROPERTY_MAXIMUM_SIZE,
+			Long.class,
+			CachingStepImplementationResolver.DEFAULT_MAXIMUM_SIZE);
+		return cacheSize > 0 ? new CachingStepImplementationResolver(resolver, cacheSize) : resolver;
+	}
+
 	@Bean
 	MartiniFactory getMartiniFactory() {
 		return getOverride(MartiniFactory.IMPLEMENTATION_KEY, MartiniFactory.class)
 			.orElse(beanFactory.createBean(DefaultMartiniFactory.class));
 	}
 
+	@Bean
+	FilterEngine getFilterEngine() {
+		return getOverride(FilterEngine.IMPLEMENTATION_KEY, FilterEngine.class)
+			.orElse(beanFactory.createBean(DefaultFilterEngine.class));
+	}
+
+	@Bean
+	MartiniIndex getMartiniIndex() {
+		return getOverride(MartiniIndex.IMPLEMENTATION_KEY, MartiniIndex.class)
+			.orElse(beanFactory.createBean(DefaultMartiniIndex.class));
+	}
+
+	@Bean
+	ParameterConverterFactory getParameterConverterFactory() {
+		return getOverride(ParameterConverterFactory.IMPLEMENTATION_KEY, ParameterConverterFactory.class)
+			.orElse(beanFactory.createBean(DefaultParameterConverterFactory.class));
+	}
+
+	@Bean
+	StepInvokerFactory getStepInvokerFactory() {
+		return getOverride(StepInvokerFactory.IMPLEMENTATION_KEY, StepInvokerFactory.class)
+			.orElse(beanFactory.createBean(DefaultStepInvokerFactory.class));
+	}
+
 	@Bean
 	Mixologist getMixologist() {
 		return getOverride(Mixologist.IMPLEMENTATION_KEY, Mixologist.class)
 			.orElse(beanFactory.createBean(DefaultMixologist.class));
 	}
 
+	@Bean
+	SuiteExecutor getSuiteExecutor() {
+		return getOverride(SuiteExecutor.IMPLEMENTATION_KEY, SuiteExecutor.class)
+			.orElse(beanFactory.createBean(DefaultSuiteExecutor.class));
+	}
+
 	@Bean
 	MartiniScenarioScope getMartiniScenarioScope(ConfigurableBeanFactory beanFactory) {
 		MartiniScenarioScope scope =
 			getOverride(MartiniScenarioScope.IMPLEMENTATION_KEY, MartiniScenarioScope.class)
-				.orElse(this.beanFactory.createBean(DefaultMartiniScenarioScope.class));
+				.orElse(this.beanFactory.createBean(IndexedMartiniScenarioScope.class));
 		beanFactory.registerScope(MartiniScenarioScope.NAME, scope);
 		return scope;
 	}
@@ -112,6 +170,12 @@ class MartiniConfiguration implements ApplicationContextAware, EnvironmentAware
 			.orElse(beanFactory.createBean(DefaultMartiniEventPublisher.class));
 	}
 
+	@Bean
+	MetricRegistry getMetricRegistry() {
+		return getOverride(MetricRegistry.IMPLEMENTATION_KEY, MetricRegistry.class)
+			.orElse(beanFactory.createBean(DefaultMetricRegistry.class));
+	}
+
 	protected <T> Optional<T> getOverride(String key, Class<T> expectedType) {
 		Class<?> implementation = environment.getProperty(key, Class.class);
 		Object o = null == implementation ? null : beanFactory.createBean(implementation);
@@ -0,0 +1,249 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.step;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.ImmutableList;
+
+import gherkin.ast.Examples;
+import gherkin.ast.ScenarioDefinition;
+import gherkin.ast.ScenarioOutline;
+import gherkin.ast.Step;
+import gherkin.ast.TableCell;
+import gherkin.ast.TableRow;
+import guru.qas.martini.gherkin.Recipe;
+import guru.qas.martini.step.converter.ParameterConverter;
+import guru.qas.martini.step.converter.ParameterConverterFactory;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Step method arguments in string form, with regular expression groups captured and Scenario Outline
+ * placeholders replaced by their Examples values, along with the types and converters they resolve to.
+ */
+@SuppressWarnings("WeakerAccess")
+public class ArgumentPlan {
+
+	protected static final Pattern OUTLINE_PATTERN = Pattern.compile("^<(.*)>$");
+
+	protected final List<String> values;
+	protected final ImmutableList<Class<?>> parameterTypes;
+	protected final ImmutableList<ParameterConverter> converters;
+
+	/**
+	 * @return argument values in string form, one per captured group; elements may be null
+	 */
+	public List<String> getValues() {
+		return values;
+	}
+
+	public List<Class<?>> getParameterTypes() {
+		return parameterTypes;
+	}
+
+	/**
+	 * @return one converter per parameter, or an empty list where no ParameterConverterFactory was available
+	 */
+	public List<ParameterConverter> getConverters() {
+		return converters;
+	}
+
+	protected ArgumentPlan(
+		List<String> values,
+		ImmutableList<Class<?>> parameterTypes,
+		ImmutableList<ParameterConverter> converters
+	) {
+		this.values = Collections.unmodifiableList(new ArrayList<>(values));
+		this.parameterTypes = parameterTypes;
+		this.converters = converters;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return values of the Examples row the Recipe was taken from, keyed by header, or null where the Recipe
+	 * is not of a Scenario Outline
+	 * @throws IllegalStateException with the supplied message where no row is found at the Recipe's line,
+	 *                               or where the row and its header differ in size
+	 */
+	@Nullable
+	public static Map<String, String> getExampleValues(
+		Recipe recipe,
+		Supplier<String> missingMessage,
+		Supplier<String> sizeMessage
+	) {
+		ScenarioDefinition definition = recipe.getScenarioDefinition();
+		if (!ScenarioOutline.class.isInstance(definition)) {
+			return null;
+		}
+
+		int line = recipe.getLocation().getLine();
+		TableRow header = null;
+		TableRow match = null;
+		for (Examples examples : ScenarioOutline.class.cast(definition).getExamples()) {
+			List<TableRow> rows = examples.getTableBody();
+			for (TableRow row : null == rows ? Collections.<TableRow>emptyList() : rows) {
+				if (null == match && row.getLocation().getLine() == line) {
+					match = row;
+					header = examples.getTableHeader();
+				}
+			}
+		}
+
+		if (null == header) {
+			throw new IllegalStateException(missingMessage.get());
+		}
+		List<TableCell> headerCells = header.getCells();
+		List<TableCell> rowCells = match.getCells();
+		if (headerCells.size() != rowCells.size()) {
+			throw new IllegalStateException(sizeMessage.get());
+		}
+
+		Map<String, String> values = new HashMap<>();
+		for (int i = 0; i < headerCells.size(); i++) {
+			values.put(headerCells.get(i).getValue(), rowCells.get(i).getValue());
+		}
+		return values;
+	}
+
+	/**
+	 * @return Examples value substituted for an argument of the form &lt;key&gt;
+	 * @throws IllegalStateException with the supplied message where the argument is not of that form
+	 */
+	@Nullable
+	public static String getExampleValue(
+		Map<String, String> exampleValues,
+		String placeholder,
+		Supplier<String> formatMessage
+	) {
+		Matcher matcher = OUTLINE_PATTERN.matcher(placeholder);
+		if (!matcher.find()) {
+			throw new IllegalStateException(formatMessage.get());
+		}
+		return exampleValues.get(matcher.group(1));
+	}
+
+	/**
+	 * Reusable across the steps of a single Recipe; Examples values are looked up once per Recipe.
+	 */
+	public static class Builder {
+
+		protected Recipe recipe;
+		protected Step step;
+		protected StepImplementation implementation;
+		protected ParameterConverterFactory converterFactory;
+		protected Map<String, String> exampleValues;
+		protected boolean exampleValuesResolved;
+
+		protected Builder() {
+		}
+
+		public Builder setRecipe(@Nullable Recipe recipe) {
+			if (this.recipe != recipe) {
+				this.exampleValues = null;
+				this.exampleValuesResolved = false;
+			}
+			this.recipe = recipe;
+			return this;
+		}
+
+		public Builder setStep(@Nullable Step step) {
+			this.step = step;
+			return this;
+		}
+
+		public Builder setImplementation(@Nullable StepImplementation implementation) {
+			this.implementation = implementation;
+			return this;
+		}
+
+		public Builder setConverterFactory(@Nullable ParameterConverterFactory converterFactory) {
+			this.converterFactory = converterFactory;
+			return this;
+		}
+
+		/**
+		 * @throws IllegalStateException if the step text or Examples do not yield arguments
+		 */
+		public ArgumentPlan build() {
+			checkState(null != recipe, "Recipe not set");
+			checkState(null != step, "Step not set");
+			checkState(null != implementation, "StepImplementation not set");
+			Method method = implementation.getMethod().orElse(null);
+			checkState(null != method, "StepImplementation has no Method");
+
+			Map<String, String> exampleValues = getExampleValues();
+			ImmutableList<Class<?>> parameterTypes = ImmutableList.copyOf(method.getParameterTypes());
+
+			List<String> values = new ArrayList<>();
+			if (!parameterTypes.isEmpty()) {
+				Matcher matcher = getMatcher();
+				int groupCount = matcher.groupCount();
+				for (int i = 0; i < groupCount; i++) {
+					String value = matcher.group(i + 1);
+					values.add(null == exampleValues ? value : getExampleValue(exampleValues, value));
+				}
+			}
+			ImmutableList<ParameterConverter> converters = null == converterFactory ?
+				ImmutableList.of() : ImmutableList.copyOf(converterFactory.getConverters(method));
+			return new ArgumentPlan(values, parameterTypes, converters);
+		}
+
+		protected Matcher getMatcher() {
+			Pattern pattern = implementation.getPattern().orElse(null);
+			checkState(null != pattern, "StepImplementation has no Pattern");
+			String text = step.getText();
+			Matcher matcher = pattern.matcher(text);
+			checkState(matcher.find(), "pattern %s does not match %s", pattern, text);
+			return matcher;
+		}
+
+		protected String getExampleValue(Map<String, String> exampleValues, String placeholder) {
+			return ArgumentPlan.getExampleValue(exampleValues, placeholder,
+				() -> String.format("argument %s is not an Examples placeholder", placeholder));
+		}
+
+		@Nullable
+		protected Map<String, String> getExampleValues() {
+			if (!exampleValuesResolved) {
+				exampleValues = getExampleValues(recipe);
+				exampleValuesResolved = true;
+			}
+			return exampleValues;
+		}
+
+		@Nullable
+		protected static Map<String, String> getExampleValues(Recipe recipe) {
+			return ArgumentPlan.getExampleValues(recipe,
+				() -> String.format("no Examples row found at line %s", recipe.getLocation().getLine()),
+				() -> "Examples header and row sizes differ");
+		}
+	}
+}
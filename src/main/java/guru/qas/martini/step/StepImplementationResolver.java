@@ -23,6 +23,8 @@ import guru.qas.martini.step.exception.AmbiguousStepException;
 
 public interface StepImplementationResolver {
 
+	String IMPLEMENTATION_KEY = "martini.step.implementation.resolver.implementation";
+
 	StepImplementation getImplementation(@Nonnull Step step) throws AmbiguousStepException;
 
 }
@@ -0,0 +1,196 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.step.converter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.env.Environment;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.StringUtils;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Chooses a converter once per step method parameter. Strings, primitives and their wrappers, BigInteger,
+ * BigDecimal, enums, UUID, Locale and Charset are converted directly, following the rules of Spring's
+ * default String converters. Null and blank values and all other types go through the ConversionService.
+ * <p>
+ * Fast paths may be turned off when the ConversionService has been customized for those types.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultParameterConverterFactory implements ParameterConverterFactory, InitializingBean {
+
+	public static final String PROPERTY_FAST_PATHS = "martini.parameter.converter.fast.paths";
+
+	protected static final Set<String> TRUE_VALUES = ImmutableSet.of("true", "on", "yes", "1");
+	protected static final Set<String> FALSE_VALUES = ImmutableSet.of("false", "off", "no", "0");
+
+	protected final ConversionService conversionService;
+	protected final Environment environment;
+	protected final Map<Method, List<ParameterConverter>> index;
+	protected final Set<Parameter> fallbacks;
+	protected final Logger logger;
+
+	protected boolean fastPaths;
+	protected ImmutableMap<Class<?>, Function<String, Object>> conversions;
+
+	@Autowired
+	protected DefaultParameterConverterFactory(ConversionService conversionService, Environment environment) {
+		this.conversionService = checkNotNull(conversionService, "null ConversionService");
+		this.environment = checkNotNull(environment, "null Environment");
+		this.index = new ConcurrentHashMap<>();
+		this.fallbacks = ConcurrentHashMap.newKeySet();
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		fastPaths = environment.getProperty(PROPERTY_FAST_PATHS, boolean.class, true);
+		conversions = ImmutableMap.<Class<?>, Function<String, Object>>builder()
+			.put(Byte.class, s -> NumberUtils.parseNumber(s, Byte.class))
+			.put(Short.class, s -> NumberUtils.parseNumber(s, Short.class))
+			.put(Integer.class, s -> NumberUtils.parseNumber(s, Integer.class))
+			.put(Long.class, s -> NumberUtils.parseNumber(s, Long.class))
+			.put(Float.class, s -> NumberUtils.parseNumber(s, Float.class))
+			.put(Double.class, s -> NumberUtils.parseNumber(s, Double.class))
+			.put(BigInteger.class, s -> NumberUtils.parseNumber(s, BigInteger.class))
+			.put(BigDecimal.class, s -> NumberUtils.parseNumber(s, BigDecimal.class))
+			.put(Boolean.class, DefaultParameterConverterFactory::toBoolean)
+			.put(Character.class, DefaultParameterConverterFactory::toCharacter)
+			.put(UUID.class, s -> UUID.fromString(s.trim()))
+			.put(Locale.class, StringUtils::parseLocale)
+			.put(Charset.class, s -> Charset.forName(s.trim()))
+			.build();
+	}
+
+	@Override
+	public List<ParameterConverter> getConverters(@Nonnull Method method) {
+		checkNotNull(method, "null Method");
+		return index.computeIfAbsent(method, this::createConverters);
+	}
+
+	@Override
+	public Collection<Parameter> getFallbackParameters() {
+		return Collections.unmodifiableSet(fallbacks);
+	}
+
+	protected List<ParameterConverter> createConverters(Method method) {
+		ImmutableList.Builder<ParameterConverter> builder = ImmutableList.builder();
+		for (Parameter parameter : method.getParameters()) {
+			builder.add(createConverter(parameter));
+		}
+		return builder.build();
+	}
+
+	protected ParameterConverter createConverter(Parameter parameter) {
+		Class<?> type = parameter.getType();
+		Function<String, Object> conversion = fastPaths ? getConversion(type) : null;
+
+		ParameterConverter converter;
+		if (String.class.equals(type)) {
+			converter = value -> value;
+		}
+		else if (null == conversion) {
+			fallbacks.add(parameter);
+			logger.debug("parameter {} of {} will be converted through the ConversionService",
+				parameter.getName(), parameter.getDeclaringExecutable());
+			converter = value -> conversionService.convert(value, type);
+		}
+		else {
+			converter = value -> {
+				Object converted = null == value || value.isEmpty() ? null : convert(conversion, value, type);
+				return null == converted ? conversionService.convert(value, type) : converted;
+			};
+		}
+		return converter;
+	}
+
+	protected Function<String, Object> getConversion(Class<?> type) {
+		Class<?> objectType = ClassUtils.resolvePrimitiveIfNecessary(type);
+		Function<String, Object> conversion = conversions.get(objectType);
+		if (null == conversion && objectType.isEnum()) {
+			conversion = s -> toEnum(objectType, s);
+		}
+		return conversion;
+	}
+
+	protected static Object convert(Function<String, Object> conversion, String value, Class<?> type) {
+		try {
+			return conversion.apply(value);
+		}
+		catch (RuntimeException e) {
+			TypeDescriptor sourceType = TypeDescriptor.valueOf(String.class);
+			TypeDescriptor targetType = TypeDescriptor.valueOf(type);
+			throw new ConversionFailedException(sourceType, targetType, value, e);
+		}
+	}
+
+	protected static Boolean toBoolean(String s) {
+		String value = s.trim().toLowerCase();
+		if (value.isEmpty()) {
+			return null;
+		}
+		else if (TRUE_VALUES.contains(value)) {
+			return Boolean.TRUE;
+		}
+		else if (FALSE_VALUES.contains(value)) {
+			return Boolean.FALSE;
+		}
+		throw new IllegalArgumentException("Invalid boolean value '" + s + "'");
+	}
+
+	protected static Character toCharacter(String s) {
+		if (s.length() > 1) {
+			throw new IllegalArgumentException(
+				"Can only convert a [String] with length of 1 to a [Character]; string value '" + s + "'  has length of " + s.length());
+		}
+		return s.charAt(0);
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	protected static Object toEnum(Class<?> type, String s) {
+		return Enum.valueOf((Class) type, s.trim());
+	}
+}
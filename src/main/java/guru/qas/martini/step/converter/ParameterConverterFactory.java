@@ -0,0 +1,38 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.step.converter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nonnull;
+
+public interface ParameterConverterFactory {
+
+	String IMPLEMENTATION_KEY = "martini.parameter.converter.factory.implementation";
+
+	/**
+	 * @return one converter per parameter of the given method, in declaration order
+	 */
+	List<ParameterConverter> getConverters(@Nonnull Method method);
+
+	/**
+	 * @return parameters whose arguments are converted through the generic ConversionService
+	 */
+	Collection<Parameter> getFallbackParameters();
+}
@@ -86,7 +86,7 @@ public class AmbiguousStepException extends MartiniException implements Serializ
 			checkState(null != step, "Step not set");
 			checkState(!matches.isEmpty(), "Iterable<StepImplementation> not set");
 
-			String id = recipe.getId();
+			String id = null == recipe ? null : recipe.getId();
 			String stepDescription = getStepDescription(step);
 			List<String> methodDescriptions = getMethodDescriptions();
 			String joined = '\n' + Joiner.on('\n').join(methodDescriptions);
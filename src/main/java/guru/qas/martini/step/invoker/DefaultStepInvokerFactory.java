@@ -0,0 +1,190 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.step.invoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.scope.ScopedProxyUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Configurable;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Creates MethodHandle invokers, one per step Method. StepInvokerBinder creates them for every registered
+ * StepImplementation as the context is refreshed, binding methods declared by singleton beans to their bean;
+ * invokers for methods not seen then are created on first use. Scoped beans, including @ScenarioScoped
+ * proxies, are supplied on every call. Methods a public Lookup cannot access are invoked reflectively.
+ */
+@SuppressWarnings("WeakerAccess")
+@Configurable
+public class DefaultStepInvokerFactory implements StepInvokerFactory {
+
+	protected final BeanFactory beanFactory;
+	protected final Map<Method, StepInvoker> index;
+	protected final Logger logger;
+
+	@Autowired
+	protected DefaultStepInvokerFactory(BeanFactory beanFactory) {
+		this.beanFactory = checkNotNull(beanFactory, "null BeanFactory");
+		this.index = new ConcurrentHashMap<>();
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+
+	@Override
+	public StepInvoker getInvoker(@Nonnull Method method) {
+		checkNotNull(method, "null Method");
+		StepInvoker invoker = index.get(method);
+		if (null == invoker) {
+			// Created outside the map; binding may instantiate a bean that in turn looks up invokers.
+			StepInvoker created = createInvoker(method);
+			invoker = index.putIfAbsent(method, created);
+			invoker = null == invoker ? created : invoker;
+		}
+		return invoker;
+	}
+
+	protected StepInvoker createInvoker(Method method) {
+		MethodHandle handle = getHandle(method);
+		StepInvoker invoker;
+		if (null == handle) {
+			invoker = new ReflectiveInvoker(method);
+		}
+		else if (isSingleton(method)) {
+			Object bean = beanFactory.getBean(method.getDeclaringClass());
+			invoker = new BoundInvoker(handle.bindTo(bean));
+		}
+		else {
+			invoker = new UnboundInvoker(handle);
+		}
+		return invoker;
+	}
+
+	/**
+	 * @return a handle of type (Object, Object[])Object, or null where the method is not publicly accessible
+	 */
+	@Nullable
+	protected MethodHandle getHandle(Method method) {
+		MethodHandle handle;
+		try {
+			handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+		}
+		catch (IllegalAccessException e) {
+			logger.debug("unable to access {} through a MethodHandle; invoking reflectively", method, e);
+			return null;
+		}
+
+		if (Modifier.isStatic(method.getModifiers())) {
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		int parameterCount = method.getParameterCount();
+		return handle
+			.asType(MethodType.genericMethodType(parameterCount + 1))
+			.asSpreader(Object[].class, parameterCount);
+	}
+
+	protected boolean isSingleton(Method method) {
+		if (Modifier.isStatic(method.getModifiers()) || !ListableBeanFactory.class.isInstance(beanFactory)) {
+			return false;
+		}
+
+		ListableBeanFactory listableBeanFactory = ListableBeanFactory.class.cast(beanFactory);
+		String[] names = listableBeanFactory.getBeanNamesForType(method.getDeclaringClass());
+		if (1 != names.length) {
+			return false;
+		}
+		String name = names[0];
+		return beanFactory.isSingleton(name) &&
+			!ScopedProxyUtils.isScopedTarget(name) &&
+			!beanFactory.containsBean(ScopedProxyUtils.getTargetBeanName(name));
+	}
+
+	protected static class BoundInvoker implements StepInvoker {
+
+		protected final MethodHandle handle;
+
+		protected BoundInvoker(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public boolean isBound() {
+			return true;
+		}
+
+		@Override
+		public Object invoke(@Nullable Object bean, Object[] arguments) throws Throwable {
+			return handle.invokeExact(arguments);
+		}
+	}
+
+	protected static class UnboundInvoker implements StepInvoker {
+
+		protected final MethodHandle handle;
+
+		protected UnboundInvoker(MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public boolean isBound() {
+			return false;
+		}
+
+		@Override
+		public Object invoke(@Nullable Object bean, Object[] arguments) throws Throwable {
+			return handle.invokeExact(bean, arguments);
+		}
+	}
+
+	protected static class ReflectiveInvoker implements StepInvoker {
+
+		protected final Method method;
+
+		protected ReflectiveInvoker(Method method) {
+			this.method = method;
+		}
+
+		@Override
+		public boolean isBound() {
+			return false;
+		}
+
+		@Override
+		public Object invoke(@Nullable Object bean, Object[] arguments) throws Throwable {
+			try {
+				return method.invoke(bean, arguments);
+			}
+			catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.step.invoker;
+
+import javax.annotation.Nullable;
+
+/**
+ * Invokes a single step method, throwing whatever the step itself throws.
+ */
+public interface StepInvoker {
+
+	/**
+	 * @return true where the invoker was bound to its bean up front and ignores the bean passed to invoke
+	 */
+	boolean isBound();
+
+	Object invoke(@Nullable Object bean, Object[] arguments) throws Throwable;
+}
@@ -44,6 +44,7 @@ import gherkin.ast.Step;
 import guru.qas.martini.annotation.Gated;
 import guru.qas.martini.gate.MartiniGate;
 
+import guru.qas.martini.step.ArgumentPlan;
 import guru.qas.martini.step.StepImplementation;
 import guru.qas.martini.tag.MartiniTag;
 
@@ -85,6 +86,44 @@ public class DefaultMixologistTest {
 		checkState(1 == martinis.size(), "multiple Martinis found by ID %s", id);
 	}
 
+	@Test
+	public void testIndexedByDefault() {
+		assertTrue(mixologist.indexed, "filtered selections not answered from the MartiniIndex by default");
+	}
+
+	@Test
+	public void testCatalogCached() {
+		DefaultMartiniFactory factory = context.getBean(DefaultMartiniFactory.class);
+		Collection<Martini> catalog = factory.getMartinis();
+		long builds = factory.getBuildCount();
+
+		assertSame(mixologist.getMartinis(), catalog, "catalog not reused");
+		assertEquals(factory.getBuildCount(), builds, "catalog rebuilt without refresh");
+
+		factory.refresh();
+		Collection<Martini> rebuilt = factory.getMartinis();
+		assertNotSame(rebuilt, catalog, "catalog not rebuilt after refresh");
+		assertEquals(rebuilt, catalog, "rebuilt catalog differs");
+		assertEquals(factory.getBuildCount(), builds + 1, "wrong build count");
+	}
+
+	@Test
+	public void testArgumentPlan() {
+		Martini martini = mixologist.getMartinis("isScenario('A Parameterized Case')").stream()
+			.findFirst()
+			.orElseThrow(() -> new IllegalStateException("fixture Martini not found"));
+
+		Step step = martini.getStepIndex().keySet().stream()
+			.filter(s -> s.getText().startsWith("a pre-existing condition known as"))
+			.findFirst()
+			.orElseThrow(() -> new IllegalStateException("fixture Step not found"));
+
+		ArgumentPlan plan = martini.getArgumentPlan(step).orElse(null);
+		assertNotNull(plan, "no ArgumentPlan built");
+		assertEquals(plan.getValues(), Lists.newArrayList("Celiac Disease"), "wrong argument values");
+		assertEquals(plan.getParameterTypes(), Lists.newArrayList(String.class), "wrong parameter types");
+	}
+
 	@Test
 	public void testGetGated() {
 		Collection<Martini> allMartinis = mixologist.getMartinis();
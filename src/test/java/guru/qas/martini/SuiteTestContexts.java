@@ -0,0 +1,68 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import guru.qas.martini.event.DefaultSuiteIdentifier;
+
+/**
+ * Creates the unrefreshed applicationContext.xml context shared by tests running a suite: a DefaultSuiteIdentifier
+ * is registered, the given properties take precedence and each given class is declared as a bean, which is how
+ * opt-in components are enabled.
+ */
+public final class SuiteTestContexts {
+
+	public static final String SUITE_IDENTIFIER_BEAN = "suiteIdentifier";
+
+	private SuiteTestContexts() {
+	}
+
+	public static ClassPathXmlApplicationContext getContext(Class<?>... beanClasses) {
+		return getContext(Collections.emptyMap(), beanClasses);
+	}
+
+	public static ClassPathXmlApplicationContext getContext(Map<String, Object> properties, Class<?>... beanClasses) {
+		ClassPathXmlApplicationContext context =
+			new ClassPathXmlApplicationContext(new String[]{"applicationContext.xml"}, false);
+		if (!properties.isEmpty()) {
+			context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+		}
+		context.addBeanFactoryPostProcessor(new BeanDefinitionRegistryPostProcessor() {
+			@Override
+			public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+				registry.registerBeanDefinition(SUITE_IDENTIFIER_BEAN, new RootBeanDefinition(DefaultSuiteIdentifier.class));
+				for (Class<?> beanClass : beanClasses) {
+					registry.registerBeanDefinition(beanClass.getName(), new RootBeanDefinition(beanClass));
+				}
+			}
+
+			@Override
+			public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+			}
+		});
+		return context;
+	}
+}
@@ -0,0 +1,67 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Function;
+
+import guru.qas.martini.result.MartiniResult;
+
+/**
+ * Creates interface stubs for tests that only need an identity: equals is identity, and every method the
+ * handler does not answer throws UnsupportedOperationException.
+ */
+public final class TestStubs {
+
+	private TestStubs() {
+	}
+
+	/**
+	 * @return MartiniResult answering only getId(), with a random UUID, and getStepResults(), empty
+	 */
+	public static MartiniResult getResult() {
+		UUID id = UUID.randomUUID();
+		return getProxy(MartiniResult.class, name -> {
+			switch (name) {
+				case "getId":
+					return id;
+				case "getStepResults":
+					return Collections.emptyList();
+				default:
+					throw new UnsupportedOperationException(name);
+			}
+		});
+	}
+
+	public static <T> T getProxy(Class<T> type, Function<String, Object> handler) {
+		Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+			switch (method.getName()) {
+				case "hashCode":
+					return System.identityHashCode(p);
+				case "equals":
+					return p == args[0];
+				case "toString":
+					return type.getSimpleName();
+				default:
+					return handler.apply(method.getName());
+			}
+		});
+		return type.cast(proxy);
+	}
+}
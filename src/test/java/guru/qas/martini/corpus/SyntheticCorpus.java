@@ -0,0 +1,296 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.corpus;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.ImmutableList;
+
+import guru.qas.martini.tag.Category;
+import guru.qas.martini.tag.DefaultCategory;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Writes a deterministic set of feature files for scale testing. Every step is matched either by
+ * one of getStepDefinitions() generated patterns or by a gated SyntheticSteps method, and every
+ * scenario carries a Category tag drawn from the leaves of a generated hierarchy.
+ * <p>
+ * The same Builder settings always produce byte-identical features.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SyntheticCorpus {
+
+	protected static final String[] WORDS = {
+		"alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+		"india", "juliet", "kilo", "lima", "mike", "november", "oscar", "papa"};
+
+	protected static final ImmutableList<String> GATED_STEPS = ImmutableList.of(
+		"a resource guarded by gate \"Alpha\"",
+		"a resource guarded by gates \"Alpha\" and \"Bravo\"",
+		"a resource guarded by gate \"Charlie\"");
+
+	protected static final ImmutableList<String> GATE_NAMES =
+		ImmutableList.of("SyntheticAlpha", "SyntheticBravo", "SyntheticCharlie");
+
+	protected final long seed;
+	protected final int featureCount;
+	protected final int scenariosPerFeature;
+	protected final int stepsPerScenario;
+	protected final int outlinesPerFeature;
+	protected final int outlineRows;
+	protected final int stepDefinitions;
+	protected final int categoryDepth;
+	protected final int categoryBreadth;
+	protected final int gatedInterval;
+	protected final boolean background;
+
+	protected SyntheticCorpus(Builder builder) {
+		this.seed = builder.seed;
+		this.featureCount = builder.featureCount;
+		this.scenariosPerFeature = builder.scenariosPerFeature;
+		this.stepsPerScenario = builder.stepsPerScenario;
+		this.outlinesPerFeature = builder.outlinesPerFeature;
+		this.outlineRows = builder.outlineRows;
+		this.stepDefinitions = builder.stepDefinitions;
+		this.categoryDepth = builder.categoryDepth;
+		this.categoryBreadth = builder.categoryBreadth;
+		this.gatedInterval = builder.gatedInterval;
+		this.background = builder.background;
+	}
+
+	public int getFeatureCount() {
+		return featureCount;
+	}
+
+	public int getStepDefinitions() {
+		return stepDefinitions;
+	}
+
+	/**
+	 * Returns the number of Martinis the corpus expands to, counting one per Examples row.
+	 */
+	public int getScenarioCount() {
+		return featureCount * (scenariosPerFeature + outlinesPerFeature * outlineRows);
+	}
+
+	/**
+	 * Returns the number of scenarios, outlines excluded, including a gated step.
+	 */
+	public int getGatedScenarioCount() {
+		if (0 == gatedInterval) {
+			return 0;
+		}
+		int perFeature = (scenariosPerFeature + gatedInterval - 1) / gatedInterval;
+		return featureCount * perFeature;
+	}
+
+	public List<String> getGateNames() {
+		return GATE_NAMES;
+	}
+
+	/**
+	 * Returns categoryDepth levels of categoryBreadth categories each. Every category below the first
+	 * level has two parents on the level above it, so ancestry fans out as the hierarchy deepens.
+	 */
+	public List<Category> getCategories() {
+		List<Category> categories = new ArrayList<>(categoryDepth * categoryBreadth);
+		for (int level = 0; level < categoryDepth; level++) {
+			for (int node = 0; node < categoryBreadth; node++) {
+				List<String> parents = 0 == level ? null : ImmutableList.of(
+					getCategoryName(level - 1, node),
+					getCategoryName(level - 1, (node + 1) % categoryBreadth));
+				categories.add(new DefaultCategory(getCategoryName(level, node), parents));
+			}
+		}
+		return categories;
+	}
+
+	public String getCategoryName(int level, int node) {
+		return String.format("SyntheticL%dN%d", level, node);
+	}
+
+	public String getLeafCategoryName(int feature, int scenario) {
+		return getCategoryName(categoryDepth - 1, Math.floorMod(feature + scenario, categoryBreadth));
+	}
+
+	public List<Path> write(Path directory) throws IOException {
+		checkNotNull(directory, "null Path");
+		Files.createDirectories(directory);
+
+		List<Path> features = new ArrayList<>(featureCount);
+		for (int i = 0; i < featureCount; i++) {
+			Path feature = directory.resolve(String.format("synthetic-%05d.feature", i));
+			try (Writer writer = Files.newBufferedWriter(feature, StandardCharsets.UTF_8)) {
+				writeFeature(writer, i);
+			}
+			features.add(feature);
+		}
+		return features;
+	}
+
+	protected void writeFeature(Writer writer, int feature) throws IOException {
+		Random random = new Random(seed * 31 + feature);
+
+		writer.write(String.format("@Group(\"g%d\")%n", feature % 10));
+		writer.write(String.format("Feature: Synthetic Feature %d%n%n", feature));
+
+		if (background) {
+			writer.write("  Background:\n");
+			writer.write(String.format("    Given %s%n%n", getStepText(0, "background")));
+		}
+
+		for (int scenario = 0; scenario < scenariosPerFeature; scenario++) {
+			writer.write(0 == scenario % 4 ? "  @Smoke\n" : "  @Regression\n");
+			writer.write(String.format("  @Category(\"%s\")%n", getLeafCategoryName(feature, scenario)));
+			writer.write(String.format("  Scenario: Scenario %d.%d%n", feature, scenario));
+			for (int step = 0; step < stepsPerScenario; step++) {
+				int definition = random.nextInt(stepDefinitions);
+				String argument = String.format("%d-%d-%d", feature, scenario, step);
+				writer.write(String.format("    Given %s%n", getStepText(definition, argument)));
+			}
+			if (gatedInterval > 0 && 0 == scenario % gatedInterval) {
+				String gated = GATED_STEPS.get(Math.floorMod(feature + scenario / gatedInterval, GATED_STEPS.size()));
+				writer.write(String.format("    Given %s%n", gated));
+			}
+			writer.write("\n");
+		}
+
+		for (int outline = 0; outline < outlinesPerFeature && outlineRows > 0; outline++) {
+			writer.write(String.format("  @Category(\"%s\")%n", getLeafCategoryName(feature, outline)));
+			writer.write(String.format("  Scenario Outline: Outline %d.%d%n", feature, outline));
+			for (int step = 0; step < stepsPerScenario; step++) {
+				int definition = random.nextInt(stepDefinitions);
+				writer.write(String.format("    Given %s%n", getStepText(definition, "<value>")));
+			}
+			writer.write("\n    Examples:\n      | value | row |\n");
+			for (int row = 0; row < outlineRows; row++) {
+				writer.write(String.format("      | r%d-%d | %d |%n", outline, row, row));
+			}
+			writer.write("\n");
+		}
+	}
+
+	public static String getStepText(int definition, String argument) {
+		return String.format("%s step %d says \"%s\"", WORDS[definition % WORDS.length], definition, argument);
+	}
+
+	public static Pattern getPattern(int definition) {
+		String regex = String.format("^%s step %d says \"([^\"]*)\"$", WORDS[definition % WORDS.length], definition);
+		return Pattern.compile(regex);
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static class Builder {
+
+		protected long seed = 1L;
+		protected int featureCount = 100;
+		protected int scenariosPerFeature = 10;
+		protected int stepsPerScenario = 8;
+		protected int outlinesPerFeature = 1;
+		protected int outlineRows = 20;
+		protected int stepDefinitions = 200;
+		protected int categoryDepth = 6;
+		protected int categoryBreadth = 4;
+		protected int gatedInterval = 0;
+		protected boolean background = false;
+
+		protected Builder() {
+		}
+
+		public Builder setSeed(long l) {
+			this.seed = l;
+			return this;
+		}
+
+		public Builder setFeatureCount(int i) {
+			this.featureCount = i;
+			return this;
+		}
+
+		public Builder setScenariosPerFeature(int i) {
+			this.scenariosPerFeature = i;
+			return this;
+		}
+
+		public Builder setStepsPerScenario(int i) {
+			this.stepsPerScenario = i;
+			return this;
+		}
+
+		public Builder setOutlinesPerFeature(int i) {
+			this.outlinesPerFeature = i;
+			return this;
+		}
+
+		public Builder setOutlineRows(int i) {
+			this.outlineRows = i;
+			return this;
+		}
+
+		public Builder setStepDefinitions(int i) {
+			this.stepDefinitions = i;
+			return this;
+		}
+
+		public Builder setCategoryDepth(int i) {
+			this.categoryDepth = i;
+			return this;
+		}
+
+		public Builder setCategoryBreadth(int i) {
+			this.categoryBreadth = i;
+			return this;
+		}
+
+		/**
+		 * Adds a gated step to every n-th scenario; zero, the default, leaves scenarios ungated.
+		 */
+		public Builder setGatedInterval(int i) {
+			this.gatedInterval = i;
+			return this;
+		}
+
+		public Builder setBackground(boolean b) {
+			this.background = b;
+			return this;
+		}
+
+		public SyntheticCorpus build() {
+			checkState(featureCount > 0, "featureCount must be greater than zero");
+			checkState(scenariosPerFeature >= 0, "scenariosPerFeature must not be negative");
+			checkState(stepsPerScenario > 0, "stepsPerScenario must be greater than zero");
+			checkState(outlinesPerFeature >= 0, "outlinesPerFeature must not be negative");
+			checkState(outlineRows >= 0, "outlineRows must not be negative");
+			checkState(stepDefinitions > 0, "stepDefinitions must be greater than zero");
+			checkState(categoryDepth > 0, "categoryDepth must be greater than zero");
+			checkState(categoryBreadth > 0, "categoryBreadth must be greater than zero");
+			checkState(gatedInterval >= 0, "gatedInterval must not be negative");
+			return new SyntheticCorpus(this);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.corpus;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+
+import guru.qas.martini.step.DefaultStepImplementation;
+import guru.qas.martini.tag.Category;
+
+import static com.google.common.base.Preconditions.*;
+
+/**
+ * Registers the beans a SyntheticCorpus depends on: its Category hierarchy, the SyntheticSteps bean
+ * and one DefaultStepImplementation per generated step definition.
+ */
+@SuppressWarnings("WeakerAccess")
+public class SyntheticCorpusRegistrar implements BeanDefinitionRegistryPostProcessor {
+
+	protected final SyntheticCorpus corpus;
+
+	public SyntheticCorpusRegistrar(SyntheticCorpus corpus) {
+		this.corpus = checkNotNull(corpus, "null SyntheticCorpus");
+	}
+
+	@Override
+	public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+		// Registered as a definition so StepsAnnotationProcessor picks up the gated methods.
+		registry.registerBeanDefinition("syntheticSteps", new RootBeanDefinition(SyntheticSteps.class));
+	}
+
+	@Override
+	public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+		List<Category> categories = corpus.getCategories();
+		for (Category category : categories) {
+			beanFactory.registerSingleton("syntheticCategory" + category.getName(), category);
+		}
+
+		Method method = getMethod();
+		for (int i = 0; i < corpus.getStepDefinitions(); i++) {
+			DefaultStepImplementation implementation =
+				new DefaultStepImplementation("Given", SyntheticCorpus.getPattern(i), method);
+			beanFactory.registerSingleton("syntheticStep" + i, implementation);
+		}
+	}
+
+	protected Method getMethod() {
+		try {
+			return SyntheticSteps.class.getMethod("say", String.class);
+		}
+		catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
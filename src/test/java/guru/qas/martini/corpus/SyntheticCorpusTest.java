@@ -0,0 +1,138 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.corpus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.Mixologist;
+import guru.qas.martini.gate.MartiniGate;
+
+import static org.testng.Assert.*;
+
+/**
+ * Builds and executes a generated corpus of several thousand scenarios. Runs in the scale group, which
+ * the default build excludes; mvn test -Pscale includes it.
+ */
+@SuppressWarnings("WeakerAccess")
+@Test(groups = "scale")
+public class SyntheticCorpusTest {
+
+	protected SyntheticCorpus corpus;
+	protected Path directory;
+	protected ClassPathXmlApplicationContext context;
+
+	@BeforeClass
+	public void setUpClass() throws IOException {
+		corpus = SyntheticCorpus.builder()
+			.setFeatureCount(100)
+			.setScenariosPerFeature(40)
+			.setStepsPerScenario(4)
+			.setOutlinesPerFeature(2)
+			.setOutlineRows(50)
+			.setGatedInterval(5)
+			.setBackground(true)
+			.build();
+		directory = Files.createTempDirectory("martini-corpus");
+		corpus.write(directory);
+
+		context = new ClassPathXmlApplicationContext(new String[]{"applicationContext.xml"}, false);
+		Map<String, Object> properties = ImmutableMap.of("martini.feature.resources", directory.toUri() + "*.feature");
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", properties));
+		context.addBeanFactoryPostProcessor(new SyntheticCorpusRegistrar(corpus));
+		context.refresh();
+	}
+
+	@AfterClass
+	public void tearDownClass() throws IOException {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+		if (null != directory) {
+			MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	@Test
+	public void testDeterministic() throws IOException {
+		Path other = Files.createTempDirectory("martini-corpus");
+		try {
+			List<Path> features = corpus.write(other);
+			assertEquals(features.size(), corpus.getFeatureCount(), "wrong feature count");
+			for (Path feature : features) {
+				Path original = directory.resolve(feature.getFileName());
+				assertEquals(Files.readAllBytes(feature), Files.readAllBytes(original), "feature differs: " + feature);
+			}
+		}
+		finally {
+			MoreFiles.deleteRecursively(other, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	@Test
+	public void testCatalog() {
+		Collection<Martini> martinis = context.getBean(MartiniFactory.class).getMartinis();
+		assertEquals(martinis.size(), corpus.getScenarioCount(), "wrong Martini count");
+
+		long unimplemented = martinis.stream()
+			.flatMap(martini -> martini.getStepIndex().values().stream())
+			.filter(implementation -> !implementation.getMethod().isPresent())
+			.count();
+		assertEquals(unimplemented, 0, "steps without implementation");
+
+		long gated = martinis.stream().filter(martini -> !martini.getGates().isEmpty()).count();
+		assertEquals(gated, corpus.getGatedScenarioCount(), "wrong gated Martini count");
+		long gateNames = martinis.stream()
+			.flatMap(martini -> martini.getGates().stream())
+			.map(MartiniGate::getName)
+			.distinct()
+			.filter(name -> corpus.getGateNames().contains(name))
+			.count();
+		assertEquals(gateNames, corpus.getGateNames().size(), "gates missing");
+	}
+
+	@Test
+	public void testCategoryHierarchy() {
+		Mixologist mixologist = context.getBean(Mixologist.class);
+		Collection<Martini> all = mixologist.getMartinis();
+
+		String leaf = corpus.getLeafCategoryName(0, 0);
+		Collection<Martini> leaves = mixologist.getMartinis(String.format("isCategory('%s')", leaf));
+		assertFalse(leaves.isEmpty(), "no Martinis in leaf category");
+		assertTrue(leaves.size() < all.size(), "leaf category matched every Martini");
+
+		Collection<Martini> roots = mixologist.getMartinis(
+			String.format("isCategory('%s')", corpus.getCategoryName(0, 0)));
+		assertEquals(roots.size(), all.size(), "root category should be an ancestor of every leaf");
+	}
+}
@@ -0,0 +1,54 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.corpus;
+
+import guru.qas.martini.annotation.Gated;
+import guru.qas.martini.annotation.Given;
+import guru.qas.martini.annotation.Steps;
+
+/**
+ * Target of every SyntheticCorpus step. Generated step definitions are bound to say(String)
+ * by SyntheticCorpusRegistrar; gated steps are discovered through their annotations.
+ */
+@SuppressWarnings("WeakerAccess")
+@Steps
+public class SyntheticSteps {
+
+	protected volatile String last;
+
+	public void say(String value) {
+		last = value;
+	}
+
+	@Given("^a resource guarded by gate \"Alpha\"$")
+	@Gated(name = "SyntheticAlpha")
+	public void alpha() {
+		last = "Alpha";
+	}
+
+	@Given("^a resource guarded by gates \"Alpha\" and \"Bravo\"$")
+	@Gated(name = "SyntheticAlpha")
+	@Gated(name = "SyntheticBravo")
+	public void alphaBravo() {
+		last = "Alpha and Bravo";
+	}
+
+	@Given("^a resource guarded by gate \"Charlie\"$")
+	@Gated(name = "SyntheticCharlie")
+	public void charlie() {
+		last = "Charlie";
+	}
+}
@@ -0,0 +1,264 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import guru.qas.martini.result.MartiniResult;
+
+import static guru.qas.martini.TestStubs.getProxy;
+import static guru.qas.martini.TestStubs.getResult;
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class AsyncMartiniEventPublisherTest {
+
+	protected GenericApplicationContext context;
+	protected AsyncMartiniEventPublisher asyncPublisher;
+
+	@AfterMethod
+	public void tearDown() {
+		if (null != asyncPublisher) {
+			asyncPublisher.destroy();
+		}
+		if (null != context) {
+			context.close();
+		}
+	}
+
+	protected AsyncMartiniEventPublisher getPublisher(
+		ApplicationEventPublisher publisher,
+		MartiniEventBatchListener listener,
+		Map<String, Object> properties
+	) {
+		context = new GenericApplicationContext();
+		context.registerBean(MartiniEventBatchListener.class, () -> listener);
+		context.refresh();
+
+		StandardEnvironment environment = new StandardEnvironment();
+		environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+
+		asyncPublisher = new AsyncMartiniEventPublisher(publisher);
+		asyncPublisher.setApplicationContext(context);
+		asyncPublisher.setEnvironment(environment);
+		asyncPublisher.afterPropertiesSet();
+		return asyncPublisher;
+	}
+
+	@Test
+	public void testPerScenarioOrder() {
+		Thread caller = Thread.currentThread();
+		Map<UUID, List<String>> published = new ConcurrentHashMap<>();
+		Map<UUID, List<String>> batched = new ConcurrentHashMap<>();
+		List<String> offThread = Collections.synchronizedList(new ArrayList<>());
+
+		AsyncMartiniEventPublisher publisher = getPublisher(
+			event -> {
+				if (event instanceof MartiniScenarioEvent) {
+					MartiniScenarioEvent scenarioEvent = (MartiniScenarioEvent) event;
+					record(published, scenarioEvent);
+					if (caller != Thread.currentThread()) {
+						offThread.add(getName(scenarioEvent));
+					}
+				}
+			},
+			events -> events.forEach(event -> record(batched, event)),
+			ImmutableMap.of(AsyncMartiniEventPublisher.PROPERTY_CONSUMERS, 2));
+
+		List<MartiniResult> results = List.of(getResult(), getResult(), getResult());
+		results.forEach(result -> publisher.publish(new BeforeScenarioEvent(this, result)));
+		for (int i = 0; i < 10; i++) {
+			for (MartiniResult result : results) {
+				publisher.publish(new BeforeStepEvent(this, result));
+				publisher.publish(new AfterStepEvent(this, result));
+			}
+		}
+		results.forEach(result -> publisher.publish(new AfterScenarioEvent(this, result)));
+		publisher.publish(new AfterSuiteEvent(this, getSuiteIdentifier()));
+
+		List<String> expected = new ArrayList<>();
+		expected.add("BeforeScenarioEvent");
+		for (int i = 0; i < 10; i++) {
+			expected.add("BeforeStepEvent");
+			expected.add("AfterStepEvent");
+		}
+		expected.add("AfterScenarioEvent");
+
+		for (MartiniResult result : results) {
+			assertEquals(published.get(result.getId()), expected, "wrong order published");
+			assertEquals(batched.get(result.getId()), expected, "wrong order batched");
+		}
+		assertEquals(offThread.size(), 60, "step events published on calling thread");
+		assertTrue(offThread.stream().allMatch(name -> name.endsWith("StepEvent")), "scenario events published off thread");
+	}
+
+	@Test
+	public void testDropStepEvents() throws InterruptedException {
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AsyncMartiniEventPublisher publisher = getPublisher(
+			event -> {
+			},
+			events -> {
+				blocked.countDown();
+				await(release);
+			},
+			ImmutableMap.of(
+				AsyncMartiniEventPublisher.PROPERTY_CAPACITY, 2,
+				AsyncMartiniEventPublisher.PROPERTY_BACKPRESSURE, "DROP_STEP_EVENTS"));
+
+		MartiniResult result = getResult();
+		publisher.publish(new BeforeScenarioEvent(this, result));
+		assertTrue(blocked.await(5, TimeUnit.SECONDS), "consumer not started");
+		for (int i = 0; i < 10; i++) {
+			publisher.publish(new BeforeStepEvent(this, result));
+		}
+		assertEquals(publisher.getDropped(), 8, "wrong number of step events dropped");
+
+		release.countDown();
+		publisher.publish(new AfterSuiteEvent(this, getSuiteIdentifier()));
+	}
+
+	@Test
+	public void testListenerErrorContained() {
+		List<String> delivered = Collections.synchronizedList(new ArrayList<>());
+		AsyncMartiniEventPublisher publisher = getPublisher(
+			event -> {
+				if (event instanceof BeforeStepEvent) {
+					throw new AssertionError("listener failure");
+				}
+			},
+			events -> {
+				events.forEach(event -> delivered.add(getName(event)));
+				throw new OutOfMemoryError("listener failure");
+			},
+			ImmutableMap.of(AsyncMartiniEventPublisher.PROPERTY_BATCH_SIZE, 1));
+
+		MartiniResult result = getResult();
+		publisher.publish(new BeforeScenarioEvent(this, result));
+		publisher.publish(new BeforeStepEvent(this, result));
+		publisher.publish(new AfterStepEvent(this, result));
+		publisher.publish(new AfterScenarioEvent(this, result));
+		publisher.publish(new AfterSuiteEvent(this, getSuiteIdentifier()));
+
+		List<String> expected = List.of("BeforeScenarioEvent", "BeforeStepEvent", "AfterStepEvent", "AfterScenarioEvent");
+		assertEquals(delivered, expected, "consumer stopped draining after a listener failure");
+	}
+
+	@Test(timeOut = 10000)
+	public void testAfterScenarioWaitsOnlyForItsScenario() throws InterruptedException {
+		MartiniResult blocking = getResult();
+		CountDownLatch blocked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AsyncMartiniEventPublisher publisher = getPublisher(
+			event -> {
+			},
+			events -> {
+				if (events.stream().anyMatch(event -> blocking == event.getPayload())) {
+					blocked.countDown();
+					await(release);
+				}
+			},
+			ImmutableMap.of());
+
+		MartiniResult result = getResult();
+		publisher.publish(new BeforeScenarioEvent(this, result));
+		publisher.publish(new BeforeStepEvent(this, result));
+		publisher.flush();
+
+		publisher.publish(new BeforeScenarioEvent(this, blocking));
+		assertTrue(blocked.await(5, TimeUnit.SECONDS), "consumer not blocked");
+
+		// Delivered scenarios complete even while the shared buffer is held up by another scenario's listener.
+		publisher.publish(new AfterScenarioEvent(this, result));
+
+		release.countDown();
+		publisher.publish(new AfterScenarioEvent(this, blocking));
+		publisher.publish(new AfterSuiteEvent(this, getSuiteIdentifier()));
+	}
+
+	@Test(timeOut = 10000)
+	public void testStoppedConsumerFailsFast() throws InterruptedException {
+		AsyncMartiniEventPublisher publisher = getPublisher(
+			event -> {
+			},
+			events -> {
+			},
+			ImmutableMap.of(AsyncMartiniEventPublisher.PROPERTY_CAPACITY, 1));
+
+		MartiniResult result = getResult();
+		publisher.publish(new BeforeScenarioEvent(this, result));
+		publisher.destroy();
+		for (AsyncMartiniEventPublisher.Consumer consumer : publisher.consumers) {
+			while (consumer.running) {
+				Thread.sleep(10);
+			}
+		}
+
+		try {
+			publisher.publish(new BeforeStepEvent(this, result));
+			fail("publish did not fail on a stopped consumer");
+		}
+		catch (IllegalStateException expected) {
+		}
+		try {
+			publisher.flush();
+			fail("flush did not fail on a stopped consumer");
+		}
+		catch (IllegalStateException expected) {
+		}
+	}
+
+	protected static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	protected static void record(Map<UUID, List<String>> index, MartiniScenarioEvent event) {
+		UUID id = event.getPayload().getId();
+		index.computeIfAbsent(id, key -> Collections.synchronizedList(new ArrayList<>())).add(getName(event));
+	}
+
+	protected static String getName(MartiniScenarioEvent event) {
+		return event.getClass().getSimpleName();
+	}
+
+	protected static SuiteIdentifier getSuiteIdentifier() {
+		return getProxy(SuiteIdentifier.class, name -> {
+			throw new UnsupportedOperationException(name);
+		});
+	}
+}
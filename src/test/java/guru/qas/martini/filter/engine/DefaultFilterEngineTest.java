@@ -0,0 +1,104 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.filter.engine;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultFilterEngineTest {
+
+	protected ClassPathXmlApplicationContext context;
+	protected DefaultFilterEngine engine;
+	protected Collection<Martini> martinis;
+
+	@BeforeClass
+	public void setUpClass() {
+		context = new ClassPathXmlApplicationContext("applicationContext.xml");
+		engine = context.getAutowireCapableBeanFactory().createBean(DefaultFilterEngine.class);
+		martinis = context.getBean(MartiniFactory.class).getMartinis();
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		engine = null;
+		martinis = null;
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@DataProvider
+	public Object[][] translatableFilters() {
+		return new Object[][]{
+			{"isCategory('Core') and !isGated()"},
+			{"isSmoke() or isMeta('Selenium')"},
+			{"isSmoke('withArgument') && not isRegression()"},
+			{"isGated('One') || isFeature('Functionality of the Reporting Subsystem')"},
+			{"isScenario('A Corner Case') or isId('Functionality_of_the_Reporting_Subsystem:A_Corner_Case:25')"},
+			{"isResource('classpath*:**/sample.feature') and true"},
+			{"!(isComplex('one') and isEmpty())"},
+		};
+	}
+
+	@Test(dataProvider = "translatableFilters")
+	public void testTranslatedMatchesInterpreted(String spelFilter) {
+		MartiniFilter filter = engine.getFilter(spelFilter);
+		assertFalse(ExpressionFilter.class.isInstance(filter), "filter not translated: " + spelFilter);
+		assertEquals(getIds(filter), getInterpretedIds(spelFilter), "wrong Martinis selected by " + spelFilter);
+	}
+
+	@Test
+	public void testUntranslatedFallsBack() {
+		String spelFilter = "isSmoke() and getScenarioLine() > 20";
+		MartiniFilter filter = engine.getFilter(spelFilter);
+		assertTrue(ExpressionFilter.class.isInstance(filter), "unexpected translation");
+		assertEquals(getIds(filter), getInterpretedIds(spelFilter), "wrong Martinis selected");
+	}
+
+	@Test
+	public void testFiltersCached() {
+		assertSame(engine.getFilter(" isSmoke() "), engine.getFilter("isSmoke()"), "filter not cached");
+	}
+
+	protected List<String> getIds(MartiniFilter filter) {
+		return martinis.stream().filter(filter).map(Martini::getId).collect(Collectors.toList());
+	}
+
+	protected List<String> getInterpretedIds(String spelFilter) {
+		Expression expression = new SpelExpressionParser().parseExpression(spelFilter);
+		return martinis.stream()
+			.filter(martini -> Boolean.TRUE.equals(expression.getValue(engine.getEvaluationContext(), martini, Boolean.class)))
+			.map(Martini::getId)
+			.collect(Collectors.toList());
+	}
+}
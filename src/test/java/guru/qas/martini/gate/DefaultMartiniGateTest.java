@@ -0,0 +1,51 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.gate;
+
+import java.util.concurrent.Semaphore;
+
+import org.testng.annotations.Test;
+
+import guru.qas.martini.metrics.Counter;
+import guru.qas.martini.metrics.DefaultMetricRegistry;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultMartiniGateTest {
+
+	@Test
+	public void testRefusalCountedOncePerWait() {
+		Semaphore semaphore = new Semaphore(1, true);
+		Counter failures = new DefaultMetricRegistry().counter("failures");
+		DefaultMartiniGate holder = new DefaultMartiniGate("gate", semaphore);
+		DefaultMartiniGate waiter = new DefaultMartiniGate("gate", semaphore, failures);
+
+		assertTrue(holder.enter(), "holder refused");
+		for (int i = 0; i < 5; i++) {
+			assertFalse(waiter.enter(), "waiter entered a full gate");
+		}
+		assertEquals(failures.getCount(), 1, "retries counted as refusals");
+
+		holder.leave();
+		assertTrue(waiter.enter(), "waiter refused an open gate");
+		waiter.leave();
+
+		assertTrue(holder.enter(), "holder refused");
+		assertFalse(waiter.enter(), "waiter entered a full gate");
+		assertEquals(failures.getCount(), 2, "refusal after a successful entry not counted");
+	}
+}
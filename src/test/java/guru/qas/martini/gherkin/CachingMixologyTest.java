@@ -0,0 +1,162 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.gherkin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Lists;
+
+import gherkin.ast.ScenarioOutline;
+import gherkin.pickles.PickleStep;
+import gherkin.pickles.PickleTag;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class CachingMixologyTest {
+
+	protected ClassPathXmlApplicationContext context;
+	protected DefaultMixology delegate;
+	protected Path file;
+
+	@BeforeClass
+	public void setUpClass() throws IOException {
+		context = new ClassPathXmlApplicationContext("applicationContext.xml");
+		delegate = context.getBean(DefaultMixology.class);
+		file = Files.createTempFile("mixology", ".cache");
+		Files.delete(file);
+	}
+
+	@AfterClass
+	public void tearDownClass() throws IOException {
+		delegate = null;
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+		Files.deleteIfExists(file);
+	}
+
+	@Test
+	public void testCachedRecipesMatchParsed() throws IOException {
+		Resource resource = new ClassPathResource("/subsystem/parameters.feature");
+
+		CachingMixology first = new CachingMixology(delegate, file);
+		first.afterPropertiesSet();
+		List<Recipe> parsed = Lists.newArrayList(first.get(resource));
+		first.destroy();
+		assertEquals(first.getMisses(), 1, "wrong number of misses");
+		assertTrue(Files.isRegularFile(file), "cache file not written");
+
+		CachingMixology second = new CachingMixology(delegate, file);
+		second.afterPropertiesSet();
+		List<Recipe> cached = Lists.newArrayList(second.get(resource));
+		assertEquals(second.getHits(), 1, "wrong number of hits");
+		assertEquals(second.getMisses(), 0, "wrong number of misses");
+
+		assertEquals(cached.size(), parsed.size(), "wrong number of Recipe objects returned");
+		for (int i = 0; i < parsed.size(); i++) {
+			Recipe expected = parsed.get(i);
+			Recipe actual = cached.get(i);
+			assertEquals(actual.getId(), expected.getId(), "wrong ID");
+			assertEquals(getStepTexts(actual), getStepTexts(expected), "wrong steps");
+			assertEquals(getTagNames(actual), getTagNames(expected), "wrong tags");
+			assertEquals(getDefinitionSteps(actual), getDefinitionSteps(expected), "wrong ScenarioDefinition steps");
+			assertEquals(
+				getExampleRowCount(actual), getExampleRowCount(expected), "wrong number of Examples rows");
+		}
+	}
+
+	@Test
+	public void testUnrequestedEntriesDropped() throws IOException {
+		Resource kept = new ClassPathResource("/subsystem/parameters.feature");
+		Resource dropped = new ClassPathResource("/subsystem/sample.feature");
+		Path cache = Files.createTempFile("mixology", ".cache");
+		Files.delete(cache);
+		try {
+			CachingMixology first = new CachingMixology(delegate, cache);
+			first.afterPropertiesSet();
+			first.get(kept);
+			first.get(dropped);
+			first.destroy();
+
+			CachingMixology second = new CachingMixology(delegate, cache);
+			second.afterPropertiesSet();
+			assertEquals(second.entries.size(), 2, "wrong number of entries loaded");
+			second.get(kept);
+			second.destroy();
+
+			CachingMixology third = new CachingMixology(delegate, cache);
+			third.afterPropertiesSet();
+			assertEquals(third.entries.keySet(), Set.of(kept.getURI().toString()), "unrequested entry not dropped");
+		}
+		finally {
+			Files.deleteIfExists(cache);
+		}
+	}
+
+	@Test
+	public void testWrittenOnceCatalogBuilt() throws IOException {
+		Path cache = Files.createTempFile("mixology", ".cache");
+		Files.delete(cache);
+		try {
+			CachingMixology mixology = new CachingMixology(delegate, cache);
+			mixology.afterPropertiesSet();
+			mixology.get(new ClassPathResource("/subsystem/parameters.feature"));
+			assertFalse(Files.exists(cache), "cache written before the catalog was built");
+
+			mixology.catalogBuilt();
+			assertTrue(Files.isRegularFile(cache), "cache not written once the catalog was built");
+		}
+		finally {
+			Files.deleteIfExists(cache);
+		}
+	}
+
+	protected static List<String> getStepTexts(Recipe recipe) {
+		return recipe.getPickle().getSteps().stream().map(PickleStep::getText).collect(Collectors.toList());
+	}
+
+	protected static List<String> getTagNames(Recipe recipe) {
+		return recipe.getPickle().getTags().stream().map(PickleTag::getName).collect(Collectors.toList());
+	}
+
+	protected static List<String> getDefinitionSteps(Recipe recipe) {
+		return recipe.getScenarioDefinition().getSteps().stream()
+			.map(step -> String.format("%s%s@%s", step.getKeyword(), step.getText(), step.getLocation().getLine()))
+			.collect(Collectors.toList());
+	}
+
+	protected static int getExampleRowCount(Recipe recipe) {
+		return ScenarioOutline.class.isInstance(recipe.getScenarioDefinition()) ?
+			ScenarioOutline.class.cast(recipe.getScenarioDefinition()).getExamples().stream()
+				.mapToInt(examples -> examples.getTableBody().size())
+				.sum() : -1;
+	}
+}
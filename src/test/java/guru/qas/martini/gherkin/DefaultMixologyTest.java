@@ -17,17 +17,36 @@ limitations under the License.
 package guru.qas.martini.gherkin;
 
 import java.io.IOException;
-
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.Iterables;
 
-import static org.testng.Assert.assertEquals;
+import gherkin.AstBuilder;
+import gherkin.Parser;
+import gherkin.Parser.ITokenMatcher;
+import gherkin.ast.GherkinDocument;
+
+import static org.testng.Assert.*;
 
 @SuppressWarnings("WeakerAccess")
 public class DefaultMixologyTest {
@@ -67,4 +86,100 @@ public class DefaultMixologyTest {
 		int recipeCount = Iterables.size(recipes);
 		assertEquals(2, recipeCount, "wrong number of Recipe objects returned");
 	}
+
+	@Test
+	public void testParallelMatchesSerial() throws Exception {
+		List<Resource> resources = getResources();
+		List<String> serial = new ArrayList<>();
+		for (Resource resource : resources) {
+			serial.addAll(getRecipeIds(factory, resource));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<List<String>>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				for (Resource resource : resources) {
+					futures.add(executor.submit(() -> getRecipeIds(factory, resource)));
+				}
+			}
+			for (int i = 0; i < 4; i++) {
+				List<String> parallel = new ArrayList<>();
+				for (int j = 0; j < resources.size(); j++) {
+					parallel.addAll(futures.get(i * resources.size() + j).get());
+				}
+				assertEquals(parallel, serial, "parallel parsing yielded different recipes");
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testOverriddenParserUsedByEveryThread() throws Exception {
+		ClassPathXmlApplicationContext overridden =
+			new ClassPathXmlApplicationContext(new String[]{"applicationContext.xml"}, false);
+		overridden.addBeanFactoryPostProcessor(new BeanDefinitionRegistryPostProcessor() {
+			@Override
+			public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+				RootBeanDefinition definition = new RootBeanDefinition(RecordingParser.class);
+				definition.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+				registry.registerBeanDefinition("gherkinParser", definition);
+			}
+
+			@Override
+			public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+			}
+		});
+		overridden.refresh();
+		RecordingParser.PARSED.set(0);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			DefaultMixology mixology = overridden.getBean(DefaultMixology.class);
+			List<Resource> resources = getResources();
+			List<Future<List<String>>> futures = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				for (Resource resource : resources) {
+					futures.add(executor.submit(() -> getRecipeIds(mixology, resource)));
+				}
+			}
+			for (Future<List<String>> future : futures) {
+				future.get();
+			}
+			assertEquals(RecordingParser.PARSED.get(), futures.size(), "configured Parser bypassed");
+		}
+		finally {
+			executor.shutdownNow();
+			overridden.close();
+		}
+	}
+
+	protected static List<Resource> getResources() throws IOException {
+		Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:/subsystem/*.feature");
+		List<Resource> sorted = new ArrayList<>(List.of(resources));
+		sorted.sort((a, b) -> String.valueOf(a.getFilename()).compareTo(String.valueOf(b.getFilename())));
+		assertTrue(sorted.size() > 1, "too few features to compare");
+		return sorted;
+	}
+
+	protected static List<String> getRecipeIds(Mixology mixology, Resource resource) {
+		return mixology.get(resource).stream().map(Recipe::getId).collect(Collectors.toList());
+	}
+
+	public static class RecordingParser extends Parser<GherkinDocument> {
+
+		protected static final AtomicInteger PARSED = new AtomicInteger();
+
+		public RecordingParser() {
+			super(new AstBuilder());
+		}
+
+		@Override
+		public GherkinDocument parse(Reader source, ITokenMatcher tokenMatcher) {
+			PARSED.incrementAndGet();
+			return super.parse(source, tokenMatcher);
+		}
+	}
 }
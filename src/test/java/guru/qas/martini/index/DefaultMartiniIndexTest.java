@@ -0,0 +1,98 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.index;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.DefaultMartiniFactory;
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.event.StepImplementationRegisteredEvent;
+import guru.qas.martini.filter.engine.FilterEngine;
+import guru.qas.martini.filter.engine.MartiniFilter;
+import guru.qas.martini.step.StepImplementation;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultMartiniIndexTest {
+
+	protected ClassPathXmlApplicationContext context;
+	protected FilterEngine engine;
+	protected MartiniIndex index;
+
+	@BeforeClass
+	public void setUpClass() {
+		context = new ClassPathXmlApplicationContext("applicationContext.xml");
+		engine = context.getBean(FilterEngine.class);
+		index = context.getBean(MartiniIndex.class);
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		engine = null;
+		index = null;
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@DataProvider
+	public Object[][] filters() {
+		return new Object[][]{
+			{"isCategory('Core')"},
+			{"isCategory('Reporting') and !isSmoke()"},
+			{"isSmoke('withArgument') or isMeta('Firefox')"},
+			{"isGated() and not isGated('One')"},
+			{"isFeature('Functionality of the Reporting Subsystem') and isScenario('A Corner Case')"},
+			{"isResource('classpath*:**/tags.feature') or false"},
+			{"isSmoke() and getScenarioLine() > 20"},
+			{"!isId('Functionality_of_the_Reporting_Subsystem:A_Corner_Case:25')"},
+		};
+	}
+
+	@Test(dataProvider = "filters")
+	public void testIndexedMatchesScanned(String spelFilter) {
+		MartiniFilter filter = engine.getFilter(spelFilter);
+		List<Martini> expected = index.getMartinis().stream().filter(filter).collect(Collectors.toList());
+		List<Martini> actual = index.getMartinis(filter);
+		assertEquals(actual, expected, "wrong Martinis selected by " + spelFilter);
+	}
+
+	@Test
+	public void testCachedUntilStepRegistered() {
+		DefaultMartiniFactory factory = (DefaultMartiniFactory) context.getBean(MartiniFactory.class);
+		List<Martini> martinis = index.getMartinis();
+		long builds = factory.getBuildCount();
+		assertSame(index.getMartinis(), martinis, "index rebuilt without cause");
+		assertEquals(factory.getBuildCount(), builds, "catalog rebuilt without cause");
+
+		StepImplementation implementation = context.getBeansOfType(StepImplementation.class).values().iterator().next();
+		context.publishEvent(new StepImplementationRegisteredEvent(this, implementation));
+
+		assertNotSame(index.getMartinis(), martinis, "index kept after StepImplementation registered");
+		assertEquals(factory.getBuildCount(), builds + 1, "catalog kept after StepImplementation registered");
+	}
+}
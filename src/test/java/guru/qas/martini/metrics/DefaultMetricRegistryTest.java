@@ -0,0 +1,110 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class DefaultMetricRegistryTest {
+
+	@Test
+	public void testCounter() {
+		MetricRegistry registry = new DefaultMetricRegistry();
+		Counter counter = registry.counter("a");
+		assertSame(registry.counter("a"), counter, "counter not reused");
+		counter.increment();
+		counter.increment();
+		counter.decrement();
+		counter.add(10);
+		assertEquals(counter.getCount(), 11);
+	}
+
+	@Test
+	public void testGaugeReplaced() {
+		MetricRegistry registry = new DefaultMetricRegistry();
+		AtomicLong value = new AtomicLong(3);
+		registry.gauge("g", value::get);
+		assertEquals(registry.getValues().get("g"), 3L);
+		value.set(5);
+		assertEquals(registry.getValues().get("g"), 5L, "gauge not sampled on read");
+
+		registry.gauge("g", () -> 7);
+		assertEquals(registry.getValues().get("g"), 7L, "gauge not replaced");
+	}
+
+	@Test
+	public void testGaugeShared() {
+		MetricRegistry registry = new DefaultMetricRegistry();
+		LevelGauge gauge = registry.gauge("g", LevelGauge.class, LevelGauge::new);
+		assertSame(registry.gauge("g", LevelGauge.class, LevelGauge::new), gauge, "gauge not reused");
+		gauge.value.set(4);
+		assertEquals(registry.getValues().get("g"), 4L);
+		assertThrows(IllegalStateException.class, () -> registry.gauge("g", OtherGauge.class, OtherGauge::new));
+	}
+
+	@Test
+	public void testTimerValues() {
+		MetricRegistry registry = new DefaultMetricRegistry();
+		Timer timer = registry.timer("t");
+		timer.record(1, TimeUnit.MILLISECONDS);
+		timer.record(3, TimeUnit.MILLISECONDS);
+
+		SortedMap<String, Number> values = registry.getValues();
+		assertEquals(values.get("t.count"), 2L);
+		assertEquals(values.get("t.totalNanos"), 4_000_000L);
+		assertEquals(values.get("t.maxNanos"), 3_000_000L);
+		assertEquals(values.get("t.meanNanos").doubleValue(), 2_000_000d, 0.001);
+		assertTrue(values.containsKey("t.p50Nanos") && values.containsKey("t.p99Nanos"), "percentiles missing");
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void testTypeMismatch() {
+		MetricRegistry registry = new DefaultMetricRegistry();
+		registry.counter("m");
+		registry.timer("m");
+	}
+
+	@Test
+	public void testGaugeCannotReplaceCounter() {
+		MetricRegistry registry = new DefaultMetricRegistry();
+		Counter counter = registry.counter("m");
+		assertThrows(IllegalStateException.class, () -> registry.gauge("m", () -> 1));
+		assertSame(registry.getMetrics().get("m"), counter, "counter replaced");
+	}
+
+	protected static class LevelGauge implements Gauge {
+
+		protected final AtomicLong value = new AtomicLong();
+
+		@Override
+		public long getValue() {
+			return value.get();
+		}
+	}
+
+	protected static class OtherGauge implements Gauge {
+
+		@Override
+		public long getValue() {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.SuiteTestContexts;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.runtime.event.DefaultEventManager;
+import guru.qas.martini.runtime.harness.MartiniCallable;
+import guru.qas.martini.runtime.harness.SuiteExecutor;
+import guru.qas.martini.scope.DefaultMartiniScenarioScope;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class JmxMetricExporterTest {
+
+	protected ClassPathXmlApplicationContext context;
+
+	@BeforeClass
+	public void setUpClass() {
+		Map<String, Object> properties = ImmutableMap.of(LoggingMetricReporter.PROPERTY_PERIOD, 0);
+		context = SuiteTestContexts.getContext(properties, JmxMetricExporter.class, LoggingMetricReporter.class);
+		context.refresh();
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@Test
+	public void testSuiteMetricsExported() throws Exception {
+		Collection<Martini> martinis = context.getBean(MartiniFactory.class).getMartinis();
+		List<MartiniResult> results = context.getBean(SuiteExecutor.class).execute(martinis);
+
+		MetricRegistry registry = context.getBean(MetricRegistry.class);
+		Map<String, Number> values = registry.getValues();
+		assertEquals(values.get(MartiniCallable.METRIC_SCENARIOS_STARTED), (long) results.size());
+		assertEquals(values.get(MartiniCallable.METRIC_SCENARIOS_COMPLETED), (long) results.size());
+		assertEquals(values.get(MartiniCallable.METRIC_SCENARIOS_ACTIVE), 0L);
+		assertTrue(Gauge.class.isInstance(registry.getMetrics().get(MartiniCallable.METRIC_SCENARIOS_ACTIVE)),
+			"active scenarios not a Gauge, so reported with a rate");
+		assertEquals(values.get(MartiniCallable.METRIC_SCENARIO_DURATION + ".count"), (long) results.size());
+		assertTrue(values.get(DefaultEventManager.METRIC_PUBLISH + ".count").longValue() >= 2, "suite events not timed");
+		assertEquals(values.get(DefaultMartiniScenarioScope.METRIC_BEANS), 0L, "scoped beans left after suite");
+		assertEquals(values.get("gates.One.permits.used"), 0L, "gate permits left in use");
+
+		JmxMetricExporter exporter = context.getBean(JmxMetricExporter.class);
+		ObjectName objectName = exporter.getObjectName();
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertTrue(server.isRegistered(objectName), "MBean not registered");
+		Object exported = server.getAttribute(objectName, MartiniCallable.METRIC_SCENARIOS_COMPLETED);
+		assertEquals(exported, (long) results.size(), "wrong exported value");
+		assertTrue(server.getMBeanInfo(objectName).getAttributes().length >= values.size(), "attributes missing");
+
+		String report = context.getBean(LoggingMetricReporter.class).getReport();
+		assertTrue(report.contains(MartiniCallable.METRIC_SCENARIOS_COMPLETED + " = " + results.size()), report);
+
+		context.close();
+		assertFalse(server.isRegistered(objectName), "MBean not unregistered on close");
+	}
+}
@@ -0,0 +1,120 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.result;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.Ordering;
+
+import gherkin.ast.Location;
+import gherkin.ast.Step;
+import guru.qas.martini.event.Status;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class StepResultLogTest {
+
+	@Test
+	public void testEmpty() {
+		StepResultLog.Snapshot snapshot = new StepResultLog().getSnapshot();
+		assertEquals(snapshot.size(), 0, "wrong size");
+		assertTrue(snapshot.getStepResults().isEmpty(), "non-empty StepResults");
+		assertFalse(snapshot.getStatus().isPresent(), "Status present");
+		assertFalse(snapshot.getExecutionTimeMs().isPresent(), "execution time present");
+		assertFalse(snapshot.getException().isPresent(), "Exception present");
+	}
+
+	@Test
+	public void testAggregatesMatchFullScan() {
+		StepResultLog log = new StepResultLog();
+		List<StepResult> expected = new ArrayList<>();
+
+		Status[] statuses = {Status.PASSED, null, Status.FAILED, Status.SKIPPED, Status.PASSED};
+		for (int i = 0; i < 20; i++) {
+			DefaultStepResult result = getStepResult(i);
+			result.setStatus(statuses[i % statuses.length]);
+			result.setStartTimestamp(0 == i % 7 ? null : 1000L - i * 10);
+			result.setEndTimestamp(0 == i % 6 ? null : 2000L + (i % 4) * 10);
+			result.setException(3 == i % 8 ? new IllegalStateException(String.valueOf(i)) : null);
+
+			log.add(result);
+			expected.add(result);
+
+			StepResultLog.Snapshot snapshot = log.getSnapshot();
+			assertEquals(snapshot.getStepResults(), expected, "wrong StepResults");
+			assertEquals(snapshot.getStatus(), getStatus(expected), "wrong Status");
+			assertEquals(snapshot.getStartTimestamp(), getStart(expected), "wrong start");
+			assertEquals(snapshot.getEndTimestamp(), getEnd(expected), "wrong end");
+			assertEquals(snapshot.getException(), getException(expected), "wrong Exception");
+		}
+	}
+
+	@Test
+	public void testViewIsStablePrefix() {
+		StepResultLog log = new StepResultLog();
+		log.add(getStepResult(0));
+		List<StepResult> view = log.getSnapshot().getStepResults();
+
+		for (int i = 1; i < 40; i++) {
+			log.add(getStepResult(i));
+		}
+
+		assertEquals(view.size(), 1, "view reflects later additions");
+		assertEquals(view.get(0).getStep().getText(), "step 0", "wrong StepResult");
+		assertEquals(log.getSnapshot().getStepResults().size(), 40, "wrong size");
+		assertThrows(UnsupportedOperationException.class, () -> view.add(getStepResult(99)));
+		assertThrows(IndexOutOfBoundsException.class, () -> view.get(1));
+	}
+
+	protected static DefaultStepResult getStepResult(int index) {
+		Step step = new Step(new Location(index + 1, 1), "Given ", "step " + index, null);
+		return new DefaultStepResult(step, null);
+	}
+
+	protected static Optional<Status> getStatus(List<StepResult> results) {
+		return results.stream()
+			.map(result -> result.getStatus().orElse(null))
+			.filter(Objects::nonNull)
+			.max(Ordering.natural());
+	}
+
+	protected static Optional<Long> getStart(List<StepResult> results) {
+		return results.stream()
+			.map(result -> result.getStartTimestamp().orElse(null))
+			.filter(Objects::nonNull)
+			.min(Ordering.natural());
+	}
+
+	protected static Optional<Long> getEnd(List<StepResult> results) {
+		return results.stream()
+			.map(result -> result.getEndTimestamp().orElse(null))
+			.filter(Objects::nonNull)
+			.max(Ordering.natural());
+	}
+
+	protected static Optional<Exception> getException(List<StepResult> results) {
+		return results.stream()
+			.map(result -> result.getException().orElse(null))
+			.filter(Objects::nonNull)
+			.findFirst();
+	}
+}
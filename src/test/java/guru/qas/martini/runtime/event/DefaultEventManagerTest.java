@@ -0,0 +1,179 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.Nonnull;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.event.AfterScenarioEvent;
+import guru.qas.martini.event.AfterStepEvent;
+import guru.qas.martini.event.BeforeScenarioEvent;
+import guru.qas.martini.event.BeforeStepEvent;
+import guru.qas.martini.event.DefaultMartiniEventPublisher;
+import guru.qas.martini.result.MartiniResult;
+
+import static guru.qas.martini.TestStubs.getResult;
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultEventManagerTest {
+
+	protected ClassPathXmlApplicationContext context;
+	protected DefaultEventManager manager;
+
+	@BeforeClass
+	public void setUpClass() {
+		context = new ClassPathXmlApplicationContext("applicationContext.xml");
+		manager = (DefaultEventManager) context.getBean(EventManager.class);
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@Test
+	public void testUnlistenedEventsSkipped() {
+		MartiniResult result = getResult();
+		long scenarioPublished = manager.getPublishedCount(BeforeScenarioEvent.class);
+		long stepSkipped = manager.getSkippedCount(BeforeStepEvent.class);
+
+		manager.publishBeforeScenario(this, result);
+		manager.publishBeforeStep(this, result);
+		manager.publishAfterScenario(this, result);
+
+		assertEquals(manager.getPublishedCount(BeforeScenarioEvent.class), scenarioPublished + 1,
+			"listened BeforeScenarioEvent not published");
+		assertEquals(manager.getSkippedCount(BeforeStepEvent.class), stepSkipped + 1,
+			"unlistened BeforeStepEvent published");
+	}
+
+	@Test(dependsOnMethods = "testUnlistenedEventsSkipped")
+	public void testListenerAddedAfterRefresh() {
+		AfterStepListener listener = new AfterStepListener();
+		context.addApplicationListener(listener);
+
+		MartiniResult result = getResult();
+		long beforeStepSkipped = manager.getSkippedCount(BeforeStepEvent.class);
+		manager.publishBeforeStep(this, result);
+		manager.publishAfterStep(this, result);
+
+		assertEquals(listener.events.size(), 1, "AfterStepEvent not delivered to new listener");
+		assertEquals(manager.getSkippedCount(BeforeStepEvent.class), beforeStepSkipped + 1,
+			"BeforeStepEvent published without listeners");
+		assertEquals(manager.getSkippedCount(AfterScenarioEvent.class), 0, "AfterScenarioEvent skipped");
+	}
+
+	@Test
+	public void testParentListenerDetected() {
+		GenericApplicationContext parent = new GenericApplicationContext();
+		parent.refresh();
+		ClassPathXmlApplicationContext child =
+			new ClassPathXmlApplicationContext(new String[]{"applicationContext.xml"}, parent);
+		try {
+			DefaultEventManager childManager = (DefaultEventManager) child.getBean(EventManager.class);
+			MartiniResult result = getResult();
+			childManager.publishAfterStep(this, result);
+			assertEquals(childManager.getPublishedCount(AfterStepEvent.class), 0, "unlistened AfterStepEvent published");
+
+			parent.addApplicationListener(new AfterStepListener());
+			childManager.publishAfterStep(this, result);
+			assertEquals(childManager.getPublishedCount(AfterStepEvent.class), 1,
+				"AfterStepEvent not published to parent listener");
+		}
+		finally {
+			child.close();
+			parent.close();
+		}
+	}
+
+	@Test
+	public void testPublishingSkipsBeanFactory() {
+		CountingBeanFactory beanFactory = new CountingBeanFactory();
+		AnnotationConfigApplicationContext counted = new AnnotationConfigApplicationContext(beanFactory);
+		counted.register(DefaultMartiniEventPublisher.class, DefaultEventManager.class);
+		counted.refresh();
+		try {
+			DefaultEventManager countedManager = counted.getBean(DefaultEventManager.class);
+			MartiniResult result = getResult();
+			beanFactory.lookups.set(0);
+
+			countedManager.publishBeforeScenario(this, result);
+			countedManager.publishBeforeStep(this, result);
+			countedManager.publishAfterStep(this, result);
+			countedManager.publishAfterScenario(this, result);
+
+			assertEquals(beanFactory.lookups.get(), 0, "bean factory consulted while publishing");
+			assertEquals(countedManager.getSkippedCount(BeforeStepEvent.class), 1, "unlistened BeforeStepEvent published");
+		}
+		finally {
+			counted.close();
+		}
+	}
+
+	protected static class CountingBeanFactory extends DefaultListableBeanFactory {
+
+		protected final AtomicInteger lookups = new AtomicInteger();
+
+		@Nonnull
+		@Override
+		public String[] getBeanNamesForType(@Nonnull ResolvableType type, boolean includeNonSingletons, boolean allowEagerInit) {
+			lookups.incrementAndGet();
+			return super.getBeanNamesForType(type, includeNonSingletons, allowEagerInit);
+		}
+
+		@Nonnull
+		@Override
+		public String[] getBeanNamesForType(Class<?> type, boolean includeNonSingletons, boolean allowEagerInit) {
+			lookups.incrementAndGet();
+			return super.getBeanNamesForType(type, includeNonSingletons, allowEagerInit);
+		}
+
+		@Nonnull
+		@Override
+		public <T> Map<String, T> getBeansOfType(Class<T> type, boolean includeNonSingletons, boolean allowEagerInit) {
+			lookups.incrementAndGet();
+			return super.getBeansOfType(type, includeNonSingletons, allowEagerInit);
+		}
+	}
+
+	protected static class AfterStepListener implements ApplicationListener<AfterStepEvent> {
+
+		protected final List<AfterStepEvent> events = new ArrayList<>();
+
+		@Override
+		public void onApplicationEvent(@Nonnull AfterStepEvent event) {
+			events.add(event);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.NetworkInterface;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.SuiteTestContexts;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.result.StepResult;
+import guru.qas.martini.runtime.harness.SuiteExecutor;
+import guru.qas.martini.step.StepImplementation;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultJsonRecordWriterTest {
+
+	protected ClassPathXmlApplicationContext context;
+	protected List<MartiniResult> results;
+
+	@BeforeClass
+	public void setUpClass() throws InterruptedException {
+		context = SuiteTestContexts.getContext();
+		context.refresh();
+
+		Collection<Martini> martinis = context.getBean(MartiniFactory.class).getMartinis();
+		results = context.getBean(SuiteExecutor.class).execute(martinis);
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+		results = null;
+	}
+
+	@DataProvider
+	public Object[][] gsonProvider() {
+		return new Object[][]{{false}, {true}};
+	}
+
+	@Test(dataProvider = "gsonProvider")
+	public void testSameDocumentsAsSerializers(boolean serializeNulls) throws IOException {
+		assertFalse(results.isEmpty(), "no results in fixtures");
+		Gson gson = getTreeGson(serializeNulls);
+		JsonRecordWriter recordWriter = context.getBean(JsonRecordWriter.class);
+
+		SuiteIdentifier identifier = context.getBean(SuiteIdentifier.class);
+		assertEquals(write(gson, w -> recordWriter.writeSuite(w, identifier)),
+			gson.toJson(identifier, SuiteIdentifier.class), "wrong suite record");
+
+		Set<FeatureWrapper> features = new LinkedHashSet<>();
+		results.forEach(r -> features.add(r.getMartini().getRecipe().getFeatureWrapper()));
+		for (FeatureWrapper feature : features) {
+			assertEquals(write(gson, w -> recordWriter.writeFeature(w, feature)),
+				gson.toJson(feature, FeatureWrapper.class), "wrong feature record");
+		}
+
+		for (MartiniResult result : results) {
+			assertEquals(write(gson, w -> recordWriter.writeResult(w, result)),
+				gson.toJson(result, MartiniResult.class), "wrong result record for " + result.getMartini().getId());
+		}
+	}
+
+	@Test
+	public void testStreamWritesSuiteAndFeaturesOnce() throws IOException {
+		StringWriter buffer = new StringWriter();
+		try (JsonRecordStream stream = new JsonRecordStream(context.getBean(JsonRecordWriter.class), new JsonWriter(buffer))) {
+			for (MartiniResult result : results) {
+				stream.write(result);
+			}
+			stream.write(context.getBean(SuiteIdentifier.class));
+		}
+
+		JsonArray records = JsonParser.parseString(buffer.toString()).getAsJsonArray();
+		int suiteCount = 0;
+		Set<String> written = new HashSet<>();
+		List<String> resultIds = new ArrayList<>();
+		for (JsonElement element : records) {
+			JsonObject record = element.getAsJsonObject();
+			if (record.has("suite")) {
+				suiteCount++;
+				written.add(record.getAsJsonObject("suite").get("id").getAsString());
+			}
+			else if (record.has("feature")) {
+				String id = record.getAsJsonObject("feature").get("id").getAsString();
+				assertTrue(written.add(id), "feature written more than once");
+			}
+			else {
+				JsonObject martini = record.getAsJsonObject("martini");
+				assertTrue(written.contains(martini.get("suite").getAsString()), "suite not written ahead of result");
+				assertTrue(written.contains(martini.get("feature").getAsString()), "feature not written ahead of result");
+				resultIds.add(martini.get("id").getAsString());
+			}
+		}
+
+		assertEquals(suiteCount, 1, "wrong number of suite records");
+		List<String> expected = results.stream().map(r -> r.getMartini().getId()).collect(Collectors.toList());
+		assertEquals(resultIds, expected, "wrong result records");
+	}
+
+	@Test
+	public void testEnvironmentAllowList() throws IOException {
+		EnvironmentAllowList allowList = EnvironmentAllowList.of(new String[]{" HOME ", "JAVA_*", ""});
+		Map<String, String> environment = ImmutableMap.of(
+			"HOME", "/home/martini", "JAVA_HOME", "/opt/java", "JAVA_OPTS", "-Xmx1g", "PATH", "/bin", "HOMEPATH", "x");
+		assertEquals(allowList.filter(environment),
+			ImmutableMap.of("HOME", "/home/martini", "JAVA_HOME", "/opt/java", "JAVA_OPTS", "-Xmx1g"));
+		assertSame(EnvironmentAllowList.of(null).filter(environment), environment, "unrestricted list filtered");
+		assertTrue(EnvironmentAllowList.of(new String[0]).filter(environment).isEmpty(), "empty list allowed variables");
+
+		DefaultJsonRecordWriter recordWriter = context.getAutowireCapableBeanFactory().createBean(DefaultJsonRecordWriter.class);
+		recordWriter.setEnvironmentAllowList(new String[]{"PATH"});
+		StringWriter buffer = new StringWriter();
+		recordWriter.writeSuite(new JsonWriter(buffer), context.getBean(SuiteIdentifier.class));
+		JsonObject suite = JsonParser.parseString(buffer.toString()).getAsJsonObject().getAsJsonObject("suite");
+		assertEquals(suite.getAsJsonObject("environment").keySet(), ImmutableSet.of("PATH"), "wrong environment");
+	}
+
+	protected Gson getTreeGson(boolean serializeNulls) {
+		GsonBuilder builder = new GsonBuilder()
+			.registerTypeHierarchyAdapter(MartiniResult.class, context.getBean(MartiniResultSerializer.class))
+			.registerTypeHierarchyAdapter(StepResult.class, context.getBean(StepResultSerializer.class))
+			.registerTypeHierarchyAdapter(StepImplementation.class, context.getBean(StepImplementationSerializer.class))
+			.registerTypeHierarchyAdapter(SuiteIdentifier.class, context.getBean(SuiteIdentifierSerializer.class))
+			.registerTypeAdapter(NetworkInterface.class, context.getBean(HostSerializer.class))
+			.registerTypeAdapter(FeatureWrapper.class, context.getBean(FeatureSerializer.class));
+		if (serializeNulls) {
+			builder.serializeNulls();
+		}
+		return builder.create();
+	}
+
+	protected static String write(Gson gson, Record record) throws IOException {
+		StringWriter buffer = new StringWriter();
+		JsonWriter writer = gson.newJsonWriter(buffer);
+		writer.setHtmlSafe(gson.htmlSafe());
+		record.write(writer);
+		writer.flush();
+		return buffer.toString();
+	}
+
+	protected interface Record {
+		void write(JsonWriter writer) throws IOException;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.event.json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.SuiteTestContexts;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gherkin.FeatureWrapper;
+import guru.qas.martini.metrics.MetricRegistry;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.runtime.harness.SuiteExecutor;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class NdjsonResultSinkTest {
+
+	protected Path directory;
+	protected ClassPathXmlApplicationContext context;
+	protected List<MartiniResult> results;
+
+	@BeforeClass
+	public void setUpClass() throws IOException {
+		directory = Files.createTempDirectory("martini-sink");
+		Map<String, Object> properties = ImmutableMap.of(
+			NdjsonResultSink.PROPERTY_DIRECTORY, directory.toString(),
+			NdjsonResultSink.PROPERTY_CHUNK_BYTES, 1);
+		context = SuiteTestContexts.getContext(properties, NdjsonResultSink.class);
+		context.refresh();
+	}
+
+	@AfterClass
+	public void tearDownClass() throws IOException {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+		if (null != directory) {
+			MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	@Test
+	public void testResultsWrittenToChunks() throws InterruptedException, IOException {
+		Collection<Martini> martinis = context.getBean(MartiniFactory.class).getMartinis();
+		results = context.getBean(SuiteExecutor.class).execute(martinis);
+		NdjsonResultSink sink = context.getBean(NdjsonResultSink.class);
+
+		List<Path> chunks;
+		try (Stream<Path> files = Files.list(directory)) {
+			chunks = files.sorted().collect(Collectors.toList());
+		}
+		assertEquals(chunks.size(), results.size(), "one result per chunk expected at minimum chunk size");
+		assertEquals(sink.getChunksWritten(), chunks.size(), "wrong chunk count");
+		assertEquals(sink.getRecordsWritten(), results.size(), "wrong record count");
+		assertEquals(sink.getQueueDepth(), 0, "results left queued");
+		assertEquals(sink.getFailures(), 0, "write failures");
+
+		long size = 0;
+		List<String> written = new ArrayList<>();
+		for (Path chunk : chunks) {
+			assertTrue(chunk.getFileName().toString().endsWith(".ndjson.gz"), "wrong file name " + chunk);
+			size += Files.size(chunk);
+
+			List<JsonObject> records = read(chunk);
+			assertEquals(records.size(), 3, "chunk not self-contained: " + chunk);
+			assertTrue(records.get(0).has("suite"), "suite record not first");
+			assertTrue(records.get(1).has("feature"), "feature record not second");
+			written.add(records.get(2).getAsJsonObject("martini").get("id").getAsString());
+		}
+		assertEquals(sink.getBytesWritten(), size, "wrong byte count");
+
+		List<String> expected = results.stream().map(r -> r.getMartini().getId()).sorted().collect(Collectors.toList());
+		assertEquals(written.stream().sorted().collect(Collectors.toList()), expected, "wrong results written");
+	}
+
+	@Test(dependsOnMethods = "testResultsWrittenToChunks")
+	public void testMetricsRegistered() {
+		NdjsonResultSink sink = context.getBean(NdjsonResultSink.class);
+		Map<String, Number> values = context.getBean(MetricRegistry.class).getValues();
+		assertEquals(values.get(NdjsonResultSink.METRIC_QUEUE_DEPTH), 0L, "wrong queue depth gauge");
+		assertEquals(values.get(NdjsonResultSink.METRIC_RECORDS_WRITTEN), sink.getRecordsWritten(), "wrong records gauge");
+		assertEquals(values.get(NdjsonResultSink.METRIC_BYTES_WRITTEN), sink.getBytesWritten(), "wrong bytes gauge");
+		assertEquals(values.get(NdjsonResultSink.METRIC_FAILURES), 0L, "wrong failures gauge");
+	}
+
+	@Test(dependsOnMethods = "testResultsWrittenToChunks")
+	public void testFailedRecordNotWritten() throws IOException {
+		JsonRecordWriter delegate = context.getBean(JsonRecordWriter.class);
+		NdjsonResultSink sink = new NdjsonResultSink(new FailingRecordWriter(delegate));
+		Path failing = Files.createTempDirectory("martini-sink-failing");
+		try {
+			sink.directory = failing;
+			sink.prefix = "failing";
+			sink.chunkBytes = Long.MAX_VALUE;
+
+			for (MartiniResult result : results) {
+				sink.write(result);
+			}
+			sink.closeChunk();
+			assertEquals(sink.getFailures(), results.size(), "serialization failures not counted");
+
+			List<Path> chunks;
+			try (Stream<Path> files = Files.list(failing)) {
+				chunks = files.collect(Collectors.toList());
+			}
+			assertFalse(chunks.isEmpty(), "no chunks written");
+			for (Path chunk : chunks) {
+				for (String line : Files.readAllLines(chunk, StandardCharsets.UTF_8)) {
+					JsonObject record = JsonParser.parseString(line).getAsJsonObject();
+					assertFalse(record.has("martini"), "result record written despite failure: " + chunk);
+				}
+			}
+		}
+		finally {
+			MoreFiles.deleteRecursively(failing, RecursiveDeleteOption.ALLOW_INSECURE);
+		}
+	}
+
+	protected static List<JsonObject> read(Path chunk) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+			new GZIPInputStream(Files.newInputStream(chunk)), StandardCharsets.UTF_8))) {
+			return reader.lines()
+				.map(line -> JsonParser.parseString(line).getAsJsonObject())
+				.collect(Collectors.toList());
+		}
+	}
+
+	protected static class FailingRecordWriter implements JsonRecordWriter {
+
+		protected final JsonRecordWriter delegate;
+
+		protected FailingRecordWriter(JsonRecordWriter delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void writeSuite(JsonWriter writer, SuiteIdentifier identifier) throws IOException {
+			delegate.writeSuite(writer, identifier);
+		}
+
+		@Override
+		public void writeFeature(JsonWriter writer, FeatureWrapper feature) throws IOException {
+			delegate.writeFeature(writer, feature);
+		}
+
+		@Override
+		public void writeResult(JsonWriter writer, MartiniResult result) throws IOException {
+			writer.beginObject().name("martini").beginObject().name("id").value(result.getMartini().getId());
+			throw new IOException("serialization failed partway");
+		}
+	}
+}
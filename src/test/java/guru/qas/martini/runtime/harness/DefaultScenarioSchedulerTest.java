@@ -0,0 +1,144 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.testng.annotations.Test;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.gate.MartiniGate;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultScenarioSchedulerTest {
+
+	@Test
+	public void testWaitsOnClosedGate() {
+		Semaphore tenant = new Semaphore(1);
+		DefaultScenarioScheduler scheduler = new DefaultScenarioScheduler();
+		scheduler.add(0, getMartini(new Gate("tenant", tenant)));
+		scheduler.add(1, getMartini(new Gate("tenant", tenant)));
+		scheduler.add(2, getMartini());
+
+		assertEquals(scheduler.next(), Integer.valueOf(0));
+		assertEquals(scheduler.next(), Integer.valueOf(2));
+		assertNull(scheduler.next());
+		assertFalse(scheduler.isEmpty(), "waiting scenario dropped");
+
+		scheduler.release(0);
+		assertEquals(scheduler.next(), Integer.valueOf(1));
+		assertTrue(scheduler.isEmpty());
+		scheduler.release(1);
+		scheduler.release(2);
+		assertEquals(tenant.availablePermits(), 1, "permit leaked");
+	}
+
+	@Test
+	public void testGatesEnteredAllOrNone() {
+		Semaphore alpha = new Semaphore(1);
+		Semaphore beta = new Semaphore(1);
+		List<String> entered = new ArrayList<>();
+		DefaultScenarioScheduler scheduler = new DefaultScenarioScheduler();
+		scheduler.add(0, getMartini(new Gate("beta", beta)));
+		scheduler.add(1, getMartini(new Gate("beta", beta, entered), new Gate("alpha", alpha, entered)));
+
+		assertEquals(scheduler.next(), Integer.valueOf(0));
+		assertNull(scheduler.next());
+		assertEquals(entered, Arrays.asList("alpha"), "gates not entered in name order");
+		assertEquals(alpha.availablePermits(), 1, "gate held by waiting scenario");
+
+		scheduler.release(0);
+		assertEquals(scheduler.next(), Integer.valueOf(1));
+		assertEquals(alpha.availablePermits() + beta.availablePermits(), 0);
+	}
+
+	@Test
+	public void testWakeRetriesExternallyHeldGate() {
+		Semaphore external = new Semaphore(0);
+		DefaultScenarioScheduler scheduler = new DefaultScenarioScheduler();
+		scheduler.add(0, getMartini(new Gate("external", external)));
+		assertNull(scheduler.next());
+
+		external.release();
+		assertNull(scheduler.next(), "waiting scenario retried without a release");
+		scheduler.wake();
+		assertEquals(scheduler.next(), Integer.valueOf(0));
+	}
+
+	protected static Martini getMartini(MartiniGate... gates) {
+		List<MartiniGate> gateList = Arrays.asList(gates);
+		return (Martini) Proxy.newProxyInstance(
+			Martini.class.getClassLoader(),
+			new Class<?>[]{Martini.class},
+			(proxy, method, args) -> {
+				if ("getGates".equals(method.getName())) {
+					return gateList;
+				}
+				throw new UnsupportedOperationException(method.getName());
+			});
+	}
+
+	protected static class Gate implements MartiniGate {
+
+		protected final String name;
+		protected final Semaphore semaphore;
+		protected final List<String> entered;
+		protected boolean held;
+
+		protected Gate(String name, Semaphore semaphore) {
+			this(name, semaphore, new ArrayList<>());
+		}
+
+		protected Gate(String name, Semaphore semaphore, List<String> entered) {
+			this.name = name;
+			this.semaphore = semaphore;
+			this.entered = entered;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public int getPermits() {
+			return semaphore.availablePermits();
+		}
+
+		@Override
+		public boolean enter() {
+			held = semaphore.tryAcquire();
+			if (held) {
+				entered.add(name);
+			}
+			return held;
+		}
+
+		@Override
+		public void leave() {
+			if (held) {
+				semaphore.release();
+				held = false;
+			}
+		}
+	}
+}
@@ -0,0 +1,227 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.SuiteTestContexts;
+import guru.qas.martini.event.AfterScenarioEvent;
+import guru.qas.martini.event.AfterSuiteEvent;
+import guru.qas.martini.event.BeforeScenarioEvent;
+import guru.qas.martini.event.BeforeSuiteEvent;
+import guru.qas.martini.event.SuiteIdentifier;
+import guru.qas.martini.gate.MartiniGate;
+import guru.qas.martini.gate.MartiniGateFactory;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.runtime.event.EventManager;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultSuiteExecutorTest {
+
+	protected ClassPathXmlApplicationContext context;
+	protected List<ApplicationEvent> suiteEvents;
+	protected AtomicInteger gatedRunning;
+	protected AtomicInteger gatedOverlaps;
+	protected AtomicReference<Runnable> afterSuite;
+
+	@BeforeClass
+	public void setUpClass() {
+		context = SuiteTestContexts.getContext(ImmutableMap.of(SuiteExecutor.PROPERTY_CONCURRENCY, 4));
+
+		suiteEvents = new ArrayList<>();
+		gatedRunning = new AtomicInteger();
+		gatedOverlaps = new AtomicInteger();
+		afterSuite = new AtomicReference<>(() -> {
+		});
+		context.addApplicationListener(event -> {
+			if (event instanceof BeforeSuiteEvent || event instanceof AfterSuiteEvent) {
+				suiteEvents.add(event);
+				if (event instanceof AfterSuiteEvent) {
+					afterSuite.get().run();
+				}
+			}
+			else if (event instanceof BeforeScenarioEvent && isGated(((BeforeScenarioEvent) event).getPayload())) {
+				if (gatedRunning.incrementAndGet() > 1) {
+					gatedOverlaps.incrementAndGet();
+				}
+			}
+			else if (event instanceof AfterScenarioEvent && isGated(((AfterScenarioEvent) event).getPayload())) {
+				gatedRunning.decrementAndGet();
+			}
+		});
+		context.refresh();
+		context.start();
+	}
+
+	protected static boolean isGated(MartiniResult result) {
+		return !result.getMartini().getGates().isEmpty();
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@Test
+	public void testExecute() throws InterruptedException {
+		Collection<Martini> catalog = context.getBean(MartiniFactory.class).getMartinis();
+		List<Martini> gated = catalog.stream().filter(m -> !m.getGates().isEmpty()).collect(Collectors.toList());
+		assertFalse(gated.isEmpty(), "no gated Martinis in fixtures");
+
+		List<Martini> martinis = new ArrayList<>(catalog);
+		martinis.addAll(gated);
+		martinis.addAll(gated);
+
+		List<MartiniResult> results = context.getBean(SuiteExecutor.class).execute(martinis);
+
+		List<Martini> executed = results.stream().map(MartiniResult::getMartini).collect(Collectors.toList());
+		assertEquals(executed, martinis, "results not in submission order");
+		assertEquals(suiteEvents.size(), 2, "wrong number of suite events");
+		assertTrue(suiteEvents.get(0) instanceof BeforeSuiteEvent);
+		assertTrue(suiteEvents.get(1) instanceof AfterSuiteEvent);
+		assertEquals(gatedOverlaps.get(), 0, "gated scenarios ran concurrently");
+	}
+
+	@Test(dependsOnMethods = "testExecute", timeOut = 10000)
+	public void testExternalGateRelease() throws InterruptedException {
+		Martini martini = context.getBean(MartiniFactory.class).getMartinis().stream()
+			.filter(m -> !m.getGates().isEmpty())
+			.findFirst()
+			.orElseThrow(() -> new AssertionError("no gated Martinis in fixtures"));
+
+		MartiniGateFactory gateFactory = context.getBean(MartiniGateFactory.class);
+		Map<String, MartiniGate> held = new LinkedHashMap<>();
+		martini.getStepIndex().values().stream()
+			.flatMap(implementation -> gateFactory.getGates(implementation).stream())
+			.forEach(gate -> held.putIfAbsent(gate.getName(), gate));
+		held.values().forEach(gate -> assertTrue(gate.enter(), "unable to hold gate " + gate.getName()));
+
+		AtomicReference<List<MartiniResult>> results = new AtomicReference<>();
+		Thread suite = new Thread(() -> {
+			try {
+				results.set(context.getBean(SuiteExecutor.class).execute(Collections.singletonList(martini)));
+			}
+			catch (InterruptedException ignored) {
+			}
+		});
+		suite.start();
+		suite.join(500);
+		assertTrue(suite.isAlive(), "gated scenario ran while its gates were held");
+
+		// Released outside the suite, where only the gate factory can tell the executor.
+		held.values().forEach(MartiniGate::leave);
+		suite.join();
+		assertEquals(results.get().size(), 1, "gated scenario not run after gates were released");
+	}
+
+	@Test(dependsOnMethods = "testExternalGateRelease", timeOut = 10000)
+	public void testInterruptAwaitsScenarios() throws InterruptedException {
+		List<Martini> martinis = new ArrayList<>(context.getBean(MartiniFactory.class).getMartinis()).subList(0, 2);
+		AutowireCapableBeanFactory beanFactory = context.getAutowireCapableBeanFactory();
+		StoppingSuiteExecutor executor = beanFactory.createBean(StoppingSuiteExecutor.class);
+		executor.started = new CountDownLatch(martinis.size());
+
+		AtomicInteger stoppedAtAfterSuite = new AtomicInteger(-1);
+		afterSuite.set(() -> stoppedAtAfterSuite.set(executor.stopped.get()));
+		AtomicReference<Throwable> thrown = new AtomicReference<>();
+		Thread suite = new Thread(() -> {
+			try {
+				executor.execute(martinis);
+			}
+			catch (Throwable e) {
+				thrown.set(e);
+			}
+		});
+		try {
+			suite.start();
+			assertTrue(executor.started.await(5, TimeUnit.SECONDS), "scenarios not started");
+			suite.interrupt();
+			suite.join();
+		}
+		finally {
+			afterSuite.set(() -> {
+			});
+		}
+
+		assertTrue(thrown.get() instanceof InterruptedException, "InterruptedException not thrown");
+		assertEquals(stoppedAtAfterSuite.get(), martinis.size(), "AfterSuite published before scenarios stopped");
+	}
+
+	/**
+	 * Runs scenarios that wait to be interrupted and take a while to stop once they are.
+	 */
+	protected static class StoppingSuiteExecutor extends DefaultSuiteExecutor {
+
+		protected final AtomicInteger stopped;
+		protected CountDownLatch started;
+
+		@Autowired
+		protected StoppingSuiteExecutor(
+			AutowireCapableBeanFactory beanFactory,
+			EventManager eventManager,
+			SuiteIdentifier suiteIdentifier
+		) {
+			super(beanFactory, eventManager, suiteIdentifier);
+			stopped = new AtomicInteger();
+		}
+
+		@Override
+		protected MartiniCallable getCallable(Martini martini) {
+			return new MartiniCallable(martini) {
+				@Override
+				public MartiniResult call() {
+					started.countDown();
+					try {
+						Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+					}
+					catch (InterruptedException e) {
+						Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
+						stopped.incrementAndGet();
+					}
+					return null;
+				}
+			};
+		}
+	}
+}
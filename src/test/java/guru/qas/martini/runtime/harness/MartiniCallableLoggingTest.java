@@ -0,0 +1,154 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.harness;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.SuiteTestContexts;
+import guru.qas.martini.result.MartiniResult;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class MartiniCallableLoggingTest {
+
+	protected ClassPathXmlApplicationContext context;
+
+	@BeforeClass
+	public void setUpClass() {
+		context = SuiteTestContexts.getContext(
+			Collections.singletonMap(MartiniCallable.PROPERTY_LOGGING, MartiniCallable.Logging.STRUCTURED.name()));
+		context.refresh();
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@Test
+	public void testStructuredContext() {
+		Martini martini = getMartini();
+		RecordingCallable callable = getCallable(martini);
+		assertTrue(callable.isStructured(), "structured logging not configured");
+
+		MartiniResult result = callable.call();
+		assertNotNull(result, "no result");
+
+		assertTrue(callable.put.contains(MartiniCallable.MDC_SUITE), "suite not put");
+		assertTrue(callable.put.contains(MartiniCallable.MDC_SCENARIO), "scenario not put");
+		assertTrue(callable.put.contains(MartiniCallable.MDC_STEP), "step not put");
+		assertEquals(callable.open, Collections.emptySet(), "context left open");
+	}
+
+	@Test
+	public void testLoggerShared() {
+		Martini martini = getMartini();
+		MartiniCallable first = getCallable(martini);
+		MartiniCallable second = getCallable(martini);
+		assertSame(first.logger, second.logger, "LocLogger not shared");
+	}
+
+	@Test
+	public void testScenarioIdCached() {
+		Martini martini = getMartini();
+		String scenarioId = getCallable(martini).getScenarioId();
+		assertSame(getCallable(martini).getScenarioId(), scenarioId, "scenario id not cached per Recipe");
+	}
+
+	@Test
+	public void testEnclosingContextRestored() {
+		RecordingCallable callable = getCallable(getMartini());
+		callable.context.put(MartiniCallable.MDC_SUITE, "enclosing suite");
+		callable.context.put(MartiniCallable.MDC_SCENARIO, "enclosing scenario");
+
+		callable.call();
+		assertTrue(callable.put.contains(MartiniCallable.MDC_STEP), "step not put");
+		Map<String, String> expected = Map.of(
+			MartiniCallable.MDC_SUITE, "enclosing suite",
+			MartiniCallable.MDC_SCENARIO, "enclosing scenario");
+		assertEquals(callable.context, expected, "enclosing context not restored");
+	}
+
+	protected Martini getMartini() {
+		Collection<Martini> martinis = context.getBean(MartiniFactory.class).getMartinis();
+		return martinis.stream()
+			.filter(m -> !m.getStepIndex().isEmpty())
+			.findFirst()
+			.orElseThrow(() -> new AssertionError("no Martini with steps"));
+	}
+
+	protected RecordingCallable getCallable(Martini martini) {
+		RecordingCallable callable = new RecordingCallable(martini);
+		AutowireCapableBeanFactory beanFactory = context.getAutowireCapableBeanFactory();
+		beanFactory.autowireBean(callable);
+		String beanName = String.format("%s:%s", RecordingCallable.class.getName(), martini.getId());
+		return (RecordingCallable) beanFactory.initializeBean(callable, beanName);
+	}
+
+	protected static class RecordingCallable extends MartiniCallable {
+
+		protected final List<String> put;
+		protected final Set<String> open;
+		protected final Map<String, String> context;
+
+		protected RecordingCallable(Martini martini) {
+			super(martini);
+			put = new ArrayList<>();
+			open = new HashSet<>();
+			context = new HashMap<>();
+		}
+
+		@Override
+		protected String getContext(String key) {
+			return context.get(key);
+		}
+
+		@Override
+		protected void putContext(String key, String value) {
+			assertNotNull(value, "null context value for " + key);
+			put.add(key);
+			open.add(key);
+			context.put(key, value);
+			super.putContext(key, value);
+		}
+
+		@Override
+		protected void removeContext(String key) {
+			open.remove(key);
+			context.remove(key);
+			super.removeContext(key);
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.instrumentation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.Martini;
+import guru.qas.martini.MartiniFactory;
+import guru.qas.martini.SuiteTestContexts;
+import guru.qas.martini.result.MartiniResult;
+import guru.qas.martini.result.StepResult;
+import guru.qas.martini.runtime.harness.SuiteExecutor;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultStepInstrumentationTest {
+
+	protected ClassPathXmlApplicationContext context;
+
+	@BeforeClass
+	public void setUpClass() {
+		context = SuiteTestContexts.getContext(DefaultStepInstrumentation.class);
+		context.refresh();
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+		context = null;
+	}
+
+	@Test
+	public void testStepsProfiled() throws InterruptedException {
+		Collection<Martini> martinis = context.getBean(MartiniFactory.class).getMartinis();
+		List<MartiniResult> results = context.getBean(SuiteExecutor.class).execute(martinis);
+
+		List<StepResult> executed = results.stream()
+			.flatMap(result -> result.getStepResults().stream())
+			.filter(stepResult -> stepResult.getStartTimestamp().isPresent())
+			.collect(Collectors.toList());
+		assertFalse(executed.isEmpty(), "no steps executed");
+		executed.forEach(stepResult -> assertTrue(
+			stepResult.getExecutionTime(TimeUnit.NANOSECONDS).isPresent(), "step not timed"));
+
+		StepInstrumentation instrumentation = context.getBean(StepInstrumentation.class);
+		List<StepProfile> profiles = instrumentation.getProfiles();
+		assertFalse(profiles.isEmpty(), "no profiles recorded");
+
+		long executions = profiles.stream().mapToLong(StepProfile::getCount).sum();
+		assertEquals(executions, executed.size(), "wrong number of recorded executions");
+		for (int i = 1; i < profiles.size(); i++) {
+			assertTrue(profiles.get(i - 1).getTotal() >= profiles.get(i).getTotal(), "profiles not ordered by total");
+		}
+		profiles.forEach(profile -> {
+			assertTrue(profile.getMin() <= profile.getP50() && profile.getP50() <= profile.getMax(), "bad percentiles");
+			assertFalse(profile.getName().isEmpty(), "unnamed profile");
+		});
+
+		instrumentation.reset();
+		assertTrue(instrumentation.getProfiles().isEmpty(), "profiles remain after reset");
+	}
+}
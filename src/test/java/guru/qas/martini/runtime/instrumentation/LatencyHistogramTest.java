@@ -0,0 +1,99 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.runtime.instrumentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmpty() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getMin(), 0);
+		assertEquals(histogram.getMax(), 0);
+		assertEquals(histogram.getValueAtPercentile(99), 0);
+	}
+
+	@Test
+	public void testBucketBoundaries() {
+		for (long value : new long[]{0, 1, 31, 32, 63, 64, 65, 1000, 123_456_789L, Long.MAX_VALUE}) {
+			int index = LatencyHistogram.getIndex(value);
+			assertTrue(index >= 0 && index < LatencyHistogram.BUCKET_COUNT, "index out of range for " + value);
+			long highest = LatencyHistogram.getHighestEquivalentValue(index);
+			assertTrue(highest >= value, "highest equivalent below value " + value);
+			assertEquals(LatencyHistogram.getIndex(highest), index, "highest equivalent in another bucket " + value);
+		}
+	}
+
+	@Test
+	public void testPercentilesWithinPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 10_000; i++) {
+			histogram.record(i * 1000);
+		}
+
+		assertEquals(histogram.getCount(), 10_000);
+		assertEquals(histogram.getMin(), 1000);
+		assertEquals(histogram.getMax(), 10_000_000);
+		assertEquals(histogram.getMean(), 5_000_500d, 0.001);
+		assertWithin(histogram.getValueAtPercentile(50), 5_000_000);
+		assertWithin(histogram.getValueAtPercentile(99), 9_900_000);
+		assertEquals(histogram.getValueAtPercentile(100), 10_000_000);
+
+		histogram.reset();
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getValueAtPercentile(50), 0);
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 25_000; i++) {
+						histogram.record(i);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		assertEquals(histogram.getCount(), 100_000);
+		assertEquals(histogram.getTotal(), 4L * 24_999 * 25_000 / 2);
+	}
+
+	private static void assertWithin(long actual, long expected) {
+		double error = Math.abs(actual - expected) / (double) expected;
+		assertTrue(error <= 1.0 / LatencyHistogram.SUB_BUCKET_COUNT, String.format("%s not within precision of %s", actual, expected));
+	}
+}
@@ -0,0 +1,99 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.scope;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.result.MartiniResult;
+
+import static guru.qas.martini.TestStubs.getResult;
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class ConversationMartiniScenarioScopeTest {
+
+	protected ConversationMartiniScenarioScope scope;
+	protected ExecutorService executor;
+
+	@BeforeMethod
+	public void setUp() {
+		scope = new ConversationMartiniScenarioScope();
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@AfterMethod
+	public void tearDown() {
+		scope.setScenarioIdentifier(null);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testWrappedTaskSharesConversation() throws Exception {
+		MartiniResult result = getResult();
+		scope.setScenarioIdentifier(result);
+		Object bean = scope.get("bean", Object::new);
+
+		Object fromWorker = executor.submit(scope.wrap(() -> scope.get("bean", Object::new))).get();
+		assertSame(fromWorker, bean);
+
+		Object fromExecutor = CompletableFuture
+			.supplyAsync(() -> scope.get("bean", Object::new), scope.getExecutor(executor))
+			.get();
+		assertSame(fromExecutor, bean);
+
+		MartiniResult workerResult = executor.submit(scope.wrap(() -> scope.getMartiniResult().orElse(null))).get();
+		assertSame(workerResult, result);
+	}
+
+	@Test
+	public void testUnwrappedTaskIsolated() throws Exception {
+		scope.setScenarioIdentifier(getResult());
+		Object bean = scope.get("bean", Object::new);
+
+		Object fromWorker = executor.submit(() -> scope.get("bean", Object::new)).get();
+		assertNotSame(fromWorker, bean);
+		assertFalse(executor.submit(() -> scope.getMartiniResult().isPresent()).get(), "handle leaked to worker");
+	}
+
+	@Test
+	public void testHandleRestoredAfterTask() throws Exception {
+		scope.setScenarioIdentifier(getResult());
+		executor.submit(scope.wrap(() -> scope.get("bean", Object::new))).get();
+		assertFalse(executor.submit(() -> scope.getMartiniResult().isPresent()).get(), "handle left on worker");
+	}
+
+	@Test
+	public void testClearEndsConversation() throws Exception {
+		scope.setScenarioIdentifier(getResult());
+		AtomicBoolean destroyed = new AtomicBoolean(false);
+		Object bean = scope.get("bean", Object::new);
+		executor.submit(scope.wrap(() -> scope.registerDestructionCallback("bean", () -> destroyed.set(true)))).get();
+
+		scope.clear();
+		assertTrue(destroyed.get(), "callback registered by worker not run");
+		assertFalse(scope.getMartiniResult().isPresent(), "handle survived clear");
+
+		scope.setScenarioIdentifier(getResult());
+		assertNotSame(scope.get("bean", Object::new), bean, "bean shared across scenarios");
+	}
+}
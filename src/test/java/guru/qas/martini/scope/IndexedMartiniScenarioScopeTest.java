@@ -0,0 +1,235 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.scope;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class IndexedMartiniScenarioScopeTest {
+
+	@Test
+	public void testBeanCached() {
+		IndexedMartiniScenarioScope scope = new IndexedMartiniScenarioScope();
+		Object bean = scope.get("one", Object::new);
+		assertSame(scope.get("one", Object::new), bean);
+		assertNotSame(scope.get("two", Object::new), bean);
+
+		scope.clear();
+		assertNotSame(scope.get("one", Object::new), bean, "bean survived clear");
+	}
+
+	@Test
+	public void testClearMatchesDefaultScope() {
+		assertEquals(exercise(new IndexedMartiniScenarioScope()), exercise(new DefaultMartiniScenarioScope()));
+	}
+
+	@Test
+	public void testClearIsLastInFirstOut() {
+		List<String> events = exercise(new IndexedMartiniScenarioScope());
+		assertEquals(events, List.of(
+			"destroy three", "callback three",
+			"destroy one", "callback one",
+			"destroy one", "callback one (replaced)", "destroy two", "callback two"));
+	}
+
+	@Test
+	public void testScopedBeanCount() throws InterruptedException {
+		IndexedMartiniScenarioScope scope = new IndexedMartiniScenarioScope();
+		scope.get("one", Object::new);
+		scope.get("one", Object::new);
+		scope.get("two", Object::new);
+		scope.registerDestructionCallback("one", () -> {
+		});
+		assertEquals(scope.getScopedBeanCount(), 2, "wrong count after get");
+
+		Thread other = new Thread(() -> scope.get("three", Object::new));
+		other.start();
+		other.join();
+		assertEquals(scope.getScopedBeanCount(), 3, "other thread's bean not counted");
+
+		scope.remove("one");
+		assertEquals(scope.getScopedBeanCount(), 2, "wrong count after remove");
+		scope.clear();
+		scope.clear(other);
+		assertEquals(scope.getScopedBeanCount(), 0, "wrong count after clear");
+	}
+
+	@Test
+	public void testRemoveMatchesDefaultScope() {
+		List<String> expected = removeEach(new DefaultMartiniScenarioScope());
+		assertEquals(removeEach(new IndexedMartiniScenarioScope()), expected);
+		assertEquals(expected, List.of(
+			"destroy one", "callback one", "removed one",
+			"callback two", "removed null",
+			"removed null"));
+	}
+
+	@Test
+	public void testCrossThreadIsolationMatchesDefaultScope() throws InterruptedException {
+		List<String> expected = isolate(new DefaultMartiniScenarioScope());
+		assertEquals(isolate(new IndexedMartiniScenarioScope()), expected);
+		assertEquals(expected, List.of(
+			"distinct beans",
+			"destroy other", "callback other",
+			"main kept",
+			"destroy main", "callback main"));
+	}
+
+	@Test
+	public void testStopMatchesDefaultScope() throws InterruptedException {
+		// Threads are cleared in map order, which neither scope defines; each thread is cleared last in first out.
+		for (List<String> events : List.of(stop(new DefaultMartiniScenarioScope()), stop(new IndexedMartiniScenarioScope()))) {
+			assertEquals(events.size(), 4, "every thread's beans and callbacks not destroyed on stop");
+			for (String owner : List.of("main", "other")) {
+				List<String> owned = events.stream().filter(e -> e.endsWith(" " + owner)).collect(Collectors.toList());
+				assertEquals(owned, List.of("destroy " + owner, "callback " + owner));
+			}
+		}
+	}
+
+	@Test
+	public void testClearedFromAnotherThread() throws InterruptedException {
+		IndexedMartiniScenarioScope scope = new IndexedMartiniScenarioScope();
+		AtomicInteger registered = new AtomicInteger();
+		Set<Object> run = ConcurrentHashMap.newKeySet();
+		AtomicInteger runTwice = new AtomicInteger();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		Thread owner = new Thread(() -> {
+			try {
+				for (int i = 0; i < 20_000; i++) {
+					String name = "bean" + i % 16;
+					scope.get(name, Object::new);
+					Object callback = new Object();
+					registered.incrementAndGet();
+					scope.registerDestructionCallback(name, () -> {
+						if (!run.add(callback)) {
+							runTwice.incrementAndGet();
+						}
+					});
+					if (0 == i % 3) {
+						scope.remove(name);
+					}
+				}
+			}
+			catch (Throwable t) {
+				failure.set(t);
+			}
+		});
+		owner.start();
+		while (owner.isAlive()) {
+			scope.clear(owner);
+		}
+		owner.join();
+		scope.clear(owner);
+
+		assertNull(failure.get(), "owning thread failed while cleared from another thread");
+		assertEquals(runTwice.get(), 0, "destruction callback run twice");
+		assertTrue(run.size() <= registered.get(), "more destruction callbacks run than registered");
+		assertEquals(scope.getConversationCount(), 0, "conversation left after clear");
+	}
+
+	protected List<String> removeEach(MartiniScenarioScope scope) {
+		List<String> events = new ArrayList<>();
+		scope.registerDestructionCallback("one", () -> events.add("callback one"));
+		scope.get("one", () -> new Disposable("one", events));
+		scope.registerDestructionCallback("two", () -> events.add("callback two"));
+
+		events.add("removed " + name(scope.remove("one")));
+		events.add("removed " + name(scope.remove("two")));
+		events.add("removed " + name(scope.remove("three")));
+		scope.clear();
+		return events;
+	}
+
+	protected List<String> isolate(MartiniScenarioScope scope) throws InterruptedException {
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		Object main = populate(scope, "main", events);
+
+		Object[] other = new Object[1];
+		Thread thread = new Thread(() -> other[0] = populate(scope, "other", events));
+		thread.start();
+		thread.join();
+		events.add(main == other[0] ? "shared bean" : "distinct beans");
+
+		scope.clear(thread);
+		events.add(main == scope.get("bean", Object::new) ? "main kept" : "main replaced");
+		scope.clear();
+		return events;
+	}
+
+	protected List<String> stop(DefaultMartiniScenarioScope scope) throws InterruptedException {
+		List<String> events = Collections.synchronizedList(new ArrayList<>());
+		scope.start();
+		populate(scope, "main", events);
+		Thread thread = new Thread(() -> populate(scope, "other", events));
+		thread.start();
+		thread.join();
+
+		scope.stop();
+		return events;
+	}
+
+	protected Object populate(MartiniScenarioScope scope, String owner, List<String> events) {
+		scope.registerDestructionCallback("bean", () -> events.add("callback " + owner));
+		return scope.get("bean", () -> new Disposable(owner, events));
+	}
+
+	protected static String name(Object bean) {
+		return bean instanceof Disposable ? ((Disposable) bean).name : String.valueOf(bean);
+	}
+
+	protected List<String> exercise(MartiniScenarioScope scope) {
+		List<String> events = new ArrayList<>();
+		for (String name : List.of("one", "two", "three")) {
+			scope.registerDestructionCallback(name, () -> events.add("callback " + name));
+			scope.get(name, () -> new Disposable(name, events));
+		}
+		scope.remove("three");
+		scope.registerDestructionCallback("one", () -> events.add("callback one (replaced)"));
+		scope.get("one", () -> new Disposable("one", events));
+		scope.clear();
+		return events;
+	}
+
+	protected static class Disposable implements DisposableBean {
+
+		protected final String name;
+		protected final List<String> events;
+
+		protected Disposable(String name, List<String> events) {
+			this.name = name;
+			this.events = events;
+		}
+
+		@Override
+		public void destroy() {
+			events.add("destroy " + name);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import gherkin.ast.Location;
+import gherkin.ast.Step;
+import guru.qas.martini.event.StepImplementationRegisteredEvent;
+import guru.qas.martini.step.DefaultStepImplementation;
+import guru.qas.martini.step.StepImplementation;
+
+import static org.testng.Assert.*;
+
+public class CachingStepImplementationResolverTest {
+
+	private AtomicInteger resolutions;
+	private CachingStepImplementationResolver resolver;
+
+	@BeforeMethod
+	public void setUp() {
+		resolutions = new AtomicInteger();
+		resolver = new CachingStepImplementationResolver(step -> {
+			resolutions.incrementAndGet();
+			return new DefaultStepImplementation(step.getKeyword().trim());
+		}, 10);
+	}
+
+	private static Step getStep(String keyword, String text) {
+		return new Step(new Location(1, 1), keyword, text, null);
+	}
+
+	@Test
+	public void testCacheHit() {
+		StepImplementation first = resolver.getImplementation(getStep("Given ", "a pre-existing condition"));
+		StepImplementation second = resolver.getImplementation(getStep("Given", "a pre-existing condition"));
+
+		assertSame(second, first, "cached StepImplementation not returned");
+		assertEquals(resolutions.get(), 1, "wrong number of delegate resolutions");
+		assertEquals(resolver.getStats().hitCount(), 1, "wrong number of cache hits");
+	}
+
+	@Test
+	public void testDistinctKeywordOrTextMisses() {
+		StepImplementation given = resolver.getImplementation(getStep("Given ", "a pre-existing condition"));
+		StepImplementation when = resolver.getImplementation(getStep("When ", "a pre-existing condition"));
+		StepImplementation other = resolver.getImplementation(getStep("Given ", "another condition"));
+
+		assertNotSame(when, given, "cache hit on a distinct keyword");
+		assertNotSame(other, given, "cache hit on distinct text");
+		assertEquals(resolutions.get(), 3, "wrong number of delegate resolutions");
+		assertEquals(resolver.getStats().hitCount(), 0, "wrong number of cache hits");
+	}
+
+	@Test
+	public void testInvalidatedOnStepRegistration() {
+		Step step = getStep("Given ", "a pre-existing condition");
+		StepImplementation cached = resolver.getImplementation(step);
+
+		try (StaticApplicationContext context = new StaticApplicationContext()) {
+			context.getBeanFactory().registerSingleton("stepImplementationResolver", resolver);
+			context.refresh();
+			context.publishEvent(new StepImplementationRegisteredEvent(this, cached));
+		}
+
+		StepImplementation resolved = resolver.getImplementation(step);
+		assertNotSame(resolved, cached, "cache kept after StepImplementation registered");
+		assertEquals(resolutions.get(), 2, "wrong number of delegate resolutions");
+	}
+}
@@ -0,0 +1,56 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import java.util.regex.Pattern;
+
+import org.testng.annotations.Test;
+
+import static guru.qas.martini.spring.IndexedStepImplementationResolver.*;
+import static org.testng.Assert.*;
+
+public class IndexedStepImplementationResolverTest {
+
+	@Test
+	public void testAnchoredLiteralPrefix() {
+		assertEquals(getLiteralPrefix(Pattern.compile("^a pre-existing condition$")), "a pre-existing condition");
+		assertEquals(getLiteralPrefix(Pattern.compile("^the user \"(.+)\" logs in$")), "the user \"");
+		assertEquals(getLiteralPrefix(Pattern.compile("^version 1\\.2 (\\d+)$")), "version 1.2 ");
+	}
+
+	@Test
+	public void testQuantifiedCharacterExcluded() {
+		assertEquals(getLiteralPrefix(Pattern.compile("^an items? list$")), "an item");
+		assertEquals(getLiteralPrefix(Pattern.compile("^ab{2} list$")), "a");
+		assertEquals(getLiteralPrefix(Pattern.compile("^\\d+ items$")), "");
+	}
+
+	@Test
+	public void testUnindexablePatterns() {
+		assertNull(getLiteralPrefix(Pattern.compile("a pre-existing condition")));
+		assertNull(getLiteralPrefix(Pattern.compile("^one$|^two$")));
+		assertNull(getLiteralPrefix(Pattern.compile("^Case$", Pattern.CASE_INSENSITIVE)));
+		assertNotNull(getLiteralPrefix(Pattern.compile("^(one|two) [|]$")));
+	}
+
+	@Test
+	public void testLeadingToken() {
+		assertEquals(getLeadingToken("the user logs in"), "the");
+		assertEquals(getLeadingToken("single"), "single");
+		assertEquals(getLeadingToken(" leading"), "");
+	}
+}
@@ -0,0 +1,166 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+
+package guru.qas.martini.spring;
+
+import java.lang.reflect.Method;
+import java.util.regex.Pattern;
+
+import org.springframework.context.support.StaticApplicationContext;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import gherkin.ast.Location;
+import gherkin.ast.Step;
+import guru.qas.martini.step.DefaultStepImplementation;
+import guru.qas.martini.step.StepImplementation;
+import guru.qas.martini.step.exception.AmbiguousStepException;
+
+import static org.testng.Assert.*;
+
+/**
+ * Resolves the same steps with IndexedStepImplementationResolver and the linear DefaultStepImplementationResolver
+ * over one set of StepImplementations, expecting identical matches, ambiguities and unmatched steps.
+ */
+public class StepImplementationResolverEquivalenceTest {
+
+	private StaticApplicationContext context;
+	private DefaultStepImplementationResolver linear;
+	private IndexedStepImplementationResolver indexed;
+
+	@SuppressWarnings("unused")
+	public void none() {
+	}
+
+	@SuppressWarnings("unused")
+	public void one(String first) {
+	}
+
+	@SuppressWarnings("unused")
+	public void two(String first, String second) {
+	}
+
+	@BeforeClass
+	public void setUpClass() throws NoSuchMethodException {
+		Method none = getClass().getMethod("none");
+		Method one = getClass().getMethod("one", String.class);
+		Method two = getClass().getMethod("two", String.class, String.class);
+
+		context = new StaticApplicationContext();
+		register("literal", "Given", "^a pre-existing condition$", none);
+		register("literalWhen", "When", "^a pre-existing condition$", none);
+		register("quoted", "When", "^the user \"(.+)\" logs in$", one);
+		register("unquoted", "When", "^the user (.+) logs in$", one);
+		register("pair", "Then", "^the (\\w+) equals (\\w+)$", two);
+		register("quantified", "Given", "^an items? list$", none);
+		register("unanchored", "Then", "the page shows", none);
+		register("insensitive", "Then", "(?i)^the PAGE is blank$", none);
+		register("alternating", "Given", "^one$|^two$", none);
+		register("leadingGroup", "Given", "^(\\d+) widgets$", one);
+		register("unimplemented", "Given", null, null);
+		context.getBeanFactory().registerSingleton("custom", new DefaultStepImplementation("Then", null, none) {
+			@Override
+			public boolean isMatch(Step step) {
+				return "And".equals(getNormalizedKeyword(step));
+			}
+		});
+		context.refresh();
+
+		linear = new DefaultStepImplementationResolver();
+		linear.setApplicationContext(context);
+		indexed = new IndexedStepImplementationResolver();
+		indexed.setApplicationContext(context);
+	}
+
+	private void register(String name, String keyword, String regex, Method method) {
+		Pattern pattern = null == regex ? null : Pattern.compile(regex);
+		context.getBeanFactory().registerSingleton(name, new DefaultStepImplementation(keyword, pattern, method));
+	}
+
+	@AfterClass
+	public void tearDownClass() {
+		if (null != context) {
+			context.close();
+		}
+	}
+
+	@DataProvider
+	public Object[][] steps() {
+		return new Object[][]{
+			{"Given ", "a pre-existing condition", true},
+			{"When ", "a pre-existing condition", true},
+			{"Then ", "a pre-existing condition", false},
+			{"When ", "the user \"bob\" logs in", true},
+			{"When ", "the user bob logs in", true},
+			{"Then ", "the total equals 12", true},
+			{"Then ", "the total equals", false},
+			{"Given ", "an item list", true},
+			{"Given ", "an items list", true},
+			{"Given ", "an itemss list", false},
+			{"Then ", "and then the page shows a banner", true},
+			{"Then ", "the page is blank", true},
+			{"Given ", "two", true},
+			{"Given ", "12 widgets", true},
+			{"Given ", "widgets", false},
+			{"And ", "anything at all", true},
+			{"But ", "a pre-existing condition", false},
+			{"Given ", "", false},
+		};
+	}
+
+	@Test(dataProvider = "steps")
+	public void testEquivalentResolution(String keyword, String text, boolean implemented) {
+		Step step = new Step(new Location(1, 1), keyword, text, null);
+		StepImplementation expected = null;
+		String expectedAmbiguity = null;
+		try {
+			expected = linear.getImplementation(step);
+		}
+		catch (AmbiguousStepException e) {
+			expectedAmbiguity = e.getMessage();
+		}
+
+		StepImplementation actual = null;
+		String actualAmbiguity = null;
+		try {
+			actual = indexed.getImplementation(step);
+		}
+		catch (AmbiguousStepException e) {
+			actualAmbiguity = e.getMessage();
+		}
+
+		assertEquals(actualAmbiguity, expectedAmbiguity, "ambiguity differs for " + keyword + text);
+		if (null == expectedAmbiguity) {
+			assertEquals(actual.getMethod().isPresent(), implemented, "wrong resolution for " + keyword + text);
+			if (implemented) {
+				assertSame(actual, expected, "different StepImplementation for " + keyword + text);
+			}
+			else {
+				assertEquals(actual.getKeyword(), expected.getKeyword(), "wrong unmatched keyword for " + keyword + text);
+				assertFalse(expected.getMethod().isPresent(), "linear resolver matched " + keyword + text);
+			}
+		}
+	}
+
+	@Test
+	public void testAmbiguousStep() {
+		Step step = new Step(new Location(1, 1), "When ", "the user \"bob\" logs in", null);
+		assertThrows(AmbiguousStepException.class, () -> linear.getImplementation(step));
+		assertThrows(AmbiguousStepException.class, () -> indexed.getImplementation(step));
+	}
+}
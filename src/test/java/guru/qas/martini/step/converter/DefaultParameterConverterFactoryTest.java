@@ -0,0 +1,102 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.step.converter;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.StandardEnvironment;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings({"WeakerAccess", "unused"})
+public class DefaultParameterConverterFactoryTest {
+
+	protected ConversionService conversionService;
+	protected DefaultParameterConverterFactory factory;
+	protected Method method;
+
+	@BeforeClass
+	public void setUpClass() throws NoSuchMethodException {
+		conversionService = new DefaultConversionService();
+		factory = new DefaultParameterConverterFactory(conversionService, new StandardEnvironment());
+		factory.afterPropertiesSet();
+		method = getClass().getDeclaredMethod("step",
+			String.class, int.class, Long.class, boolean.class, char.class, BigDecimal.class, TimeUnit.class, UUID.class, Object.class);
+	}
+
+	protected void step(String s, int i, Long l, boolean b, char c, BigDecimal d, TimeUnit u, UUID id, Object o) {
+	}
+
+	@DataProvider
+	public Object[][] values() {
+		return new Object[][]{
+			{0, "text"}, {0, ""},
+			{1, "42"}, {1, " 0x1F "},
+			{2, "-9000000000"}, {2, null},
+			{3, "Yes"}, {3, " off "}, {3, "0"},
+			{4, "x"}, {4, " "},
+			{5, "3.14159"},
+			{6, " SECONDS "},
+			{7, "123e4567-e89b-12d3-a456-426614174000"},
+			{8, "anything"},
+		};
+	}
+
+	@Test(dataProvider = "values")
+	public void testMatchesConversionService(int index, String value) {
+		Class<?> type = method.getParameterTypes()[index];
+		Object expected = conversionService.convert(value, type);
+		Object actual = factory.getConverters(method).get(index).convert(value);
+		assertTrue(Objects.equals(expected, actual), "expected " + expected + " but got " + actual);
+	}
+
+	@DataProvider
+	public Object[][] invalidValues() {
+		return new Object[][]{{1, "forty-two"}, {1, ""}, {3, "maybe"}, {3, " "}, {4, "xy"}, {6, "FORTNIGHTS"}};
+	}
+
+	@Test(dataProvider = "invalidValues", expectedExceptions = ConversionFailedException.class)
+	public void testInvalidValue(int index, String value) {
+		factory.getConverters(method).get(index).convert(value);
+	}
+
+	@Test
+	public void testConvertersCached() {
+		List<ParameterConverter> converters = factory.getConverters(method);
+		assertEquals(converters.size(), method.getParameterCount());
+		assertSame(factory.getConverters(method), converters);
+	}
+
+	@Test
+	public void testFallbackReported() {
+		factory.getConverters(method);
+		Parameter fallback = method.getParameters()[8];
+		assertTrue(factory.getFallbackParameters().contains(fallback), "Object parameter not reported");
+		assertEquals(factory.getFallbackParameters().size(), 1, "unexpected fallbacks");
+	}
+}
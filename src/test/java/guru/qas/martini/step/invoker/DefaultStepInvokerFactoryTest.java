@@ -0,0 +1,134 @@
+/*
+Copyright 2020 Penny Rohr Curich
+
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package guru.qas.martini.step.invoker;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import guru.qas.martini.step.StepImplementation;
+
+import static org.testng.Assert.*;
+
+@SuppressWarnings("WeakerAccess")
+public class DefaultStepInvokerFactoryTest {
+
+	protected DefaultListableBeanFactory beanFactory;
+	protected DefaultStepInvokerFactory factory;
+
+	@BeforeMethod
+	public void setUp() {
+		beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerBeanDefinition("singletonSteps", new RootBeanDefinition(SingletonSteps.class));
+		RootBeanDefinition prototype = new RootBeanDefinition(PrototypeSteps.class);
+		prototype.setScope(BeanDefinition.SCOPE_PROTOTYPE);
+		beanFactory.registerBeanDefinition("prototypeSteps", prototype);
+		factory = new DefaultStepInvokerFactory(beanFactory);
+	}
+
+	@Test
+	public void testSingletonBound() throws Throwable {
+		Method method = SingletonSteps.class.getMethod("add", int.class, Integer.class);
+		StepInvoker invoker = factory.getInvoker(method);
+		assertTrue(invoker.isBound(), "singleton bean not bound");
+		assertEquals(invoker.invoke(null, new Object[]{2, 3}), 5);
+		assertSame(factory.getInvoker(method), invoker);
+	}
+
+	@Test
+	public void testPrototypeUnbound() throws Throwable {
+		Method method = PrototypeSteps.class.getMethod("touch");
+		StepInvoker invoker = factory.getInvoker(method);
+		assertFalse(invoker.isBound(), "prototype bean bound");
+
+		PrototypeSteps bean = beanFactory.getBean(PrototypeSteps.class);
+		assertNull(invoker.invoke(bean, new Object[0]));
+		assertTrue(bean.touched);
+	}
+
+	@Test
+	public void testStepExceptionPropagated() {
+		StepInvoker invoker = factory.getInvoker(getMethod(SingletonSteps.class, "fail"));
+		IllegalStateException e = expectThrows(IllegalStateException.class, () -> invoker.invoke(null, new Object[0]));
+		assertEquals(e.getMessage(), "expected");
+	}
+
+	@Test
+	public void testInaccessibleMethodInvokedReflectively() throws Throwable {
+		Method method = getMethod(SingletonSteps.class, "hidden");
+		StepInvoker invoker = factory.getInvoker(method);
+		assertTrue(DefaultStepInvokerFactory.ReflectiveInvoker.class.isInstance(invoker));
+
+		method.setAccessible(true);
+		assertEquals(invoker.invoke(beanFactory.getBean(SingletonSteps.class), new Object[0]), "hidden");
+	}
+
+	@Test
+	public void testInvokersCreatedOnRefresh() {
+		try (ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext("applicationContext.xml")) {
+			Set<Method> methods = context.getBeansOfType(StepImplementation.class, false, false).values().stream()
+				.map(StepImplementation::getMethod)
+				.flatMap(Optional::stream)
+				.collect(Collectors.toSet());
+			assertFalse(methods.isEmpty(), "no step methods registered");
+
+			DefaultStepInvokerFactory created = (DefaultStepInvokerFactory) context.getBean(StepInvokerFactory.class);
+			assertEquals(created.index.keySet(), methods, "invokers not created as the context refreshed");
+		}
+	}
+
+	protected static Method getMethod(Class<?> c, String name) {
+		try {
+			return c.getDeclaredMethod(name);
+		}
+		catch (NoSuchMethodException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@SuppressWarnings("unused")
+	public static class SingletonSteps {
+
+		public int add(int left, Integer right) {
+			return left + right;
+		}
+
+		public void fail() {
+			throw new IllegalStateException("expected");
+		}
+
+		private String hidden() {
+			return "hidden";
+		}
+	}
+
+	public static class PrototypeSteps {
+
+		protected boolean touched;
+
+		public void touch() {
+			touched = true;
+		}
+	}
+}